@@ -30,6 +30,7 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
+import java.util.function.Supplier;
 
 public abstract class AbstractMethodWriterInvocationHandler extends AbstractInvocationHandler implements MethodWriterInvocationHandler {
     private final Map<Method, ParameterHolderSequenceWriter> parameterMap = new ConcurrentHashMap<>();
@@ -39,6 +40,10 @@ public abstract class AbstractMethodWriterInvocationHandler extends AbstractInvo
         return m.getReturnType().isInterface() ? this.proxy.get() : null;
     };
     protected boolean recordHistory;
+    protected Supplier<MarshallableOut> marshallableOutSupplier;
+    private MethodMetrics metrics;
+    private MethodArgumentsInterceptor argumentsInterceptor;
+    private MethodArguments arguments;
     protected String genericEvent = "";
     private MethodWriterInterceptorReturns methodWriterInterceptorReturns;
     private BiConsumer<Method, Object[]> handleInvoke;
@@ -52,6 +57,9 @@ public abstract class AbstractMethodWriterInvocationHandler extends AbstractInvo
     @Override
     protected Object doInvoke(Object proxy, Method method, Object[] args) {
 
+        if (argumentsInterceptor != null && !intercept(method, args))
+            return method.getReturnType().isInterface() ? proxy : null;
+
         if (methodWriterInterceptorReturns != null) {
             this.proxy.set(proxy);
             // TODO: ignores retval
@@ -62,6 +70,15 @@ public abstract class AbstractMethodWriterInvocationHandler extends AbstractInvo
         return method.getReturnType().isInterface() ? proxy : null;
     }
 
+    private boolean intercept(Method method, Object[] args) {
+        if (arguments == null)
+            arguments = new MethodArguments();
+        arguments.reset(method);
+        for (int i = 0; i < arguments.count(); i++)
+            arguments.set(i, args[i]);
+        return argumentsInterceptor.intercept(arguments);
+    }
+
     @Override
     public void genericEvent(String genericEvent) {
         this.genericEvent = genericEvent;
@@ -70,6 +87,19 @@ public abstract class AbstractMethodWriterInvocationHandler extends AbstractInvo
     protected abstract void handleInvoke(Method method, Object[] args);
 
     protected void handleInvoke(@NotNull Method method, Object[] args, Wire wire) {
+        if (metrics == null) {
+            handleInvoke0(method, args, wire);
+            return;
+        }
+        Bytes<?> bytes = wire.bytes();
+        long position = bytes.writePosition();
+        long start = System.nanoTime();
+        handleInvoke0(method, args, wire);
+        long time = System.nanoTime() - start;
+        metrics.acquire(method.getName()).onWrite(bytes.writePosition() - position, time);
+    }
+
+    private void handleInvoke0(@NotNull Method method, Object[] args, Wire wire) {
         if (recordHistory) {
             wire.writeEventName(MethodReader.HISTORY)
                     .marshallable(MessageHistory.get());
@@ -129,4 +159,19 @@ public abstract class AbstractMethodWriterInvocationHandler extends AbstractInvo
     public void useMethodIds(boolean useMethodIds) {
         this.useMethodIds = useMethodIds;
     }
+
+    public void metrics(MethodMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public void argumentsInterceptor(MethodArgumentsInterceptor argumentsInterceptor) {
+        this.argumentsInterceptor = argumentsInterceptor;
+    }
+
+    /**
+     * @param marshallableOutSupplier to write documents to instead of the one this handler was created with.
+     */
+    public void marshallableOutSupplier(@NotNull Supplier<MarshallableOut> marshallableOutSupplier) {
+        this.marshallableOutSupplier = marshallableOutSupplier;
+    }
 }
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2016-2020 Chronicle Software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Controls how a method reader reuses the objects it reads arguments into.
+ * <p>
+ * By default, one instance per parameter is reused, which is only safe if the handler doesn't retain a reference to
+ * it once the method returns. A handler which queues events for later can use {@link Policy#POOLED} and call
+ * {@link #release(Class, Object)} when it is finished with an argument, or {@link Policy#NEW} to always get a new object.
+ * <p>
+ * Only arguments which would otherwise be reused, i.e. Marshallable and Collection, are pooled.
+ */
+public class ArgumentRecycler {
+    private final Map<String, Policy> policies = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Pool> pools = new ConcurrentHashMap<>();
+    private Policy defaultPolicy = Policy.REUSE;
+    private int poolCapacity = 64;
+
+    @NotNull
+    public Policy defaultPolicy() {
+        return defaultPolicy;
+    }
+
+    @NotNull
+    public ArgumentRecycler defaultPolicy(@NotNull Policy defaultPolicy) {
+        this.defaultPolicy = defaultPolicy;
+        return this;
+    }
+
+    /**
+     * @param methodName the method this applies to
+     * @param policy     to use for the arguments of this method
+     * @return this
+     */
+    @NotNull
+    public ArgumentRecycler policy(@NotNull String methodName, @NotNull Policy policy) {
+        policies.put(methodName, policy);
+        return this;
+    }
+
+    @NotNull
+    public Policy policyFor(@NotNull String methodName) {
+        return policies.getOrDefault(methodName, defaultPolicy);
+    }
+
+    public int poolCapacity() {
+        return poolCapacity;
+    }
+
+    /**
+     * @param poolCapacity the maximum number of released objects retained per parameter type.
+     * @return this
+     */
+    @NotNull
+    public ArgumentRecycler poolCapacity(int poolCapacity) {
+        if (poolCapacity < 1)
+            throw new IllegalArgumentException("poolCapacity must be positive, was " + poolCapacity);
+        this.poolCapacity = poolCapacity;
+        return this;
+    }
+
+    /**
+     * @param parameterType the declared type of the parameter
+     * @return an object released for this parameter type, or null if there is none and a new one should be created.
+     */
+    @Nullable
+    public <T> T acquire(@NotNull Class<T> parameterType) {
+        Object o = pool(parameterType).acquire();
+        return parameterType.isInstance(o) ? parameterType.cast(o) : null;
+    }
+
+    /**
+     * Return an argument to its pool once the handler no longer needs it. This can be called from any thread.
+     * <p>
+     * Pools are keyed on the declared parameter type, as used by the reader, rather than the class of the argument,
+     * so a subclass of the declared type is returned to the pool it was taken from.
+     *
+     * @param parameterType the declared type of the parameter the argument was passed as
+     * @param argument      to release, ignored if null or a type which isn't pooled.
+     */
+    public void release(@NotNull Class<?> parameterType, @Nullable Object argument) {
+        if (argument instanceof Marshallable || argument instanceof Collection)
+            pool(parameterType).release(argument);
+    }
+
+    /**
+     * @return the pool for this declared parameter type, created if needed.
+     */
+    @NotNull
+    public Pool pool(@NotNull Class<?> type) {
+        Pool pool = pools.get(type);
+        if (pool == null)
+            pool = pools.computeIfAbsent(type, t -> new Pool(poolCapacity));
+        return pool;
+    }
+
+    /**
+     * @return the number of times an object had to be created because its pool was empty, across all types.
+     */
+    public long misses() {
+        long misses = 0;
+        for (Pool pool : pools.values())
+            misses += pool.misses();
+        return misses;
+    }
+
+    public enum Policy {
+        /**
+         * reuse one instance per parameter, the handler mustn't retain the argument.
+         */
+        REUSE,
+        /**
+         * take an instance from a bounded pool, which the handler should {@link #release(Class, Object)} when finished.
+         */
+        POOLED,
+        /**
+         * always read into a new instance.
+         */
+        NEW
+    }
+
+    /**
+     * A bounded stack of released objects of one type.
+     */
+    public static final class Pool {
+        private final Object[] objects;
+        private int size;
+        private long acquired, misses, discarded;
+
+        Pool(int capacity) {
+            objects = new Object[capacity];
+        }
+
+        synchronized Object acquire() {
+            acquired++;
+            if (size == 0) {
+                misses++;
+                return null;
+            }
+            Object o = objects[--size];
+            objects[size] = null;
+            return o;
+        }
+
+        synchronized void release(Object o) {
+            if (size == objects.length) {
+                discarded++;
+                return;
+            }
+            objects[size++] = o;
+        }
+
+        public synchronized int size() {
+            return size;
+        }
+
+        public int capacity() {
+            return objects.length;
+        }
+
+        /**
+         * @return the number of objects taken from, or created for want of, this pool.
+         */
+        public synchronized long acquired() {
+            return acquired;
+        }
+
+        /**
+         * @return the number of times the pool was empty.
+         */
+        public synchronized long misses() {
+            return misses;
+        }
+
+        /**
+         * @return the number of released objects dropped because the pool was full.
+         */
+        public synchronized long discarded() {
+            return discarded;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return "Pool{" +
+                    "size=" + size +
+                    ", capacity=" + objects.length +
+                    ", acquired=" + acquired +
+                    ", misses=" + misses +
+                    ", discarded=" + discarded +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright 2016-2020 Chronicle Software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.core.ClassLocal;
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.core.io.Closeable;
+import net.openhft.chronicle.core.threads.EventHandler;
+import net.openhft.chronicle.core.threads.InvalidEventHandlerException;
+import net.openhft.chronicle.core.util.ObjectUtils;
+import net.openhft.chronicle.threads.Pauser;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves the cost of serializing method writer calls off the calling thread.
+ * <p>
+ * The calling thread copies the arguments of each call into a preallocated slot of a ring buffer. Primitives are
+ * stored inline, Marshallables are copied into a holder reused by the slot, and other CharSequences into a
+ * StringBuilder. Any other argument is held by reference, so it mustn't be modified after the call.
+ * A Marshallable with only fields copied by value, and the default marshalling, is copied field by field,
+ * otherwise it is copied with {@link Marshallable#copyTo(Marshallable)}.
+ * <p>
+ * If history is recorded, the caller's {@link MessageHistory} is copied into the slot, and is the MessageHistory
+ * of the replaying thread while the call is written.
+ * <p>
+ * Another thread replays the calls on the target writer by calling {@link #action()}, either as an EventHandler
+ * on an EventLoop or on the thread returned by {@link #start(String)}. If the ring buffer is full, the caller waits.
+ * A call which fails to replay is logged and dropped.
+ * <p>
+ * There must be only one calling thread.
+ */
+public class AsyncMethodWriter implements MethodArgumentsInterceptor, EventHandler, Closeable {
+    private static final ClassLocal<Boolean> COPY_FIELDS = ClassLocal.withInitial(AsyncMethodWriter::copyFields);
+
+    @NotNull
+    private final Object target;
+    @Nullable
+    private final BatchingMarshallableOut batchingOut;
+    private final MethodArguments[] slots;
+    private final Object[][] holders;
+    @Nullable
+    private final VanillaMessageHistory[] histories;
+    private final int mask;
+    // used by the caller when the ring buffer is full
+    private final Pauser callerPauser = Pauser.balanced();
+    // used by the thread started by start(String)
+    private final Pauser replayPauser = Pauser.balanced();
+    // next slot to be written by the caller
+    private final AtomicLong head = new AtomicLong();
+    // next slot to be replayed
+    private final AtomicLong tail = new AtomicLong();
+    private Object[][] argArrays = new Object[4][];
+    private volatile boolean closed;
+
+    /**
+     * @param target      the writer the calls are replayed on
+     * @param capacity    the number of calls which can be queued, rounded up to a power of two
+     * @param batchingOut if not null, flushed after each batch of calls has been replayed
+     */
+    public AsyncMethodWriter(@NotNull Object target, int capacity, @Nullable BatchingMarshallableOut batchingOut) {
+        this(target, capacity, batchingOut, false);
+    }
+
+    /**
+     * @param target        the writer the calls are replayed on
+     * @param capacity      the number of calls which can be queued, rounded up to a power of two
+     * @param batchingOut   if not null, flushed after each batch of calls has been replayed
+     * @param recordHistory if true, the caller's MessageHistory is copied with each call
+     */
+    public AsyncMethodWriter(@NotNull Object target, int capacity, @Nullable BatchingMarshallableOut batchingOut, boolean recordHistory) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("capacity must be positive, was " + capacity);
+        this.target = target;
+        this.batchingOut = batchingOut;
+        int size = Integer.highestOneBit(capacity * 2 - 1);
+        slots = new MethodArguments[size];
+        holders = new Object[size][];
+        histories = recordHistory ? new VanillaMessageHistory[size] : null;
+        for (int i = 0; i < size; i++) {
+            slots[i] = new MethodArguments();
+            holders[i] = new Object[4];
+            if (histories != null)
+                histories[i] = new VanillaMessageHistory();
+        }
+        mask = size - 1;
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * @return the number of calls waiting to be replayed.
+     */
+    public int queued() {
+        return (int) (head.get() - tail.get());
+    }
+
+    /**
+     * Copy the call into the next slot, waiting if the ring buffer is full.
+     *
+     * @return false, as the call is written by the replaying thread.
+     */
+    @Override
+    public boolean intercept(@NotNull MethodArguments arguments) {
+        if (closed)
+            throw new IllegalStateException("Closed");
+        long h = head.get();
+        if (h - tail.get() >= slots.length) {
+            while (h - tail.get() >= slots.length)
+                callerPauser.pause();
+            callerPauser.reset();
+        }
+        int index = (int) (h & mask);
+        MethodArguments slot = slots[index].reset(arguments.method());
+        Object[] slotHolders = holders[index];
+        if (slotHolders.length < arguments.count())
+            holders[index] = slotHolders = new Object[arguments.count()];
+
+        for (int i = 0; i < arguments.count(); i++) {
+            Class<?> type = arguments.type(i);
+            if (!type.isPrimitive())
+                slot.setObject(i, copyOf(arguments.getObject(i), slotHolders, i));
+            else if (type == boolean.class)
+                slot.setBoolean(i, arguments.getBoolean(i));
+            else if (type == float.class || type == double.class)
+                slot.setDouble(i, arguments.getDouble(i));
+            else
+                slot.setLong(i, arguments.getLong(i));
+        }
+        if (histories != null)
+            copyHistory(MessageHistory.get(), histories[index]);
+        head.lazySet(h + 1);
+        return false;
+    }
+
+    private static Object copyOf(Object o, Object[] slotHolders, int i) {
+        if (o instanceof Marshallable) {
+            Class<?> aClass = o.getClass();
+            Object holder = slotHolders[i];
+            if (holder == null || holder.getClass() != aClass)
+                slotHolders[i] = holder = ObjectUtils.newInstance(aClass);
+            if (!COPY_FIELDS.get(aClass))
+                return ((Marshallable) o).copyTo((Marshallable) holder);
+            WireMarshaller.WIRE_MARSHALLER_CL.get(aClass).copyTo(o, holder);
+            return holder;
+        }
+        if (o instanceof CharSequence && !(o instanceof String)) {
+            Object holder = slotHolders[i];
+            if (!(holder instanceof StringBuilder))
+                slotHolders[i] = holder = new StringBuilder();
+            StringBuilder sb = (StringBuilder) holder;
+            sb.setLength(0);
+            sb.append((CharSequence) o);
+            return sb;
+        }
+        return o;
+    }
+
+    private static boolean copyFields(Class<?> aClass) {
+        if (!WireMarshaller.WIRE_MARSHALLER_CL.get(aClass).copiesByValue())
+            return false;
+        try {
+            // custom marshalling may hold state not in the fields copied
+            return aClass.getMethod("writeMarshallable", WireOut.class).getDeclaringClass().isInterface()
+                    && aClass.getMethod("readMarshallable", WireIn.class).getDeclaringClass().isInterface();
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static void copyHistory(MessageHistory from, VanillaMessageHistory to) {
+        to.reset();
+        for (int i = 0; i < from.sources(); i++)
+            to.addSource(from.sourceId(i), from.sourceIndex(i));
+        for (int i = 0; i < from.timings(); i++)
+            to.addTiming(from.timing(i));
+        if (from instanceof VanillaMessageHistory) {
+            VanillaMessageHistory vmh = (VanillaMessageHistory) from;
+            to.addSourceDetails(vmh.addSourceDetails());
+            to.compact(vmh.compact());
+        }
+    }
+
+    /**
+     * Replay the queued calls on the target writer.
+     *
+     * @return true if any calls were replayed.
+     */
+    @Override
+    public boolean action() throws InvalidEventHandlerException {
+        if (closed && queued() == 0)
+            throw new InvalidEventHandlerException("closed");
+        return replay();
+    }
+
+    private boolean replay() {
+        long t = tail.get();
+        long h = head.get();
+        if (t == h)
+            return false;
+        MessageHistory history = histories == null ? null : MessageHistory.get();
+        for (; t < h; t++) {
+            int index = (int) (t & mask);
+            try {
+                if (histories != null)
+                    MessageHistory.set(histories[index]);
+                invoke(slots[index]);
+            } finally {
+                // always release the slot, otherwise the caller waits forever
+                tail.lazySet(t + 1);
+            }
+        }
+        if (history != null)
+            MessageHistory.set(history);
+        if (batchingOut != null)
+            batchingOut.flush();
+        return true;
+    }
+
+    private void invoke(MethodArguments slot) {
+        int count = slot.count();
+        if (argArrays.length <= count) {
+            Object[][] arrays = new Object[count + 1][];
+            System.arraycopy(argArrays, 0, arrays, 0, argArrays.length);
+            argArrays = arrays;
+        }
+        Object[] args = argArrays[count];
+        if (args == null)
+            argArrays[count] = args = new Object[count];
+        for (int i = 0; i < count; i++)
+            args[i] = slot.get(i);
+
+        Method method = slot.method();
+        try {
+            method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            Jvm.warn().on(getClass(), "Failed to write " + method.getName(), e.getCause());
+        } catch (Throwable t) {
+            // a call which can't be replayed mustn't stop the calls after it
+            Jvm.warn().on(getClass(), "Failed to write " + method.getName(), t);
+        } finally {
+            // don't retain arguments held by reference
+            for (int i = 0; i < count; i++) {
+                args[i] = null;
+                if (!slot.type(i).isPrimitive())
+                    slot.setObject(i, null);
+            }
+        }
+    }
+
+    /**
+     * Start a daemon thread which replays calls until this is closed.
+     *
+     * @param name of the thread
+     * @return the thread started
+     */
+    @NotNull
+    public Thread start(String name) {
+        Thread thread = new Thread(() -> {
+            while (!closed || queued() > 0) {
+                if (replay())
+                    replayPauser.reset();
+                else
+                    replayPauser.pause();
+            }
+        }, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Stop accepting calls. Calls already queued are still replayed.
+     */
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+}
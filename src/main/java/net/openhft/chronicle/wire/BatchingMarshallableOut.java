@@ -0,0 +1,202 @@
+/*
+ * Copyright 2016-2020 Chronicle Software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Supplier;
+
+/**
+ * A MarshallableOut which appends consecutive documents written to it into a single document of the underlying
+ * MarshallableOut. The shared document is completed when <code>maxBatchBytes</code>, <code>maxBatchCount</code>
+ * or <code>maxBatchNanos</code> is reached, or when {@link #flush()} or {@link #flushIfIdle()} is called.
+ * The underlying MarshallableOut is obtained from its supplier at the start of each batch.
+ * <p>
+ * The underlying document stays open between calls, holding any lock it takes, e.g. the write lock of a queue,
+ * until the batch is completed. A writer which may go quiet should call {@link #flushIfIdle()} when it has nothing
+ * else to do, so a partial batch isn't held open.
+ * <p>
+ * A MethodReader reads every event in a document in order, so the batched calls are replayed as written.
+ * If the underlying MarshallableOut records history, it is written once at the start of each batch,
+ * rather than for each call.
+ * <p>
+ * This class is not thread safe, and the last batch is only visible to readers after a {@link #flush()}.
+ */
+public class BatchingMarshallableOut implements MarshallableOut {
+    @NotNull
+    private final Supplier<MarshallableOut> outSupplier;
+    private final long maxBatchBytes;
+    private final int maxBatchCount;
+    private final long maxBatchNanos;
+    private final BatchDocumentContext context = new BatchDocumentContext();
+    private long batchStart;
+    private long batchStartNanos;
+    private int batchCount;
+
+    public BatchingMarshallableOut(@NotNull MarshallableOut out, long maxBatchBytes, int maxBatchCount) {
+        this(() -> out, maxBatchBytes, maxBatchCount, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param outSupplier   supplies the underlying MarshallableOut at the start of each batch
+     * @param maxBatchBytes the size of document at which the batch is completed
+     * @param maxBatchCount the number of documents after which the batch is completed
+     * @param maxBatchNanos the age of a batch at which it is completed by the next document or {@link #flushIfIdle()}
+     */
+    public BatchingMarshallableOut(@NotNull Supplier<MarshallableOut> outSupplier, long maxBatchBytes, int maxBatchCount, long maxBatchNanos) {
+        if (maxBatchBytes <= 0 || maxBatchCount <= 0 || maxBatchNanos <= 0)
+            throw new IllegalArgumentException("maxBatchBytes, maxBatchCount and maxBatchNanos must be positive");
+        this.outSupplier = outSupplier;
+        this.maxBatchBytes = maxBatchBytes;
+        this.maxBatchCount = maxBatchCount;
+        this.maxBatchNanos = maxBatchNanos;
+    }
+
+    /**
+     * @return the MarshallableOut the next batch will be written to
+     */
+    @NotNull
+    public MarshallableOut underlying() {
+        return outSupplier.get();
+    }
+
+    /**
+     * @return the number of documents appended to the current batch
+     */
+    public int batchCount() {
+        return batchCount;
+    }
+
+    @Override
+    public DocumentContext writingDocument(boolean metaData) throws UnrecoverableTimeoutException {
+        DocumentContext dc = context.dc();
+        if (dc != null && dc.isMetaData() != metaData) {
+            flush();
+            dc = null;
+        }
+        if (dc == null) {
+            MarshallableOut out = outSupplier.get();
+            dc = out.writingDocument(metaData);
+            context.dc(dc);
+            if (!metaData && out.recordHistory())
+                MessageHistory.writeHistory(dc);
+            batchStart = dc.wire().bytes().writePosition();
+            batchStartNanos = System.nanoTime();
+        }
+        context.start(dc.wire().bytes().writePosition());
+        return context;
+    }
+
+    @Override
+    public DocumentContext acquireWritingDocument(boolean metaData) throws UnrecoverableTimeoutException {
+        if (context.isOpen() && context.isMetaData() == metaData)
+            return context;
+        return writingDocument(metaData);
+    }
+
+    /**
+     * @return false, as the history is written once at the start of each batch.
+     */
+    @Override
+    public boolean recordHistory() {
+        return false;
+    }
+
+    @NotNull
+    @Override
+    public Padding padToCacheAlignMode() {
+        return outSupplier.get().padToCacheAlignMode();
+    }
+
+    /**
+     * Complete the current batch, if any, so it can be read.
+     */
+    public void flush() {
+        DocumentContext dc = context.dc();
+        if (dc == null)
+            return;
+        if (batchCount == 0)
+            dc.rollbackOnClose();
+        context.dc(null);
+        batchCount = 0;
+        dc.close();
+    }
+
+    /**
+     * Complete the current batch if it is at least <code>maxBatchNanos</code> old.
+     * Call this on the writing thread when it has no more documents to write for now.
+     *
+     * @return true if a batch was completed.
+     */
+    public boolean flushIfIdle() {
+        if (context.dc() == null || context.isNotComplete() || System.nanoTime() - batchStartNanos < maxBatchNanos)
+            return false;
+        flush();
+        return true;
+    }
+
+    void closeOne(long callStart, boolean rollback) {
+        DocumentContext dc = context.dc();
+        if (dc == null)
+            return;
+        Bytes<?> bytes = dc.wire().bytes();
+        if (rollback) {
+            bytes.writePosition(callStart);
+            return;
+        }
+        batchCount++;
+        if (batchCount >= maxBatchCount
+                || bytes.writePosition() - batchStart >= maxBatchBytes
+                || System.nanoTime() - batchStartNanos >= maxBatchNanos)
+            flush();
+    }
+
+    class BatchDocumentContext extends WrappedDocumentContext {
+        private long callStart = -1;
+        private boolean rollback;
+
+        BatchDocumentContext() {
+            super(null);
+        }
+
+        void start(long callStart) {
+            this.callStart = callStart;
+            this.rollback = false;
+        }
+
+        @Override
+        public boolean isNotComplete() {
+            return callStart >= 0 && dc() != null;
+        }
+
+        @Override
+        public void rollbackOnClose() {
+            rollback = true;
+        }
+
+        @Override
+        public void close() {
+            if (callStart < 0)
+                return;
+            long callStart = this.callStart;
+            this.callStart = -1;
+            closeOne(callStart, rollback);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2016-2020 Chronicle Software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The position of the event name or id, and the payload, of a binary event, found without decoding either.
+ */
+final class BinaryEventHeader {
+    long methodId;
+    long nameStart;
+    int nameLength;
+    long payloadStart;
+
+    /**
+     * Read the header of the event at <code>position</code>, leaving the read position unchanged.
+     *
+     * @return false if there isn't an event name or id at this position, including at or after the read limit.
+     */
+    boolean read(@NotNull Bytes<?> bytes, long position) {
+        methodId = -1;
+        nameStart = 0;
+        nameLength = 0;
+        if (position >= bytes.readLimit())
+            return false;
+        long readPosition = bytes.readPosition();
+        try {
+            bytes.readPosition(position);
+            int code = bytes.readUnsignedByte();
+            if (code >= BinaryWireCode.FIELD_NAME0 && code <= BinaryWireCode.FIELD_NAME31) {
+                nameStart = position + 1;
+                nameLength = code - BinaryWireCode.FIELD_NAME0;
+
+            } else if (code == BinaryWireCode.EVENT_NAME || code == BinaryWireCode.FIELD_NAME_ANY) {
+                if (bytes.readRemaining() <= 0)
+                    return false;
+                long length = bytes.readStopBit();
+                if (length < 0 || length > bytes.readRemaining())
+                    return false;
+                nameStart = bytes.readPosition();
+                nameLength = (int) length;
+
+            } else if (code == BinaryWireCode.FIELD_NUMBER) {
+                if (bytes.readRemaining() <= 0)
+                    return false;
+                methodId = bytes.readStopBit();
+                payloadStart = bytes.readPosition();
+                return true;
+
+            } else {
+                return false;
+            }
+            payloadStart = nameStart + nameLength;
+            return payloadStart <= bytes.readLimit();
+
+        } finally {
+            bytes.readPosition(readPosition);
+        }
+    }
+
+    boolean nameEquals(@NotNull Bytes<?> bytes, @NotNull String name) {
+        if (methodId != -1 || nameLength != name.length())
+            return false;
+        for (int i = 0; i < nameLength; i++)
+            if (bytes.peekUnsignedByte(nameStart + i) != name.charAt(i))
+                return false;
+        return true;
+    }
+}
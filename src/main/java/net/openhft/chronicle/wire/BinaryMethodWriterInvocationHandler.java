@@ -24,8 +24,6 @@ import java.lang.reflect.Method;
 import java.util.function.Supplier;
 
 public class BinaryMethodWriterInvocationHandler extends AbstractMethodWriterInvocationHandler {
-    @NotNull
-    private final Supplier<MarshallableOut> marshallableOutSupplier;
     private final boolean metaData;
     @NotNull
     private final CountingDocumentContext context = new CountingDocumentContext();
@@ -83,6 +83,8 @@ public class BinaryWire extends AbstractWire implements Wire {
     private final StringBuilder stringBuilder = new StringBuilder();
     private DefaultValueIn defaultValueIn;
     private String compression;
+    private long[] jsonLimits;
+    private boolean[] jsonSequences;
 
     public BinaryWire(@NotNull Bytes bytes) {
         this(bytes, false, false, false, Integer.MAX_VALUE, "binary", SUPPORT_DELTA);
@@ -215,11 +217,219 @@ public class BinaryWire extends AbstractWire implements Wire {
 
     @Override
     public void copyTo(@NotNull WireOut wire) {
+        if (wire instanceof JSONWire && copyToJSON((JSONWire) wire))
+            return;
         while (bytes.readRemaining() > 0) {
             copyOne(wire);
         }
     }
 
+    /**
+     * Write the remaining fields and values straight out as JSON text without creating objects or calling back for
+     * nested mappings and sequences.
+     *
+     * @return false, having read and written nothing, if there is a value which needs the general copy
+     */
+    private boolean copyToJSON(@NotNull JSONWire json) {
+        if (jsonLimits == null) {
+            jsonLimits = new long[TextToBinaryTranscoder.MAX_DEPTH];
+            jsonSequences = new boolean[TextToBinaryTranscoder.MAX_DEPTH];
+        }
+        final Bytes<?> out = json.bytes();
+        final long readPosition = bytes.readPosition();
+        final long readLimit = bytes.readLimit();
+        final long writePosition = out.writePosition();
+        int depth = 0;
+        boolean first = true;
+        boolean afterField = false;
+        boolean copied = false;
+        try {
+            while (true) {
+                if (bytes.readRemaining() <= 0) {
+                    if (depth == 0)
+                        break;
+                    depth--;
+                    out.writeUnsignedByte(jsonSequences[depth] ? ']' : '}');
+                    bytes.readLimit(jsonLimits[depth]);
+                    first = false;
+                    continue;
+                }
+                int code = peekCode();
+                switch (code >> 4) {
+                    case BinaryWireHighCode.FIELD0:
+                    case BinaryWireHighCode.FIELD1:
+                        if (!first)
+                            out.writeUnsignedByte(',');
+                        appendJSONString(json, readSmallField(code, acquireStringBuilder()));
+                        out.writeUnsignedByte(':');
+                        first = false;
+                        afterField = true;
+                        continue;
+                }
+                switch (code) {
+                    case FIELD_NAME_ANY:
+                    case EVENT_NAME:
+                        if (!first)
+                            out.writeUnsignedByte(',');
+                        appendJSONString(json, readField(code, null, ANY_CODE_MATCH.code(), acquireStringBuilder(), true));
+                        out.writeUnsignedByte(':');
+                        first = false;
+                        afterField = true;
+                        continue;
+                    case PADDING:
+                        bytes.uncheckedReadSkipOne();
+                        continue;
+                    case PADDING32:
+                        bytes.uncheckedReadSkipOne();
+                        bytes.readSkip(bytes.readUnsignedInt());
+                        continue;
+                    case COMMENT:
+                        bytes.uncheckedReadSkipOne();
+                        readUtf8();
+                        continue;
+                    case TYPE_PREFIX: {
+                        // JSON has no type information
+                        bytes.uncheckedReadSkipOne();
+                        StringBuilder sb = readUtf8();
+                        if (StringUtils.isEqual("gzip", sb) || StringUtils.isEqual("lzw", sb))
+                            return false;
+                        continue;
+                    }
+                }
+
+                if (!first && !afterField)
+                    out.writeUnsignedByte(',');
+                first = false;
+                afterField = false;
+
+                if (code < 0x80) {
+                    bytes.uncheckedReadSkipOne();
+                    out.append(code);
+                    continue;
+                }
+                switch (code >> 4) {
+                    case BinaryWireHighCode.STR0:
+                    case BinaryWireHighCode.STR1:
+                        bytes.uncheckedReadSkipOne();
+                        appendJSONString(json, readText(code, acquireStringBuilder()));
+                        continue;
+                }
+                switch (code) {
+                    case UINT8:
+                    case UINT16:
+                    case UINT32:
+                    case INT8:
+                    case INT16:
+                    case INT32:
+                    case INT64:
+                    case SET_LOW_INT8:
+                    case SET_LOW_INT16:
+                        bytes.uncheckedReadSkipOne();
+                        out.append(readInt0(code));
+                        break;
+                    case FLOAT32: {
+                        bytes.uncheckedReadSkipOne();
+                        float f = bytes.readFloat();
+                        if (!Float.isFinite(f))
+                            out.append("null");
+                        else if (f == Math.rint(f))
+                            // whole numbers are compacted to floats so keep every digit of those
+                            DecimalText.appendDouble(out, f);
+                        else
+                            DecimalText.appendFloat(out, f);
+                        break;
+                    }
+                    case FLOAT64:
+                    case FLOAT_STOP_2:
+                    case FLOAT_STOP_4:
+                    case FLOAT_STOP_6: {
+                        bytes.uncheckedReadSkipOne();
+                        double d = readFloat0(code);
+                        if (Double.isFinite(d))
+                            DecimalText.appendDouble(out, d);
+                        else
+                            out.append("null");
+                        break;
+                    }
+                    case NULL:
+                        bytes.uncheckedReadSkipOne();
+                        out.append("null");
+                        break;
+                    case TRUE:
+                        bytes.uncheckedReadSkipOne();
+                        out.append("true");
+                        break;
+                    case FALSE:
+                        bytes.uncheckedReadSkipOne();
+                        out.append("false");
+                        break;
+                    case STRING_ANY: {
+                        bytes.uncheckedReadSkipOne();
+                        StringBuilder sb = readUtf8();
+                        if (sb == null)
+                            out.append("null");
+                        else
+                            appendJSONString(json, sb);
+                        break;
+                    }
+                    case BYTES_LENGTH8:
+                    case BYTES_LENGTH16:
+                    case BYTES_LENGTH32: {
+                        if (depth == jsonLimits.length)
+                            return false;
+                        bytes.uncheckedReadSkipOne();
+                        long length = code == BYTES_LENGTH8 ? bytes.readUnsignedByte()
+                                : code == BYTES_LENGTH16 ? bytes.readUnsignedShort()
+                                : bytes.readUnsignedInt();
+                        jsonLimits[depth] = bytes.readLimit();
+                        bytes.readLimit(bytes.readPosition() + length);
+                        BracketType bracketType = getBracketTypeNext();
+                        if (bracketType == BracketType.NONE)
+                            return false;
+                        jsonSequences[depth] = bracketType == BracketType.SEQ;
+                        depth++;
+                        out.writeUnsignedByte(bracketType == BracketType.SEQ ? '[' : '{');
+                        first = true;
+                        break;
+                    }
+                    default:
+                        return false;
+                }
+            }
+            copied = true;
+            return true;
+
+        } finally {
+            bytes.readLimit(readLimit);
+            if (!copied) {
+                bytes.readPosition(readPosition);
+                out.writePosition(writePosition);
+            }
+        }
+    }
+
+    private static void appendJSONString(@NotNull JSONWire json, @NotNull CharSequence s) {
+        json.bytes().writeUnsignedByte('"');
+        json.escape0(s, Quotes.DOUBLE);
+        json.bytes().writeUnsignedByte('"');
+    }
+
+    /**
+     * Start a mapping or sequence whose length is filled in by {@link #endLength(long)}
+     *
+     * @return the position of the length
+     */
+    long startLength() {
+        writeCode(BYTES_LENGTH32);
+        long position = bytes.writePosition();
+        bytes.writeInt(0);
+        return position;
+    }
+
+    void endLength(long position) {
+        bytes.writeOrderedInt(position, Maths.toInt32(bytes.writePosition() - position - 4, "Document length %,d out of 32-bit int range."));
+    }
+
     public void copyOne(@NotNull WireOut wire) {
         int peekCode = peekCode();
         outerSwitch:
@@ -0,0 +1,352 @@
+/*
+ * Copyright 2016-2020 Chronicle Software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.BytesIn;
+import net.openhft.chronicle.bytes.BytesOut;
+import net.openhft.chronicle.bytes.BytesStore;
+import net.openhft.chronicle.bytes.NativeBytesStore;
+import net.openhft.chronicle.core.io.Closeable;
+import net.openhft.chronicle.core.io.IORuntimeException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import static net.openhft.chronicle.wire.VanillaMessageHistory.FLAT_HEADER;
+
+/**
+ * A MessageHistory held in a single off heap BytesStore.
+ * <p>
+ * The sources are held as fixed width records followed by the timings, the same layout used on the wire,
+ * so the history is written to, and read from, a binary message with a bulk copy of each rather than field by field.
+ * On a BinaryWire this form is held in a bytes value, so the message stays self-describing.
+ * Any form written by a {@link VanillaMessageHistory} can be read, and a VanillaMessageHistory can read the form written by this.
+ * <p>
+ * The creator owns the off heap memory and must close this to release it. Setting it for a thread with
+ * {@link MessageHistory#set(MessageHistory)} doesn't pass ownership, so close it once that thread has finished with it,
+ * e.g. after setting another history when the thread ends.
+ * <p>
+ * equals, hashCode and {@link #copyTo(Marshallable)} use the sources and timings held, not the memory holding them.
+ */
+@SuppressWarnings("rawtypes")
+public class BytesStoreMessageHistory extends SelfDescribingMarshallable implements MessageHistory, Closeable {
+    private static final int SOURCE_SIZE = 4 + 8;
+    private static final int TIMING_SIZE = 8;
+
+    private final int capacity;
+    private final long timingsOffset;
+    private final transient BytesStore store;
+    private transient VanillaMessageHistory scratch;
+    private int sources;
+    private int timings;
+    private boolean addSourceDetails = false;
+    private boolean closed;
+
+    public BytesStoreMessageHistory() {
+        this(VanillaMessageHistory.CAPACITY);
+    }
+
+    /**
+     * @param capacity the maximum number of sources, with up to twice as many timings.
+     */
+    public BytesStoreMessageHistory(int capacity) {
+        VanillaMessageHistory.checkCapacity(capacity);
+        this.capacity = capacity;
+        this.timingsOffset = (long) capacity * SOURCE_SIZE;
+        this.store = NativeBytesStore.nativeStoreWithFixedCapacity(timingsOffset + capacity * 2L * TIMING_SIZE);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public boolean addSourceDetails() {
+        return addSourceDetails;
+    }
+
+    public void addSourceDetails(boolean addSourceDetails) {
+        this.addSourceDetails = addSourceDetails;
+    }
+
+    @Override
+    public void reset() {
+        sources = timings = 0;
+    }
+
+    @Override
+    public void reset(int sourceId, long sourceIndex) {
+        sources = timings = 0;
+        addSource(sourceId, sourceIndex);
+        addTiming(nanoTime());
+    }
+
+    public void addSource(int id, long index) {
+        if (sources >= capacity)
+            throw new IllegalStateException("Have exceeded message history size: " + this);
+        long offset = (long) sources++ * SOURCE_SIZE;
+        store.writeInt(offset, id);
+        store.writeLong(offset + 4, index);
+    }
+
+    public void addTiming(long l) {
+        if (timings >= capacity * 2)
+            throw new IllegalStateException("Have exceeded message history size: " + this);
+        store.writeLong(timingsOffset + (long) timings++ * TIMING_SIZE, l);
+    }
+
+    protected long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public int lastSourceId() {
+        return sources <= 0 ? -1 : sourceId(sources - 1);
+    }
+
+    @Override
+    public long lastSourceIndex() {
+        return sources <= 0 ? -1 : sourceIndex(sources - 1);
+    }
+
+    @Override
+    public int timings() {
+        return timings;
+    }
+
+    @Override
+    public long timing(int n) {
+        return store.readLong(timingsOffset + (long) n * TIMING_SIZE);
+    }
+
+    @Override
+    public int sources() {
+        return sources;
+    }
+
+    @Override
+    public int sourceId(int n) {
+        return store.readInt((long) n * SOURCE_SIZE);
+    }
+
+    @Override
+    public long sourceIndex(int n) {
+        return store.readLong((long) n * SOURCE_SIZE + 4);
+    }
+
+    @Override
+    public boolean sourceIdsEndsWith(int[] sourceIds) {
+        int start = sources - sourceIds.length;
+        if (start < 0)
+            return false;
+        for (int i = 0; i < sourceIds.length; i++) {
+            if (sourceId(start + i) != sourceIds[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void readMarshallable(@NotNull WireIn wire) throws IORuntimeException {
+        if (VanillaMessageHistory.readBinaryForm(wire) == FLAT_HEADER) {
+            readFlat(wire.bytes());
+        } else {
+            VanillaMessageHistory vmh = scratch();
+            vmh.readMarshallable(wire);
+            copyFrom(vmh);
+        }
+        if (addSourceDetails) {
+            @Nullable Object o = wire.parent();
+            if (o instanceof SourceContext) {
+                @Nullable SourceContext dc = (SourceContext) o;
+                addSource(dc.sourceId(), dc.index());
+            }
+
+            addTiming(nanoTime());
+        }
+    }
+
+    @Override
+    public void readMarshallable(@NotNull BytesIn bytes) throws IORuntimeException {
+        if (bytes.peekUnsignedByte() == FLAT_HEADER) {
+            readFlat(bytes);
+        } else {
+            VanillaMessageHistory vmh = scratch();
+            vmh.readMarshallable(bytes);
+            copyFrom(vmh);
+        }
+    }
+
+    private VanillaMessageHistory scratch() {
+        if (scratch == null)
+            scratch = new VanillaMessageHistory(capacity);
+        return scratch;
+    }
+
+    private void copyFrom(VanillaMessageHistory vmh) {
+        reset();
+        for (int i = 0; i < vmh.sources(); i++)
+            addSource(vmh.sourceId(i), vmh.sourceIndex(i));
+        for (int i = 0; i < vmh.timings(); i++)
+            addTiming(vmh.timing(i));
+    }
+
+    private void readFlat(BytesIn<?> bytes) {
+        bytes.readSkip(3);
+        int sources = bytes.readUnsignedShort();
+        int timings = bytes.readUnsignedShort();
+        if (sources > capacity || timings > capacity * 2)
+            throw new IllegalStateException("Have exceeded message history size: " + sources + " sources, " + timings + " timings");
+        long sourcesLength = (long) sources * SOURCE_SIZE;
+        long timingsLength = (long) timings * TIMING_SIZE;
+        long position = bytes.readPosition();
+        store.write(0, bytes, position, sourcesLength);
+        store.write(timingsOffset, bytes, position + sourcesLength, timingsLength);
+        bytes.readSkip(sourcesLength + timingsLength);
+        this.sources = sources;
+        this.timings = timings;
+    }
+
+    @Override
+    public void writeMarshallable(@NotNull WireOut wire) {
+        if (wire instanceof BinaryWire) {
+            VanillaMessageHistory.startBinaryForm(wire, 3 + flatLength());
+            writeMarshallable(wire.bytes());
+            return;
+        }
+        wire.write("sources")
+                .sequence(this, (t, out) -> {
+                    Bytes<?> b = out.wireOut().bytes();
+                    for (int i = 0; i < t.sources; i++) {
+                        b.comment("source id & index");
+                        out.uint32(t.sourceId(i));
+                        out.int64_0x(t.sourceIndex(i));
+                    }
+                });
+        wire.write("timings").sequence(this, (t, out) -> {
+            Bytes<?> b = out.wireOut().bytes();
+            for (int i = 0; i < t.timings; i++) {
+                b.comment("timing in nanos");
+                out.int64(t.timing(i));
+            }
+            out.int64(nanoTime());
+        });
+    }
+
+    /**
+     * @return the length of the flat form after its header and length, with one more timing for this output.
+     */
+    private int flatLength() {
+        return 4 + sources * SOURCE_SIZE + (timings + 1) * TIMING_SIZE;
+    }
+
+    @Override
+    public void writeMarshallable(@NotNull BytesOut bytes) {
+        long sourcesLength = (long) sources * SOURCE_SIZE;
+        long timingsLength = (long) timings * TIMING_SIZE;
+        bytes.writeUnsignedByte(FLAT_HEADER);
+        bytes.writeUnsignedShort(flatLength());
+        bytes.writeUnsignedShort(sources);
+        bytes.writeUnsignedShort(timings + 1); // one more time for this output
+        bytes.write(store, 0L, sourcesLength);
+        bytes.write(store, timingsOffset, timingsLength);
+        bytes.writeLong(nanoTime()); // add time for this output
+    }
+
+    @Override
+    public <T extends Marshallable> T copyTo(@NotNull T t) {
+        if (t instanceof BytesStoreMessageHistory) {
+            BytesStoreMessageHistory bsmh = (BytesStoreMessageHistory) t;
+            if (sources > bsmh.capacity || timings > bsmh.capacity * 2)
+                throw new IllegalStateException("Have exceeded message history size: " + this);
+            bsmh.store.write(0, store, 0, (long) sources * SOURCE_SIZE);
+            bsmh.store.write(bsmh.timingsOffset, store, timingsOffset, (long) timings * TIMING_SIZE);
+            bsmh.sources = sources;
+            bsmh.timings = timings;
+            bsmh.addSourceDetails = addSourceDetails;
+            return t;
+        }
+        if (t instanceof VanillaMessageHistory) {
+            VanillaMessageHistory vmh = (VanillaMessageHistory) t;
+            vmh.reset();
+            for (int i = 0; i < sources; i++)
+                vmh.addSource(sourceId(i), sourceIndex(i));
+            for (int i = 0; i < timings; i++)
+                vmh.addTiming(timing(i));
+            vmh.addSourceDetails(addSourceDetails);
+            return t;
+        }
+        return super.copyTo(t);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof BytesStoreMessageHistory))
+            return false;
+        BytesStoreMessageHistory that = (BytesStoreMessageHistory) o;
+        if (sources != that.sources || timings != that.timings || addSourceDetails != that.addSourceDetails)
+            return false;
+        for (int i = 0; i < sources; i++)
+            if (sourceId(i) != that.sourceId(i) || sourceIndex(i) != that.sourceIndex(i))
+                return false;
+        for (int i = 0; i < timings; i++)
+            if (timing(i) != that.timing(i))
+                return false;
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = Boolean.hashCode(addSourceDetails);
+        for (int i = 0; i < sources; i++)
+            h = h * 31 + sourceId(i) * 1019 + Long.hashCode(sourceIndex(i));
+        for (int i = 0; i < timings; i++)
+            h = h * 31 + Long.hashCode(timing(i));
+        return h;
+    }
+
+    @Override
+    public void close() {
+        if (closed)
+            return;
+        closed = true;
+        store.releaseLast();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("BytesStoreMessageHistory{sources: [");
+        for (int i = 0; i < sources; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(sourceId(i)).append("=0x").append(Long.toHexString(sourceIndex(i)));
+        }
+        sb.append("] timings: [");
+        for (int i = 0; i < timings; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(timing(i));
+        }
+        return sb.append("] addSourceDetails=").append(addSourceDetails).append('}').toString();
+    }
+}
@@ -0,0 +1,568 @@
+/*
+ * Copyright 2016-2020 Chronicle Software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.MappedBytes;
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.core.io.IORuntimeException;
+import net.openhft.chronicle.core.util.ObjectUtils;
+import net.openhft.chronicle.wire.WireMarshaller.FieldAccess;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static net.openhft.chronicle.core.UnsafeMemory.*;
+
+/**
+ * Reads a CSV file with a header row into DTOs using several threads.
+ * <pre>
+ * new CSVBulkReader&lt;&gt;(Trade.class).read(file, trade -&gt; ...);
+ * </pre>
+ * The file is memory mapped and split into chunks at the start of lines. The header is matched to the fields of the DTO
+ * once, and each row is decoded straight from the mapped bytes into a DTO reused by the thread, without creating a
+ * String per value. Primitives, Strings, StringBuilders and timestamps from {@link MilliTimestampLongConverter},
+ * {@link MicroTimestampLongConverter} and {@link NanoTimestampLongConverter} are parsed directly, other fields are read
+ * as in {@link CSVWire}.
+ * <p>
+ * Columns without a matching field are ignored, fields without a column keep their default value. As in
+ * {@link CSVWire} blank lines and lines starting with <code>#</code> are skipped, and unquoted values are trimmed. An
+ * empty value without quotes is null for a String, StringBuilder or other object, and zero for a number.
+ * A quoted value can contain commas, doubled quotes and line breaks. So a chunk doesn't start inside a quoted value,
+ * the rows before each chunk start are found with one pass over the quotes and line breaks of the file.
+ */
+public class CSVBulkReader<T> {
+    // more chunks than threads, so a thread which finishes early can take another
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    @NotNull
+    private final Class<T> type;
+    @NotNull
+    private final WireMarshaller<T> marshaller;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int minChunkSize = ParallelDocumentLoader.MIN_CHUNK_SIZE;
+
+    public CSVBulkReader(@NotNull Class<T> type) {
+        this.type = type;
+        this.marshaller = WireMarshaller.of(type);
+    }
+
+    @NotNull
+    public CSVBulkReader<T> threads(int threads) {
+        if (threads < 1)
+            throw new IllegalArgumentException("threads: " + threads);
+        this.threads = threads;
+        return this;
+    }
+
+    public int threads() {
+        return threads;
+    }
+
+    @NotNull
+    CSVBulkReader<T> minChunkSize(int minChunkSize) {
+        this.minChunkSize = minChunkSize;
+        return this;
+    }
+
+    /**
+     * Pass each row of the file to the consumer. With more than one thread the consumer is called concurrently, and the
+     * rows are in file order only within a chunk. The DTO passed is reused for the next row on that thread, so it must
+     * be copied if it is retained.
+     *
+     * @return the number of rows read
+     * @throws IORuntimeException if a row cannot be read or the consumer throws, the other threads stop at the end of
+     *                            their current chunk
+     */
+    public long read(@NotNull File file, @NotNull Consumer<? super T> consumer) throws IOException {
+        long length = file.length();
+        if (length == 0)
+            return 0;
+        CSVColumn[] columns;
+        long[] chunkStarts;
+        MappedBytes bytes = MappedBytes.readOnly(file);
+        try {
+            bytes.readLimit(length);
+            long dataStart = skipBlankLines(bytes, 0, length);
+            if (dataStart >= length)
+                return 0;
+            List<String> header = new ArrayList<>();
+            dataStart = readHeader(bytes, dataStart, length, header);
+            columns = columns(header);
+            chunkStarts = ParallelDocumentLoader.chunkStarts(bytes, true, chunkCount(length));
+            for (int i = 0; i < chunkStarts.length - 1; i++)
+                chunkStarts[i] = Math.max(chunkStarts[i], dataStart);
+            alignToRows(bytes, length, chunkStarts);
+        } finally {
+            bytes.releaseLast();
+        }
+
+        int chunks = chunkStarts.length - 1;
+        AtomicInteger nextChunk = new AtomicInteger();
+        AtomicLong rows = new AtomicLong();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Runnable reader = () -> readChunks(file, columns, chunkStarts, nextChunk, consumer, rows, failure);
+        int readers = Math.min(threads, chunks);
+        if (readers > 1) {
+            List<Thread> threadList = new ArrayList<>();
+            for (int i = 0; i < readers; i++) {
+                Thread thread = new Thread(reader, "csv-reader~" + i);
+                thread.setDaemon(true);
+                thread.start();
+                threadList.add(thread);
+            }
+            try {
+                for (Thread thread : threadList)
+                    thread.join();
+            } catch (InterruptedException e) {
+                nextChunk.set(chunks);
+                Thread.currentThread().interrupt();
+                throw new IORuntimeException("Interrupted reading " + file, e);
+            }
+        } else {
+            reader.run();
+        }
+        Throwable t = failure.get();
+        if (t != null)
+            throw Jvm.rethrow(t);
+        return rows.get();
+    }
+
+    private int chunkCount(long length) {
+        long bySize = Math.max(1, length / minChunkSize);
+        return (int) Math.min(bySize, (long) threads * CHUNKS_PER_THREAD);
+    }
+
+    /**
+     * @return the column for each header, or null if the DTO has no field of that name
+     */
+    @NotNull
+    CSVColumn[] columns(@NotNull List<String> header) {
+        CSVColumn[] columns = new CSVColumn[header.size()];
+        for (int i = 0; i < columns.length; i++) {
+            FieldAccess access = marshaller.fieldMap.get(header.get(i));
+            if (access != null)
+                columns[i] = new CSVColumn(access);
+        }
+        return columns;
+    }
+
+    private void readChunks(File file, CSVColumn[] columns, long[] chunkStarts, AtomicInteger nextChunk,
+                            Consumer<? super T> consumer, AtomicLong rows, AtomicReference<Throwable> failure) {
+        int chunks = chunkStarts.length - 1;
+        RowReader rowReader = null;
+        try {
+            for (int i; (i = nextChunk.getAndIncrement()) < chunks; ) {
+                if (rowReader == null)
+                    rowReader = new RowReader(MappedBytes.readOnly(file), file.length(), columns);
+                rows.addAndGet(rowReader.readChunk(chunkStarts[i], chunkStarts[i + 1], consumer));
+            }
+        } catch (Throwable t) {
+            failure.compareAndSet(null, t);
+            // stop the other threads taking more chunks
+            nextChunk.set(chunks);
+        } finally {
+            if (rowReader != null)
+                rowReader.bytes.releaseLast();
+        }
+    }
+
+    static long skipBlankLines(Bytes<?> bytes, long pos, long length) {
+        while (pos < length) {
+            long start = skipSpaces(bytes, pos, length);
+            if (start < length) {
+                int ch = bytes.readUnsignedByte(start);
+                if (ch != '\n' && ch != '\r' && ch != '#')
+                    return pos;
+            }
+            pos = nextLine(bytes, start, length);
+        }
+        return length;
+    }
+
+    /**
+     * Move each chunk start after the first forward to the start of a row, which a line break in a quoted value isn't.
+     */
+    static void alignToRows(Bytes<?> bytes, long length, long[] chunkStarts) {
+        long row = chunkStarts[0];
+        for (int i = 1; i < chunkStarts.length - 1; i++) {
+            while (row < chunkStarts[i])
+                row = nextRow(bytes, row, length);
+            chunkStarts[i] = row;
+        }
+    }
+
+    /**
+     * Find the end of a row, blank line or comment as {@link RowReader} reads it, stopping only at quotes and line
+     * breaks rather than at every value.
+     *
+     * @return the start of the line after the row starting at <code>lineStart</code>
+     */
+    static long nextRow(Bytes<?> bytes, long lineStart, long length) {
+        long pos = skipSpaces(bytes, lineStart, length);
+        if (pos < length && bytes.readUnsignedByte(pos) == '#')
+            return nextLine(bytes, pos, length);
+        for (; ; pos++) {
+            pos = StopCharScanner.CSV_ROW.indexOfSpecial(bytes, pos, length);
+            if (pos >= length)
+                return length;
+            int ch = bytes.readUnsignedByte(pos);
+            if (ch == '\n')
+                return pos + 1;
+            if (ch != '"' || !startsValue(bytes, lineStart, pos))
+                continue;
+            // a quoted value, after which anything but a comma ends the row
+            pos = skipSpaces(bytes, Math.abs(endOfQuoted(bytes, pos + 1, length)) + 1, length);
+            if (pos >= length || bytes.readUnsignedByte(pos) != ',')
+                return nextLine(bytes, pos, length);
+        }
+    }
+
+    /**
+     * @return true if only spaces are between the quote and a comma or the start of the line, otherwise the quote is
+     * part of an unquoted value
+     */
+    private static boolean startsValue(Bytes<?> bytes, long lineStart, long quote) {
+        for (long i = quote - 1; i >= lineStart; i--) {
+            int ch = bytes.readUnsignedByte(i);
+            if (ch == ',')
+                return true;
+            if (ch != ' ' && ch != '\t')
+                return false;
+        }
+        return true;
+    }
+
+    private static long readHeader(Bytes<?> bytes, long pos, long length, List<String> header) {
+        StringBuilder sb = new StringBuilder();
+        for (; ; ) {
+            pos = skipSpaces(bytes, pos, length);
+            long start;
+            long end;
+            boolean escaped = false;
+            if (pos < length && bytes.readUnsignedByte(pos) == '"') {
+                start = pos + 1;
+                end = endOfQuoted(bytes, start, length);
+                escaped = end < 0;
+                end = Math.abs(end);
+                pos = skipSpaces(bytes, end + 1, length);
+            } else {
+                start = pos;
+                pos = endOfUnquoted(bytes, pos, length);
+                end = trimEnd(bytes, start, pos);
+            }
+            text(bytes, start, end, escaped, sb);
+            bytes.readLimit(length);
+            header.add(sb.toString());
+            if (pos < length && bytes.readUnsignedByte(pos) == ',') {
+                pos++;
+                continue;
+            }
+            return nextLine(bytes, pos, length);
+        }
+    }
+
+    static long skipSpaces(Bytes<?> bytes, long pos, long length) {
+        for (; pos < length; pos++) {
+            int ch = bytes.readUnsignedByte(pos);
+            if (ch != ' ' && ch != '\t')
+                break;
+        }
+        return pos;
+    }
+
+    private static long nextLine(Bytes<?> bytes, long pos, long length) {
+        for (; pos < length; pos++)
+            if (bytes.readUnsignedByte(pos) == '\n')
+                return pos + 1;
+        return length;
+    }
+
+    /**
+     * @return the offset of the closing quote, negated if there are doubled quotes to unescape
+     */
+    static long endOfQuoted(Bytes<?> bytes, long from, long length) {
+        boolean escaped = false;
+        for (long i = from; ; ) {
+            i = StopCharScanner.QUOTES.indexOfSpecial(bytes, i, length);
+            if (i >= length)
+                throw new IORuntimeException("Unterminated quoted value at " + (from - 1));
+            if (bytes.readUnsignedByte(i) != '"') {
+                i++;
+            } else if (i + 1 < length && bytes.readUnsignedByte(i + 1) == '"') {
+                escaped = true;
+                i += 2;
+            } else {
+                return escaped ? -i : i;
+            }
+        }
+    }
+
+    /**
+     * @return the offset of the comma or new line after an unquoted value, or the end
+     */
+    static long endOfUnquoted(Bytes<?> bytes, long from, long length) {
+        for (long i = from; ; i++) {
+            i = StopCharScanner.CSV_END_OF_TEXT.indexOfSpecial(bytes, i, length);
+            if (i >= length)
+                return length;
+            int ch = bytes.readUnsignedByte(i);
+            if (ch == ',' || ch == '\n')
+                return i;
+        }
+    }
+
+    private static long trimEnd(Bytes<?> bytes, long start, long end) {
+        while (end > start && bytes.readUnsignedByte(end - 1) <= ' ')
+            end--;
+        return end;
+    }
+
+    /**
+     * Decode the value as UTF-8 into the StringBuilder, leaving the read position and limit on it.
+     */
+    static void text(Bytes<?> bytes, long start, long end, boolean escaped, StringBuilder sb) {
+        sb.setLength(0);
+        bytes.readLimit(end);
+        bytes.readPosition(start);
+        if (StopCharScanner.QUOTES.indexOfSpecial(bytes, start, end) >= end) {
+            for (long i = start; i < end; i++)
+                sb.append((char) bytes.readUnsignedByte(i));
+        } else {
+            bytes.parseUtf8(sb, (int) (end - start));
+        }
+        if (escaped) {
+            int j = 0;
+            for (int i = 0; i < sb.length(); i++, j++) {
+                char ch = sb.charAt(i);
+                sb.setCharAt(j, ch);
+                if (ch == '"' && i + 1 < sb.length() && sb.charAt(i + 1) == '"')
+                    i++;
+            }
+            sb.setLength(j);
+        }
+    }
+
+    /**
+     * The mapping, wire and DTO of one thread.
+     */
+    final class RowReader {
+        @NotNull
+        final MappedBytes bytes;
+        private final long length;
+        @NotNull
+        private final CSVColumn[] columns;
+        @NotNull
+        private final TextWire wire;
+        @NotNull
+        private final T dto = ObjectUtils.newInstance(type);
+        @NotNull
+        private final T defaults = ObjectUtils.newInstance(type);
+        private final StringBuilder sb = new StringBuilder();
+
+        RowReader(@NotNull MappedBytes bytes, long length, @NotNull CSVColumn[] columns) {
+            this.bytes = bytes;
+            this.length = length;
+            this.columns = columns;
+            this.wire = new CSVWire(bytes.readLimit(0));
+            bytes.readLimit(length);
+        }
+
+        long readChunk(long start, long end, @NotNull Consumer<? super T> consumer) {
+            long rows = 0;
+            for (long pos = skipBlankLines(bytes, start, end); pos < end; pos = skipBlankLines(bytes, pos, end)) {
+                try {
+                    pos = readRow(pos);
+                } catch (RuntimeException e) {
+                    throw new IORuntimeException("Unable to read the row at " + pos, e);
+                }
+                consumer.accept(dto);
+                rows++;
+            }
+            return rows;
+        }
+
+        /**
+         * @return the start of the next line
+         */
+        private long readRow(long pos) {
+            int column = 0;
+            for (; ; column++) {
+                pos = skipSpaces(bytes, pos, length);
+                long start;
+                long end;
+                boolean quoted = pos < length && bytes.readUnsignedByte(pos) == '"';
+                boolean escaped = false;
+                if (quoted) {
+                    start = pos + 1;
+                    end = endOfQuoted(bytes, start, length);
+                    escaped = end < 0;
+                    end = Math.abs(end);
+                    pos = skipSpaces(bytes, end + 1, length);
+                } else {
+                    start = pos;
+                    pos = endOfUnquoted(bytes, pos, length);
+                    end = trimEnd(bytes, start, pos);
+                }
+                if (column < columns.length && columns[column] != null) {
+                    if (start == end && !quoted)
+                        readEmpty(columns[column]);
+                    else
+                        read(columns[column], start, end, escaped);
+                    bytes.readLimit(length);
+                }
+                if (pos < length && bytes.readUnsignedByte(pos) == ',') {
+                    pos++;
+                } else {
+                    break;
+                }
+            }
+            // a short row leaves the remaining fields at their defaults
+            for (column++; column < columns.length; column++)
+                if (columns[column] != null)
+                    copyDefault(columns[column]);
+            return nextLine(bytes, pos, length);
+        }
+
+        /**
+         * An empty value without quotes is null for text and objects, and zero for numbers.
+         */
+        private void readEmpty(CSVColumn column) {
+            switch (column.kind) {
+                case STRING:
+                case STRING_BUILDER:
+                    unsafePutObject(dto, column.access.offset, null);
+                    break;
+                case OTHER:
+                    copyDefault(column);
+                    break;
+                default:
+                    read(column, 0, 0, false);
+                    break;
+            }
+        }
+
+        private void read(CSVColumn column, long start, long end, boolean escaped) {
+            Object o = dto;
+            long offset = column.access.offset;
+            switch (column.kind) {
+                case BOOLEAN:
+                    unsafePutBoolean(o, offset, start < end && isTrue(bytes.readUnsignedByte(start)));
+                    break;
+                case BYTE:
+                    unsafePutByte(o, offset, (byte) parseLong(start, end));
+                    break;
+                case CHAR:
+                    text(bytes, start, end, escaped, sb);
+                    unsafePutChar(o, offset, sb.length() == 0 ? '\0' : sb.charAt(0));
+                    break;
+                case SHORT:
+                    unsafePutShort(o, offset, (short) parseLong(start, end));
+                    break;
+                case INT:
+                    unsafePutInt(o, offset, (int) parseLong(start, end));
+                    break;
+                case LONG:
+                    unsafePutLong(o, offset, parseLong(start, end));
+                    break;
+                case FLOAT:
+                    unsafePutFloat(o, offset, (float) parseDouble(start, end));
+                    break;
+                case DOUBLE:
+                    unsafePutDouble(o, offset, parseDouble(start, end));
+                    break;
+                case STRING:
+                    text(bytes, start, end, escaped, sb);
+                    unsafePutObject(o, offset, WireInternal.INTERNER.intern(sb));
+                    break;
+                case STRING_BUILDER: {
+                    StringBuilder value = (StringBuilder) unsafeGetObject(o, offset);
+                    if (value == null)
+                        unsafePutObject(o, offset, value = new StringBuilder());
+                    text(bytes, start, end, escaped, value);
+                    break;
+                }
+                case MILLI_TIMESTAMP:
+                case MICRO_TIMESTAMP:
+                case NANO_TIMESTAMP: {
+                    long time = escaped ? Long.MIN_VALUE : CSVColumn.parseTimestamp(bytes, start, end, column.kind.digits);
+                    if (time == Long.MIN_VALUE) {
+                        text(bytes, start, end, escaped, sb);
+                        time = column.longConverter.parse(sb);
+                    }
+                    unsafePutLong(o, offset, time);
+                    break;
+                }
+                case CONVERTED_LONG:
+                    text(bytes, start, end, escaped, sb);
+                    unsafePutLong(o, offset, column.longConverter.parse(sb));
+                    break;
+                default:
+                    readOther(column, start, end);
+                    break;
+            }
+        }
+
+        private boolean isTrue(int ch) {
+            return ch == 't' || ch == 'T' || ch == 'y' || ch == 'Y' || ch == '1';
+        }
+
+        private long parseLong(long start, long end) {
+            if (start >= end)
+                return 0;
+            bytes.readLimit(end);
+            bytes.readPosition(start);
+            return bytes.parseLong();
+        }
+
+        private double parseDouble(long start, long end) {
+            if (start >= end)
+                return 0;
+            bytes.readLimit(end);
+            bytes.readPosition(start);
+            return DecimalText.parseDouble(bytes);
+        }
+
+        private void readOther(CSVColumn column, long start, long end) {
+            bytes.readLimit(end);
+            bytes.readPosition(start);
+            ValueIn valueIn = wire.getValueIn();
+            valueIn.resetState();
+            try {
+                column.access.readValue(dto, defaults, valueIn, true);
+            } catch (IllegalAccessException e) {
+                throw new AssertionError(e);
+            }
+        }
+
+        private void copyDefault(CSVColumn column) {
+            try {
+                column.access.copy(defaults, dto);
+            } catch (IllegalAccessException e) {
+                throw new AssertionError(e);
+            }
+        }
+    }
+}
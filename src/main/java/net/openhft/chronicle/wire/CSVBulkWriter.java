@@ -0,0 +1,282 @@
+/*
+ * Copyright 2016-2020 Chronicle Software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.wire.WireMarshaller.FieldAccess;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import static net.openhft.chronicle.core.UnsafeMemory.*;
+
+/**
+ * Writes DTOs as CSV rows with a header, in a form {@link CSVBulkReader} and {@link CSVWire} can read.
+ * <pre>
+ * new CSVBulkWriter&lt;&gt;(Trade.class).write(file, trades);
+ * </pre>
+ * The columns and how each is formatted, including any {@link LongConverter} from {@link LongConversion}, are worked
+ * out once. Rows are appended straight to a buffer of about {@link #blockSize(int)} bytes which is written to the
+ * file's channel when full. Values are quoted only when they contain a comma, a quote, a line break or leading or
+ * trailing spaces. A null is written as an empty value, and an empty String or StringBuilder as <code>""</code>.
+ * <p>
+ * A writer reuses its own buffers, so it should be used by one thread at a time.
+ */
+public class CSVBulkWriter<T> {
+    static final int BLOCK_SIZE = 1 << 20;
+
+    @NotNull
+    private final CSVColumn[] columns;
+    private final Bytes<?> scratch = Bytes.allocateElasticOnHeap(64);
+    private final TextWire scratchWire = new TextWire(scratch);
+    private final StringBuilder sb = new StringBuilder();
+    private int blockSize = BLOCK_SIZE;
+
+    /**
+     * Write every field of the type, in the order they are declared.
+     */
+    public CSVBulkWriter(@NotNull Class<T> type) {
+        WireMarshaller<T> marshaller = WireMarshaller.of(type);
+        this.columns = new CSVColumn[marshaller.fields.length];
+        for (int i = 0; i < columns.length; i++)
+            columns[i] = new CSVColumn(marshaller.fields[i]);
+    }
+
+    /**
+     * Write the named fields in the order given.
+     *
+     * @throws IllegalArgumentException if the type doesn't have a field of a name given
+     */
+    public CSVBulkWriter(@NotNull Class<T> type, @NotNull String... columnNames) {
+        WireMarshaller<T> marshaller = WireMarshaller.of(type);
+        this.columns = new CSVColumn[columnNames.length];
+        for (int i = 0; i < columns.length; i++) {
+            FieldAccess access = marshaller.fieldMap.get(columnNames[i]);
+            if (access == null)
+                throw new IllegalArgumentException(type.getName() + " has no field " + columnNames[i]);
+            columns[i] = new CSVColumn(access);
+        }
+    }
+
+    @NotNull
+    public CSVBulkWriter<T> blockSize(int blockSize) {
+        if (blockSize < 1)
+            throw new IllegalArgumentException("blockSize: " + blockSize);
+        this.blockSize = blockSize;
+        return this;
+    }
+
+    public int blockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Write the header and a row per DTO to the file, replacing it.
+     *
+     * @return the number of rows written
+     */
+    public long write(@NotNull File file, @NotNull Iterable<? extends T> rows) throws IOException {
+        return write(file, rows.iterator());
+    }
+
+    /**
+     * Write the header and a row per DTO to the file, replacing it.
+     *
+     * @return the number of rows written
+     */
+    public long write(@NotNull File file, @NotNull Stream<? extends T> rows) throws IOException {
+        return write(file, rows.iterator());
+    }
+
+    private long write(File file, Iterator<? extends T> rows) throws IOException {
+        long count = 0;
+        // a little spare so a block rarely needs to grow for its last row
+        Bytes<ByteBuffer> bytes = Bytes.elasticByteBuffer(blockSize + (blockSize >> 3));
+        try (FileChannel channel = new FileOutputStream(file).getChannel()) {
+            writeHeader(bytes);
+            while (rows.hasNext()) {
+                writeRow(rows.next(), bytes);
+                count++;
+                if (bytes.writePosition() >= blockSize)
+                    flush(bytes, channel);
+            }
+            flush(bytes, channel);
+        } finally {
+            bytes.releaseLast();
+        }
+        return count;
+    }
+
+    private static void flush(Bytes<ByteBuffer> bytes, FileChannel channel) throws IOException {
+        ByteBuffer buffer = bytes.underlyingObject();
+        buffer.limit(Math.toIntExact(bytes.writePosition()));
+        buffer.position(Math.toIntExact(bytes.readPosition()));
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        bytes.clear();
+    }
+
+    public void writeHeader(@NotNull Bytes<?> bytes) {
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0)
+                bytes.writeUnsignedByte(',');
+            appendText(bytes, columns[i].name(), i == 0);
+        }
+        bytes.writeUnsignedByte('\n');
+    }
+
+    public void writeRow(@NotNull T t, @NotNull Bytes<?> bytes) {
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0)
+                bytes.writeUnsignedByte(',');
+            appendValue(t, columns[i], bytes, i == 0);
+        }
+        bytes.writeUnsignedByte('\n');
+    }
+
+    private void appendValue(Object o, CSVColumn column, Bytes<?> bytes, boolean first) {
+        long offset = column.access.offset;
+        switch (column.kind) {
+            case BOOLEAN:
+                bytes.append(unsafeGetBoolean(o, offset) ? "true" : "false");
+                break;
+            case BYTE:
+                bytes.append(unsafeGetByte(o, offset));
+                break;
+            case CHAR: {
+                char ch = unsafeGetChar(o, offset);
+                if (ch != '\0') {
+                    sb.setLength(0);
+                    appendText(bytes, sb.append(ch), first);
+                }
+                break;
+            }
+            case SHORT:
+                bytes.append(unsafeGetShort(o, offset));
+                break;
+            case INT:
+                bytes.append(unsafeGetInt(o, offset));
+                break;
+            case LONG:
+                bytes.append(unsafeGetLong(o, offset));
+                break;
+            case FLOAT:
+                DecimalText.appendFloat(bytes, unsafeGetFloat(o, offset));
+                break;
+            case DOUBLE:
+                DecimalText.appendDouble(bytes, unsafeGetDouble(o, offset));
+                break;
+            case STRING:
+            case STRING_BUILDER: {
+                CharSequence cs = (CharSequence) unsafeGetObject(o, offset);
+                // an empty value is quoted so it doesn't read as null
+                if (cs == null)
+                    break;
+                if (cs.length() == 0)
+                    bytes.append("\"\"");
+                else
+                    appendText(bytes, cs, first);
+                break;
+            }
+            case MILLI_TIMESTAMP:
+            case MICRO_TIMESTAMP:
+            case NANO_TIMESTAMP: {
+                long time = unsafeGetLong(o, offset);
+                if (!CSVColumn.appendTimestamp(bytes, time, column.kind.digits))
+                    appendConverted(bytes, column, time, first);
+                break;
+            }
+            case CONVERTED_LONG:
+                appendConverted(bytes, column, unsafeGetLong(o, offset), first);
+                break;
+            default:
+                appendOther(o, column, bytes, first);
+                break;
+        }
+    }
+
+    private void appendConverted(Bytes<?> bytes, CSVColumn column, long value, boolean first) {
+        sb.setLength(0);
+        column.longConverter.append(sb, value);
+        appendText(bytes, sb, first);
+    }
+
+    private void appendOther(Object o, CSVColumn column, Bytes<?> bytes, boolean first) {
+        if (!column.access.field.getType().isPrimitive() && unsafeGetObject(o, column.access.offset) == null)
+            return;
+        scratch.clear();
+        try {
+            column.access.getValue(o, scratchWire.getValueOut(), null);
+        } catch (IllegalAccessException e) {
+            throw new AssertionError(e);
+        }
+        while (scratch.readRemaining() > 0 && scratch.peekUnsignedByte(scratch.writePosition() - 1) <= ' ')
+            scratch.writeSkip(-1);
+        if (needsQuotes(scratch, first)) {
+            bytes.writeUnsignedByte('"');
+            for (long i = scratch.readPosition(); i < scratch.writePosition(); i++) {
+                int b = scratch.readUnsignedByte(i);
+                if (b == '"')
+                    bytes.writeUnsignedByte('"');
+                bytes.writeUnsignedByte(b);
+            }
+            bytes.writeUnsignedByte('"');
+        } else {
+            bytes.write(scratch);
+        }
+    }
+
+    private static void appendText(Bytes<?> bytes, CharSequence cs, boolean first) {
+        if (!needsQuotes(cs, first)) {
+            bytes.appendUtf8(cs);
+            return;
+        }
+        bytes.writeUnsignedByte('"');
+        for (int i = 0; i < cs.length(); i++) {
+            char ch = cs.charAt(i);
+            if (ch == '"')
+                bytes.writeUnsignedByte('"');
+            bytes.appendUtf8(ch);
+        }
+        bytes.writeUnsignedByte('"');
+    }
+
+    /**
+     * @return true if the text would not be read back as it is without quotes, for the first column this includes
+     * text which would make the line look like a comment
+     */
+    static boolean needsQuotes(CharSequence cs, boolean first) {
+        int length = cs.length();
+        if (length == 0)
+            return false;
+        if (cs.charAt(0) <= ' ' || cs.charAt(length - 1) <= ' ' || (first && cs.charAt(0) == '#'))
+            return true;
+        for (int i = 0; i < length; i++) {
+            char ch = cs.charAt(i);
+            if (ch == ',' || ch == '"' || ch < ' ')
+                return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2016-2020 Chronicle Software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.wire.WireMarshaller.FieldAccess;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A field of a DTO as a CSV column, with how it is read and written worked out once from its FieldAccess.
+ */
+final class CSVColumn {
+    @NotNull
+    final FieldAccess access;
+    @NotNull
+    final Kind kind;
+    @Nullable
+    final LongConverter longConverter;
+
+    CSVColumn(@NotNull FieldAccess access) {
+        this.access = access;
+        this.kind = Kind.of(access);
+        this.longConverter = access instanceof WireMarshaller.LongConversionFieldAccess
+                ? ((WireMarshaller.LongConversionFieldAccess) access).longConverter
+                : null;
+    }
+
+    @NotNull
+    String name() {
+        return access.key.name().toString();
+    }
+
+    /**
+     * Parse <code>yyyy-MM-dd'T'HH:mm:ss</code> with an optional fraction of up to <code>digits</code> digits, in UTC,
+     * as the timestamp converters do.
+     *
+     * @return the time in units of 10^-digits seconds, or Long.MIN_VALUE if the text needs the converter
+     */
+    static long parseTimestamp(Bytes<?> bytes, long start, long end, int digits) {
+        long length = end - start;
+        if (length < 19 || length > 20 + digits)
+            return Long.MIN_VALUE;
+        int sep = bytes.readUnsignedByte(start + 4);
+        if ((sep != '-' && sep != '/') || bytes.readUnsignedByte(start + 7) != sep
+                || bytes.readUnsignedByte(start + 10) != 'T'
+                || bytes.readUnsignedByte(start + 13) != ':' || bytes.readUnsignedByte(start + 16) != ':')
+            return Long.MIN_VALUE;
+        int year = digits(bytes, start, 4);
+        int month = digits(bytes, start + 5, 2);
+        int day = digits(bytes, start + 8, 2);
+        int hour = digits(bytes, start + 11, 2);
+        int minute = digits(bytes, start + 14, 2);
+        int second = digits(bytes, start + 17, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59)
+            return Long.MIN_VALUE;
+        long fraction = 0;
+        if (length > 19) {
+            if (bytes.readUnsignedByte(start + 19) != '.')
+                return Long.MIN_VALUE;
+            int fractionDigits = (int) (length - 20);
+            fraction = fractionDigits == 0 ? 0 : digits(bytes, start + 20, fractionDigits);
+            if (fraction < 0)
+                return Long.MIN_VALUE;
+            for (int i = fractionDigits; i < digits; i++)
+                fraction *= 10;
+        }
+        long seconds = epochDay(year, month, day) * 86400L + hour * 3600 + minute * 60 + second;
+        return seconds * pow10(digits) + fraction;
+    }
+
+    /**
+     * Append a time in units of 10^-digits seconds as the timestamp converters do, with the fraction only if it isn't
+     * zero and without trailing zeros.
+     *
+     * @return false if the year needs the converter, in which case nothing has been appended
+     */
+    static boolean appendTimestamp(Bytes<?> bytes, long time, int digits) {
+        if (time <= 0) {
+            bytes.append(time);
+            return true;
+        }
+        long unit = pow10(digits);
+        long seconds = time / unit;
+        long fraction = time % unit;
+        long epochDay = seconds / 86400;
+        int secondOfDay = (int) (seconds % 86400);
+
+        // the inverse of epochDay()
+        long z = epochDay + 719468;
+        long era = z / 146097;
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = (int) (dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100));
+        int mp = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if (year > 9999)
+            return false;
+
+        appendDigits(bytes, year, 4);
+        bytes.writeUnsignedByte('-');
+        appendDigits(bytes, month, 2);
+        bytes.writeUnsignedByte('-');
+        appendDigits(bytes, day, 2);
+        bytes.writeUnsignedByte('T');
+        appendDigits(bytes, secondOfDay / 3600, 2);
+        bytes.writeUnsignedByte(':');
+        appendDigits(bytes, secondOfDay / 60 % 60, 2);
+        bytes.writeUnsignedByte(':');
+        appendDigits(bytes, secondOfDay % 60, 2);
+        if (fraction != 0) {
+            int fractionDigits = digits;
+            for (; fraction % 10 == 0; fraction /= 10)
+                fractionDigits--;
+            bytes.writeUnsignedByte('.');
+            appendDigits(bytes, fraction, fractionDigits);
+        }
+        return true;
+    }
+
+    private static void appendDigits(Bytes<?> bytes, long value, int count) {
+        for (long unit = pow10(count - 1); unit > 0; unit /= 10)
+            bytes.writeUnsignedByte((int) ('0' + value / unit % 10));
+    }
+
+    private static long pow10(int digits) {
+        long unit = 1;
+        for (int i = 0; i < digits; i++)
+            unit *= 10;
+        return unit;
+    }
+
+    /**
+     * @return the decimal value of the digits, or -1 if there is a character which isn't a digit
+     */
+    private static int digits(Bytes<?> bytes, long pos, int count) {
+        int value = 0;
+        for (int i = 0; i < count; i++) {
+            int ch = bytes.readUnsignedByte(pos + i) - '0';
+            if (ch < 0 || ch > 9)
+                return -1;
+            value = value * 10 + ch;
+        }
+        return value;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        if (month == 2)
+            return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    /**
+     * @return the days since 1970-01-01 of a date in the proleptic Gregorian calendar
+     */
+    private static long epochDay(int year, int month, int day) {
+        // count from March so the leap day is at the end of the year
+        long y = month <= 2 ? year - 1 : year;
+        int era = (int) Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400L;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    enum Kind {
+        BOOLEAN, BYTE, CHAR, SHORT, INT, LONG, FLOAT, DOUBLE, STRING, STRING_BUILDER,
+        // a long with a timestamp converter, and the number of digits in its fraction of a second
+        MILLI_TIMESTAMP(3), MICRO_TIMESTAMP(6), NANO_TIMESTAMP(9),
+        // a long with any other converter
+        CONVERTED_LONG,
+        // read with the FieldAccess from a TextWire
+        OTHER;
+
+        final int digits;
+
+        Kind() {
+            this(0);
+        }
+
+        Kind(int digits) {
+            this.digits = digits;
+        }
+
+        @NotNull
+        static Kind of(@NotNull FieldAccess access) {
+            if (access instanceof WireMarshaller.LongConversionFieldAccess) {
+                Class<?> converter = ((WireMarshaller.LongConversionFieldAccess) access).longConverter.getClass();
+                if (converter == MilliTimestampLongConverter.class)
+                    return MILLI_TIMESTAMP;
+                if (converter == MicroTimestampLongConverter.class)
+                    return MICRO_TIMESTAMP;
+                if (converter == NanoTimestampLongConverter.class)
+                    return NANO_TIMESTAMP;
+                return CONVERTED_LONG;
+            }
+            if (access instanceof WireMarshaller.BooleanFieldAccess)
+                return BOOLEAN;
+            if (access instanceof WireMarshaller.ByteFieldAccess)
+                return BYTE;
+            if (access instanceof WireMarshaller.CharFieldAccess)
+                return CHAR;
+            if (access instanceof WireMarshaller.ShortFieldAccess)
+                return SHORT;
+            if (access instanceof WireMarshaller.IntegerFieldAccess)
+                return INT;
+            if (access instanceof WireMarshaller.LongFieldAccess)
+                return LONG;
+            if (access instanceof WireMarshaller.FloatFieldAccess)
+                return FLOAT;
+            if (access instanceof WireMarshaller.DoubleFieldAccess)
+                return DOUBLE;
+            if (access instanceof WireMarshaller.StringFieldAccess)
+                return STRING;
+            if (access instanceof WireMarshaller.StringBuilderFieldAccess)
+                return STRING_BUILDER;
+            return OTHER;
+        }
+    }
+}
@@ -172,11 +172,13 @@ public class CSVWire extends TextWire {
             switch (ch) {
                 case '"': {
                     bytes.readSkip(1);
-                    if (use8bit)
-                        bytes.parse8bit(a, getEscapingQuotes());
-                    else
-                        bytes.parseUtf8(a, getEscapingQuotes());
-                    unescape(a);
+                    if (!StopCharScanner.QUOTES.parse(bytes, a)) {
+                        if (use8bit)
+                            bytes.parse8bit(a, getEscapingQuotes());
+                        else
+                            bytes.parseUtf8(a, getEscapingQuotes());
+                        unescape(a);
+                    }
                     int code = peekCode();
                     if (code == '"')
                         readCode();
@@ -188,11 +190,13 @@ public class CSVWire extends TextWire {
                 }
                 case '\'': {
                     bytes.readSkip(1);
-                    if (use8bit)
-                        bytes.parse8bit(a, TextWire.getEscapingSingleQuotes());
-                    else
-                        bytes.parseUtf8(a, TextWire.getEscapingSingleQuotes());
-                    unescape(a);
+                    if (!StopCharScanner.SINGLE_QUOTES.parse(bytes, a)) {
+                        if (use8bit)
+                            bytes.parse8bit(a, TextWire.getEscapingSingleQuotes());
+                        else
+                            bytes.parseUtf8(a, TextWire.getEscapingSingleQuotes());
+                        unescape(a);
+                    }
                     int code = peekCode();
                     if (code == '\'')
                         readCode();
@@ -201,10 +205,12 @@ public class CSVWire extends TextWire {
                 }
                 default: {
                     if (bytes.readRemaining() > 0) {
-                        if (a instanceof Bytes || use8bit)
-                            bytes.parse8bit(a, getEscapingCSVEndOfText());
-                        else
-                            bytes.parseUtf8(a, getEscapingCSVEndOfText());
+                        if (!StopCharScanner.CSV_END_OF_TEXT.parse(bytes, a)) {
+                            if (a instanceof Bytes || use8bit)
+                                bytes.parse8bit(a, getEscapingCSVEndOfText());
+                            else
+                                bytes.parseUtf8(a, getEscapingCSVEndOfText());
+                        }
 
                     } else {
                         AppendableUtil.setLength(a, 0);
@@ -0,0 +1,416 @@
+/*
+ * Copyright 2016-2020 Chronicle Software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigInteger;
+
+/**
+ * Writes and reads doubles and floats as text without creating garbage.
+ * <p>
+ * Values are written with the fewest digits which read back as the same value, using the Schubfach algorithm by
+ * Raffaello Giulietti, in the same format as {@code Double.toString} and {@code Float.toString}. Simple decimals are
+ * read exactly when the digits and the power of ten both fit in a double, other numbers are left to {@code Bytes.parseDouble()}.
+ */
+final class DecimalText {
+    private static final int K_MIN = -324;
+    private static final int K_MAX = 292;
+    private static final long MASK_63 = 0x7FFF_FFFF_FFFF_FFFFL;
+    private static final long MASK_32 = 0xFFFF_FFFFL;
+
+    // double
+    private static final int D_P = 53;
+    private static final int D_Q_MIN = -1074;
+    private static final long D_C_MIN = 1L << (D_P - 1);
+    private static final long D_C_TINY = 3;
+    private static final long D_T_MASK = D_C_MIN - 1;
+    private static final int D_BQ_MASK = 0x7FF;
+
+    // float
+    private static final int F_P = 24;
+    private static final int F_Q_MIN = -149;
+    private static final int F_C_MIN = 1 << (F_P - 1);
+    private static final int F_C_TINY = 8;
+    private static final int F_T_MASK = F_C_MIN - 1;
+    private static final int F_BQ_MASK = 0xFF;
+
+    private static final long[] POW10 = new long[19];
+    private static final double[] POW10_DOUBLE = new double[23];
+    // g1 and g0 are the upper and lower 63 bits of floor(10^-k * 2^(125 - flog2pow10(-k))) + 1 for each k
+    private static final long[] G = new long[(K_MAX - K_MIN + 1) * 2];
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++)
+            POW10[i] = POW10[i - 1] * 10;
+        for (int i = 0; i < POW10_DOUBLE.length; i++)
+            POW10_DOUBLE[i] = i < POW10.length ? POW10[i] : POW10_DOUBLE[i - 1] * 10;
+
+        for (int k = K_MIN; k <= K_MAX; k++) {
+            int shift = 125 - flog2pow10(-k);
+            BigInteger g;
+            if (k <= 0) {
+                BigInteger pow = BigInteger.TEN.pow(-k);
+                g = shift >= 0 ? pow.shiftLeft(shift) : pow.shiftRight(-shift);
+            } else {
+                g = BigInteger.ONE.shiftLeft(shift).divide(BigInteger.TEN.pow(k));
+            }
+            g = g.add(BigInteger.ONE);
+            int index = (k - K_MIN) << 1;
+            G[index] = g.shiftRight(63).longValue();
+            G[index + 1] = g.longValue() & MASK_63;
+        }
+    }
+
+    private DecimalText() {
+    }
+
+    static int flog10pow2(int e) {
+        return (int) (e * 661_971_961_083L >> 41);
+    }
+
+    static int flog10threeQuartersPow2(int e) {
+        return (int) (e * 661_971_961_083L + -274_743_187_321L >> 41);
+    }
+
+    static int flog2pow10(int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+
+    // Math.multiplyHigh for Java 8
+    static long multiplyHigh(long x, long y) {
+        long x1 = x >> 32;
+        long x2 = x & MASK_32;
+        long y1 = y >> 32;
+        long y2 = y & MASK_32;
+        long z2 = x2 * y2;
+        long t = x1 * y2 + (z2 >>> 32);
+        long z1 = t & MASK_32;
+        long z0 = t >> 32;
+        z1 += x2 * y1;
+        return x1 * y1 + z0 + (z1 >> 32);
+    }
+
+    /**
+     * Append the shortest text which reads back as this double, e.g. 1.0E20, 0.1 or NaN
+     */
+    static void appendDouble(@NotNull Bytes<?> bytes, double v) {
+        long bits = Double.doubleToRawLongBits(v);
+        long t = bits & D_T_MASK;
+        int bq = (int) (bits >>> (D_P - 1)) & D_BQ_MASK;
+        if (bq == D_BQ_MASK) {
+            bytes.append(t != 0 ? "NaN" : bits > 0 ? "Infinity" : "-Infinity");
+            return;
+        }
+        if (bits < 0)
+            bytes.writeUnsignedByte('-');
+        if (bq != 0) {
+            int mq = -D_Q_MIN + 1 - bq;
+            long c = D_C_MIN | t;
+            // an integer value
+            if (0 < mq & mq < D_P) {
+                long f = c >> mq;
+                if (f << mq == c) {
+                    appendDecimal(bytes, f, 0);
+                    return;
+                }
+            }
+            toDecimal(bytes, -mq, c, 0);
+        } else if (t != 0) {
+            // subnormal
+            if (t < D_C_TINY)
+                toDecimal(bytes, D_Q_MIN, 10 * t, -1);
+            else
+                toDecimal(bytes, D_Q_MIN, t, 0);
+        } else {
+            bytes.append("0.0");
+        }
+    }
+
+    private static void toDecimal(Bytes<?> bytes, int q, long c, int dk) {
+        int out = (int) c & 0x1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != D_C_MIN | q == D_Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        int h = q + flog2pow10(-k) + 2;
+        int index = (k - K_MIN) << 1;
+        long g1 = G[index];
+        long g0 = G[index + 1];
+        long vb = rop(g1, g0, cb << h);
+        long vbl = rop(g1, g0, cbl << h);
+        long vbr = rop(g1, g0, cbr << h);
+
+        long s = vb >> 2;
+        if (s >= 100) {
+            long sp10 = 10 * multiplyHigh(s, 115_292_150_460_684_698L << 4);
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                appendDecimal(bytes, upin ? sp10 : tp10, k);
+                return;
+            }
+        }
+        long t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            appendDecimal(bytes, uin ? s : t, k + dk);
+            return;
+        }
+        long cmp = vb - (s + t << 1);
+        appendDecimal(bytes, cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk);
+    }
+
+    private static long rop(long g1, long g0, long cp) {
+        long x1 = multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+    /**
+     * Append the shortest text which reads back as this float, e.g. 1.0E20, 0.1 or NaN
+     */
+    static void appendFloat(@NotNull Bytes<?> bytes, float v) {
+        int bits = Float.floatToRawIntBits(v);
+        int t = bits & F_T_MASK;
+        int bq = (bits >>> (F_P - 1)) & F_BQ_MASK;
+        if (bq == F_BQ_MASK) {
+            bytes.append(t != 0 ? "NaN" : bits > 0 ? "Infinity" : "-Infinity");
+            return;
+        }
+        if (bits < 0)
+            bytes.writeUnsignedByte('-');
+        if (bq != 0) {
+            int mq = -F_Q_MIN + 1 - bq;
+            int c = F_C_MIN | t;
+            if (0 < mq & mq < F_P) {
+                int f = c >> mq;
+                if (f << mq == c) {
+                    appendDecimal(bytes, f, 0);
+                    return;
+                }
+            }
+            toDecimal(bytes, -mq, c, 0);
+        } else if (t != 0) {
+            if (t < F_C_TINY)
+                toDecimal(bytes, F_Q_MIN, 10 * t, -1);
+            else
+                toDecimal(bytes, F_Q_MIN, t, 0);
+        } else {
+            bytes.append("0.0");
+        }
+    }
+
+    private static void toDecimal(Bytes<?> bytes, int q, int c, int dk) {
+        int out = c & 0x1;
+        long cb = (long) c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != F_C_MIN | q == F_Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        int h = q + flog2pow10(-k) + 33;
+        long g = G[(k - K_MIN) << 1] + 1;
+        int vb = rop(g, cb << h);
+        int vbl = rop(g, cbl << h);
+        int vbr = rop(g, cbr << h);
+
+        int s = vb >> 2;
+        if (s >= 100) {
+            int sp10 = 10 * (int) (s * 1_717_986_919L >>> 34);
+            int tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                appendDecimal(bytes, upin ? sp10 : tp10, k);
+                return;
+            }
+        }
+        int t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            appendDecimal(bytes, uin ? s : t, k + dk);
+            return;
+        }
+        int cmp = vb - (s + t << 1);
+        appendDecimal(bytes, cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk);
+    }
+
+    private static int rop(long g, long cp) {
+        long x1 = multiplyHigh(g, cp);
+        long vbp = x1 >>> 31;
+        return (int) (vbp | (x1 & MASK_32) + MASK_32 >>> 32);
+    }
+
+    /**
+     * Append f * 10^e as Double.toString does, plain from 1.0E-3 up to 1.0E7, otherwise in scientific notation.
+     */
+    private static void appendDecimal(Bytes<?> bytes, long f, int e) {
+        while (f % 10 == 0) {
+            f /= 10;
+            e++;
+        }
+        int n = 1;
+        while (n < POW10.length && f >= POW10[n])
+            n++;
+        int exp = e + n - 1;
+        if (-3 <= exp && exp < 7) {
+            if (exp >= 0) {
+                for (int i = 0; i <= exp; i++)
+                    bytes.writeUnsignedByte(i < n ? digit(f, n, i) : '0');
+                bytes.writeUnsignedByte('.');
+                if (n <= exp + 1)
+                    bytes.writeUnsignedByte('0');
+                for (int i = exp + 1; i < n; i++)
+                    bytes.writeUnsignedByte(digit(f, n, i));
+            } else {
+                bytes.writeUnsignedByte('0').writeUnsignedByte('.');
+                for (int i = exp + 1; i < 0; i++)
+                    bytes.writeUnsignedByte('0');
+                for (int i = 0; i < n; i++)
+                    bytes.writeUnsignedByte(digit(f, n, i));
+            }
+        } else {
+            bytes.writeUnsignedByte(digit(f, n, 0)).writeUnsignedByte('.');
+            if (n == 1)
+                bytes.writeUnsignedByte('0');
+            for (int i = 1; i < n; i++)
+                bytes.writeUnsignedByte(digit(f, n, i));
+            bytes.writeUnsignedByte('E');
+            bytes.append(exp);
+        }
+    }
+
+    private static int digit(long f, int n, int i) {
+        return '0' + (int) (f / POW10[n - 1 - i] % 10);
+    }
+
+    /**
+     * Read a double, consuming the character after it as {@code Bytes.parseDouble()} does.
+     * <p>
+     * Plain decimals of up to 18 significant digits, with an optional exponent, are converted exactly when the digits fit
+     * in 53 bits and the power of ten is no more than 22. Anything else is left to {@code Bytes.parseDouble()}
+     */
+    static double parseDouble(@NotNull Bytes<?> bytes) {
+        long i = bytes.readPosition();
+        long limit = bytes.readLimit();
+        boolean negative = false;
+        if (i < limit && bytes.readUnsignedByte(i) == '-') {
+            negative = true;
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int significant = 0;
+        int decimals = 0;
+        boolean point = false;
+        int ch = -1;
+        for (; i < limit; i++) {
+            ch = bytes.readUnsignedByte(i);
+            if ('0' <= ch && ch <= '9') {
+                if (significant == 18)
+                    return bytes.parseDouble();
+                mantissa = mantissa * 10 + (ch - '0');
+                if (mantissa != 0)
+                    significant++;
+                digits++;
+                if (point)
+                    decimals++;
+            } else if (ch == '.' && !point) {
+                point = true;
+            } else {
+                break;
+            }
+            ch = -1;
+        }
+        if (digits == 0)
+            return bytes.parseDouble();
+
+        int exponent = 0;
+        boolean hasExponent = false;
+        if (ch == 'e' || ch == 'E') {
+            boolean negativeExponent = false;
+            i++;
+            if (i < limit && bytes.readUnsignedByte(i) == '-') {
+                negativeExponent = true;
+                i++;
+            }
+            int expDigits = 0;
+            ch = -1;
+            for (; i < limit; i++) {
+                ch = bytes.readUnsignedByte(i);
+                if (ch < '0' || ch > '9')
+                    break;
+                if (++expDigits > 3)
+                    return bytes.parseDouble();
+                exponent = exponent * 10 + (ch - '0');
+                ch = -1;
+            }
+            if (expDigits == 0)
+                return bytes.parseDouble();
+            if (negativeExponent)
+                exponent = -exponent;
+            hasExponent = true;
+        }
+        switch (ch) {
+            case -1:
+            case ' ':
+            case ',':
+            case '}':
+            case ']':
+            case ':':
+            case '\n':
+            case '\r':
+            case '\t':
+                break;
+            default:
+                return bytes.parseDouble();
+        }
+
+        int exp10 = exponent - decimals;
+        if (mantissa >= 1L << 53 || exp10 < -22 || exp10 > 22)
+            return bytes.parseDouble();
+
+        double value = exp10 >= 0 ? mantissa * POW10_DOUBLE[exp10] : mantissa / POW10_DOUBLE[-exp10];
+        bytes.lastDecimalPlaces(Math.max(0, -exp10));
+        // as with Bytes.parseDouble(), a closing bracket after an exponent is not consumed
+        boolean consume = ch != -1 && !(hasExponent && (ch == '}' || ch == ']'));
+        bytes.readPosition(consume ? i + 1 : i);
+        return negative ? -value : value;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2016-2020 Chronicle Software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Holds the encoded bytes of event and field names a text wire has written, i.e. the escaped name, any quotes and
+ * the separator before the value, so names which are String constants, e.g. the field names of a
+ * {@link WireMarshaller} or the event names of a generated method writer, are a single copy rather than checked for
+ * quoting and escaped each time.
+ * <p>
+ * Each wire has its own cache, so the bytes are always those of that wire's format.
+ * Names are matched by identity and each slot is only filled once, so names which change don't cause garbage.
+ * A name may use either of two slots so a DTO with a few dozen fields is unlikely to lose any to collisions.
+ */
+final class EncodedNameCache {
+    private static final int SIZE = 64;
+    private static final int MAX_LENGTH = 64;
+    private final String[] names = new String[SIZE];
+    private final byte[][] encoded = new byte[SIZE][];
+
+    /**
+     * @return true if the name was cached and has been written.
+     */
+    boolean write(@NotNull CharSequence name, @NotNull Bytes<?> bytes) {
+        if (!(name instanceof String))
+            return false;
+        int index = name.hashCode() & (SIZE - 1);
+        if (names[index] != name) {
+            index ^= 1;
+            if (names[index] != name)
+                return false;
+        }
+        bytes.write(encoded[index]);
+        return true;
+    }
+
+    /**
+     * Cache the bytes written for this name since <code>start</code> if there is a free slot.
+     */
+    void put(@NotNull CharSequence name, @NotNull Bytes<?> bytes, long start) {
+        if (!(name instanceof String) || name.length() > MAX_LENGTH || bytes.retainsComments())
+            return;
+        int index = name.hashCode() & (SIZE - 1);
+        if (names[index] != null) {
+            index ^= 1;
+            if (names[index] != null)
+                return;
+        }
+        long length = bytes.writePosition() - start;
+        if (length <= 0 || length > MAX_LENGTH * 4 + 2)
+            return;
+        byte[] bytes0 = new byte[(int) length];
+        for (int i = 0; i < bytes0.length; i++)
+            bytes0[i] = bytes.readByte(start + i);
+        encoded[index] = bytes0;
+        names[index] = (String) name;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2016-2020 Chronicle Software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Decides whether a binary document should be read from the raw bytes of its first event, before anything is
+ * decoded. A MessageHistory at the start of the document is passed over.
+ * <p>
+ * Documents rejected are skipped by the MethodReader, those accepted are read as normal, so a filter may accept
+ * documents which aren't wanted, but mustn't reject any which are. A document holding more than one event, such as
+ * a batch, is read as normal whatever the filter returns for its first event.
+ *
+ * @see MethodEventPreFilter
+ * @see KeyPrefixBloomFilter
+ */
+@FunctionalInterface
+public interface EventPreFilter {
+    /**
+     * @param methodId     the method id of the event, or -1 if it has a name
+     * @param bytes        of the document, which mustn't be modified
+     * @param nameStart    the offset of the name in 8-bit bytes
+     * @param nameLength   the length of the name, 0 if there is a method id
+     * @param payloadStart the offset of the value, which ends at or before the <code>bytes.readLimit()</code>
+     * @return true to read the document, false to skip it
+     */
+    boolean accept(long methodId, @NotNull Bytes<?> bytes, long nameStart, int nameLength, long payloadStart);
+
+    /**
+     * @return a filter which accepts documents only if both filters do.
+     */
+    @NotNull
+    default EventPreFilter and(@NotNull EventPreFilter other) {
+        return (methodId, bytes, nameStart, nameLength, payloadStart) ->
+                accept(methodId, bytes, nameStart, nameLength, payloadStart)
+                        && other.accept(methodId, bytes, nameStart, nameLength, payloadStart);
+    }
+
+    /**
+     * @return a filter which accepts documents if either filter does.
+     */
+    @NotNull
+    default EventPreFilter or(@NotNull EventPreFilter other) {
+        return (methodId, bytes, nameStart, nameLength, payloadStart) ->
+                accept(methodId, bytes, nameStart, nameLength, payloadStart)
+                        || other.accept(methodId, bytes, nameStart, nameLength, payloadStart);
+    }
+}
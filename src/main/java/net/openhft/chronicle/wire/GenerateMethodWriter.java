@@ -81,6 +81,12 @@ public class GenerateMethodWriter {
     private final WireType wireType;
     private final String genericEvent;
     private final boolean useUpdateInterceptor;
+    private final boolean useMetrics;
+    private final List<String> metricNames = new ArrayList<>();
+    private final boolean useArgumentsInterceptor;
+    private final List<Method> interceptedMethods = new ArrayList<>();
+    // converters used to write text, one instance per class
+    private final Map<String, String> converters = new LinkedHashMap<>();
     private ConcurrentMap<Class, String> methodWritersMap = new ConcurrentHashMap<>();
     private boolean hasMethodWriterListener;
     private AtomicInteger indent = new AtomicInteger();
@@ -94,7 +100,9 @@ public class GenerateMethodWriter {
                                  final boolean hasMethodWriterListener,
                                  final boolean metaData,
                                  final boolean useMethodId,
-                                 final boolean useUpdateInterceptor) {
+                                 final boolean useUpdateInterceptor,
+                                 final boolean useMetrics,
+                                 final boolean useArgumentsInterceptor) {
 
         this.packageName = packageName;
         this.interfaces = interfaces;
@@ -106,6 +114,8 @@ public class GenerateMethodWriter {
         this.metaData = metaData;
         this.useMethodId = useMethodId;
         this.useUpdateInterceptor = useUpdateInterceptor;
+        this.useMetrics = useMetrics;
+        this.useArgumentsInterceptor = useArgumentsInterceptor;
     }
 
     /**
@@ -126,6 +136,29 @@ public class GenerateMethodWriter {
                                  boolean metaData,
                                  boolean useMethodId,
                                  final boolean useUpdateInterceptor) {
+        return newClass(fullClassName, interfaces, classLoader, wireType, genericEvent, hasMethodWriterListener,
+                metaData, useMethodId, useUpdateInterceptor, false, false);
+    }
+
+    /**
+     * @param useMetrics              if true, the constructor takes an additional MethodMetrics and each method
+     *                                records its size and encode time.
+     * @param useArgumentsInterceptor if true, the constructor takes an additional MethodArgumentsInterceptor which is
+     *                                passed the arguments of each call in a reused MethodArguments.
+     * @return a proxy class from an interface class or null if it can't be created
+     */
+    @Nullable
+    public static Class newClass(String fullClassName,
+                                 Set<Class> interfaces,
+                                 ClassLoader classLoader,
+                                 final WireType wireType,
+                                 final String genericEvent,
+                                 boolean hasMethodWriterListener,
+                                 boolean metaData,
+                                 boolean useMethodId,
+                                 final boolean useUpdateInterceptor,
+                                 final boolean useMetrics,
+                                 final boolean useArgumentsInterceptor) {
         int lastDot = fullClassName.lastIndexOf('.');
         String packageName = "";
         String className = fullClassName;
@@ -142,7 +175,7 @@ public class GenerateMethodWriter {
                 wireType,
                 genericEvent,
                 hasMethodWriterListener,
-                metaData, useMethodId, useUpdateInterceptor)
+                metaData, useMethodId, useUpdateInterceptor, useMetrics, useArgumentsInterceptor)
                 .createClass();
     }
 
@@ -197,6 +230,11 @@ public class GenerateMethodWriter {
         return type.getName().replace('$', '.');
     }
 
+    @NotNull
+    private static String arrayNameForClass(Class type) {
+        return type.isArray() ? arrayNameForClass(type.getComponentType()) + "[]" : nameForClass(type);
+    }
+
     @NotNull
     private static String nameForClass(Set<String> importSet, Class type) {
         if (type.isArray())
@@ -399,11 +437,35 @@ public class GenerateMethodWriter {
         for (Map.Entry<Class, String> e : methodWritersMap.entrySet()) {
             result.append(format("private transient ThreadLocal<%s> %s;\n", nameForClass(importSet, e.getKey()), e.getValue()));
         }
+        for (int i = 0; i < metricNames.size(); i++)
+            result.append(format("private transient final MethodMetrics.Metric metric%d;\n", i));
+        for (Map.Entry<String, String> entry : converters.entrySet())
+            result.append(format("private static final %s %s = new %s();\n", entry.getKey(), entry.getValue(), entry.getKey()));
+        if (useArgumentsInterceptor) {
+            result.append("private transient final MethodArgumentsInterceptor argumentsInterceptor;\n" +
+                    "private transient final MethodArguments methodArguments = new MethodArguments();\n");
+            for (int i = 0; i < interceptedMethods.size(); i++)
+                result.append(format("private transient final Method interceptedMethod%d;\n", i));
+        }
         result.append('\n');
 
         result.append(format("// constructor\npublic %s(Supplier<" + MARSHALLABLE_OUT + "> out, "
                 + CLOSEABLE + " closeable, MethodWriterListener methodWriterListener, " +
-                UpdateInterceptor.class.getSimpleName() + " " + UPDATE_INTERCEPTOR_FIELD + ") {\n", className));
+                UpdateInterceptor.class.getSimpleName() + " " + UPDATE_INTERCEPTOR_FIELD +
+                (useMetrics ? ", MethodMetrics metrics" : "") +
+                (useArgumentsInterceptor ? ", MethodArgumentsInterceptor argumentsInterceptor" : "") + ") {\n", className));
+        for (int i = 0; i < metricNames.size(); i++)
+            result.append(format("this.metric%d = metrics.acquire(\"%s\");\n", i, metricNames.get(i)));
+        if (useArgumentsInterceptor) {
+            result.append("this.argumentsInterceptor = argumentsInterceptor;\n");
+            for (int i = 0; i < interceptedMethods.size(); i++) {
+                Method m = interceptedMethods.get(i);
+                result.append(format("this.interceptedMethod%d = Jvm.getMethod(%s.class, \"%s\"", i, nameForClass(m.getDeclaringClass()), m.getName()));
+                for (Class<?> type : m.getParameterTypes())
+                    result.append(", ").append(arrayNameForClass(type)).append(".class");
+                result.append(");\n");
+            }
+        }
 
         if (hasMethodWriterListener)
             result.append("this.methodWriterListener = methodWriterListener;\n");
@@ -451,7 +513,24 @@ public class GenerateMethodWriter {
                     ".update(\"" + dm.getName() + "\", " + name + ")) return" + returnDefault(returnType) + ";\n");
         }
 
+        if (useArgumentsInterceptor) {
+            body.append("// argumentsInterceptor\n" +
+                    "final MethodArguments arguments$ = this.methodArguments.reset(this.interceptedMethod" + interceptedMethods.size() + ");\n");
+            interceptedMethods.add(dm);
+            for (int i = 0; i < parameterCount; i++) {
+                Class<?> type = parameters[i].getType();
+                String setter = !type.isPrimitive() ? "setObject"
+                        : type == boolean.class ? "setBoolean"
+                        : type == float.class || type == double.class ? "setDouble"
+                        : "setLong";
+                body.append(format("arguments$.%s(%d, %s);\n", setter, i, parameters[i].getName()));
+            }
+            body.append("if (!this.argumentsInterceptor.intercept(arguments$)) return" + returnDefault(returnType) + ";\n");
+        }
+
         boolean terminating = returnType == Void.class || returnType == void.class || returnType.isPrimitive();
+        if (useMetrics)
+            body.append("final long start$ = System.nanoTime();\n");
         if (terminating)
             body.append("try (");
         body.append("final " + DOCUMENT_CONTEXT + " dc = this.out.get().acquireWritingDocument(")
@@ -462,6 +541,12 @@ public class GenerateMethodWriter {
         else
             body.append(";\n");
         body.append("if (out.get().recordHistory()) MessageHistory.writeHistory(dc);\n");
+        String metric = null;
+        if (useMetrics) {
+            metric = "metric" + metricNames.size();
+            metricNames.add(dm.getName());
+            body.append("final long position$ = dc.wire().bytes().writePosition();\n");
+        }
 
         int startJ = 0;
 
@@ -484,6 +569,9 @@ public class GenerateMethodWriter {
         if (dm.getParameterTypes().length == 0)
             body.append("valueOut.text(\"\");\n");
 
+        if (metric != null)
+            body.append("this." + metric + ".onWrite(dc.wire().bytes().writePosition() - position$, System.nanoTime() - start$);\n");
+
         if (terminating) {
             body.append("}\n");
         }
@@ -541,8 +629,13 @@ public class GenerateMethodWriter {
 
             final String name = intConversion.orElseGet(() -> (longConversion.orElse("")));
 
-            if (!name.isEmpty() && (WireType.TEXT == wireType || WireType.YAML == wireType))
-                body.append(format("//todo improve this\nvalueOut.rawText(new %s().asText(%s));\n", name, p.getName()));
+            if (!name.isEmpty() && (WireType.TEXT == wireType || WireType.YAML == wireType)) {
+                String converter = converters.computeIfAbsent(name.replace('$', '.'), n -> "converter" + converters.size());
+                body.append(format("final StringBuilder text%d$ = Wires.acquireStringBuilder();\n" +
+                                "%s.append(text%d$, %s);\n" +
+                                "valueOut.rawText(text%d$);\n",
+                        j, converter, j, p.getName(), j));
+            }
             else if (p.getType().isPrimitive() || CharSequence.class.isAssignableFrom(p.getType())) {
                 body.append(format("%s.%s(%s);\n", dm.getParameterTypes().length > startJ + 1 ? "v" : "valueOut", toString(p.getType()), p.getName()));
             } else
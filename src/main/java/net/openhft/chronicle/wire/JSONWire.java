@@ -19,11 +19,15 @@ package net.openhft.chronicle.wire;
 
 import net.openhft.chronicle.bytes.Bytes;
 import net.openhft.chronicle.bytes.BytesStore;
+import net.openhft.chronicle.bytes.StopCharsTester;
 import net.openhft.chronicle.core.Jvm;
 import net.openhft.chronicle.core.io.IORuntimeException;
+import net.openhft.chronicle.core.threads.ThreadLocalHelper;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.ref.WeakReference;
+
 import static net.openhft.chronicle.bytes.NativeBytes.nativeBytes;
 
 /**
@@ -34,6 +38,7 @@ import static net.openhft.chronicle.bytes.NativeBytes.nativeBytes;
 public class JSONWire extends TextWire {
     @SuppressWarnings("rawtypes")
     static final BytesStore COMMA = BytesStore.from(",");
+    static final ThreadLocal<WeakReference<StopCharsTester>> JSON_ESCAPED_END_OF_TEXT = new ThreadLocal<>();
 
     @SuppressWarnings("rawtypes")
     public JSONWire(@NotNull Bytes bytes, boolean use8bit) {
@@ -96,7 +101,7 @@ public class JSONWire extends TextWire {
                     consumePadding();
                 }
 
-                final double v = isNull ? Double.NaN : bytes.parseDouble();
+                final double v = isNull ? Double.NaN : DecimalText.parseDouble(bytes);
                 checkRewind();
                 return v;
             }
@@ -117,7 +122,29 @@ public class JSONWire extends TextWire {
 
     @Override
     public void copyTo(@NotNull WireOut wire) {
-        throw new UnsupportedOperationException();
+        if (wire.getClass() == JSONWire.class) {
+            wire.bytes().write(bytes, bytes().readPosition(), bytes().readRemaining());
+        } else if (wire instanceof BinaryWire) {
+            copyToBinary((BinaryWire) wire);
+        } else {
+            throw new UnsupportedOperationException("Can only copy JSONWire format to the same format or BinaryWire");
+        }
+    }
+
+    @NotNull
+    @Override
+    protected StopCharsTester getStrictEscapingEndOfText() {
+        StopCharsTester escaping = ThreadLocalHelper.getTL(JSON_ESCAPED_END_OF_TEXT,
+                TextStopCharsTesters.JSON_END_OF_TEXT::escaping);
+        // reset it.
+        escaping.isStopChar(' ', ' ');
+        return escaping;
+    }
+
+    @NotNull
+    @Override
+    StopCharScanner strictEndOfTextScanner() {
+        return StopCharScanner.JSON_END_OF_TEXT;
     }
 
     @NotNull
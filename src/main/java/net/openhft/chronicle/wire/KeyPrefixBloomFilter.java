@@ -0,0 +1,128 @@
+/*
+ * Copyright 2016-2020 Chronicle Software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.BytesStore;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An EventPreFilter which accepts events whose payload contains one of the keys added, at a fixed offset, using a
+ * Bloom filter. A small proportion of other events are also accepted.
+ * <p>
+ * The offset is relative to the start of the payload, e.g. 1 for a key which is the first argument of a method with
+ * a single String argument of fewer than 32 characters, to skip the type code.
+ * Only the first <code>prefixLength</code> bytes of each key are compared.
+ */
+public class KeyPrefixBloomFilter implements EventPreFilter {
+    private final int offset;
+    private final int prefixLength;
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashes;
+
+    /**
+     * @param offset            of the key in the payload
+     * @param prefixLength      of each key to compare
+     * @param expectedKeys      to size the filter for
+     * @param falsePositiveRate the proportion of other events to accept when <code>expectedKeys</code> are added
+     */
+    public KeyPrefixBloomFilter(int offset, int prefixLength, int expectedKeys, double falsePositiveRate) {
+        if (offset < 0 || prefixLength < 1 || expectedKeys < 1)
+            throw new IllegalArgumentException("offset must be non-negative, prefixLength and expectedKeys positive");
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1))
+            throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1, was " + falsePositiveRate);
+        this.offset = offset;
+        this.prefixLength = prefixLength;
+        double ln2 = Math.log(2);
+        long m = Math.max(64, (long) Math.ceil(-expectedKeys * Math.log(falsePositiveRate) / (ln2 * ln2)));
+        bits = new long[(int) ((m + 63) >>> 6)];
+        bitCount = (long) bits.length << 6;
+        hashes = Math.max(1, (int) Math.round((double) bitCount / expectedKeys * ln2));
+    }
+
+    private static long hash(@NotNull BytesStore<?, ?> bytes, long offset, int length) {
+        // FNV-1a
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < length; i++)
+            h = (h ^ bytes.peekUnsignedByte(offset + i)) * 0x100000001b3L;
+        return h;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h | 1;
+    }
+
+    /**
+     * @param key of 8-bit characters, at least <code>prefixLength</code> long
+     * @return this
+     */
+    @NotNull
+    public KeyPrefixBloomFilter add(@NotNull CharSequence key) {
+        Bytes<?> bytes = Bytes.allocateElasticOnHeap(key.length());
+        try {
+            bytes.append8bit(key);
+            return add(bytes);
+        } finally {
+            bytes.releaseLast();
+        }
+    }
+
+    /**
+     * @param key the bytes from the read position, at least <code>prefixLength</code> long
+     * @return this
+     */
+    @NotNull
+    public KeyPrefixBloomFilter add(@NotNull Bytes<?> key) {
+        if (key.readRemaining() < prefixLength)
+            throw new IllegalArgumentException("The key must be at least " + prefixLength + " bytes long");
+        long h1 = hash(key, key.readPosition(), prefixLength);
+        long h2 = mix(h1);
+        for (int i = 0; i < hashes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+        return this;
+    }
+
+    public int hashes() {
+        return hashes;
+    }
+
+    public long bitCount() {
+        return bitCount;
+    }
+
+    @Override
+    public boolean accept(long methodId, @NotNull Bytes<?> bytes, long nameStart, int nameLength, long payloadStart) {
+        long start = payloadStart + offset;
+        if (start + prefixLength > bytes.readLimit())
+            return false;
+        long h1 = hash(bytes, start, prefixLength);
+        long h2 = mix(h1);
+        for (int i = 0; i < hashes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0)
+                return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2016-2020 Chronicle Software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock free histogram of non-negative values, typically latencies in nanoseconds.
+ * <p>
+ * Values below 16 are recorded exactly, larger values are recorded in one of eight sub-buckets per power of two,
+ * giving a relative error of at most 12.5%. Samples can be added from any thread while another thread
+ * takes a {@link #summary()}, though a summary taken during updates is not an atomic snapshot.
+ */
+public class LatencyHistogram {
+    static final int SUB_BUCKET_BITS = 3;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int LINEAR = SUB_BUCKETS * 2;
+    static final int BUCKETS = LINEAR + (63 - 4) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    static int bucketFor(long value) {
+        if (value < LINEAR)
+            return value < 0 ? 0 : (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR + (exponent - 4) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * @return the highest value which maps to this bucket
+     */
+    static long upperValueFor(int bucket) {
+        if (bucket < LINEAR)
+            return bucket;
+        int exponent = (bucket - LINEAR) / SUB_BUCKETS + 4;
+        long sub = (bucket - LINEAR) % SUB_BUCKETS;
+        long lower = (1L << exponent) + (sub << (exponent - SUB_BUCKET_BITS));
+        return lower + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    public void sample(long value) {
+        counts.incrementAndGet(bucketFor(value));
+        count.incrementAndGet();
+        long m;
+        while (value > (m = max.get()))
+            if (max.compareAndSet(m, value))
+                break;
+    }
+
+    public long count() {
+        return count.get();
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * @param fraction between 0.0 and 1.0 e.g. 0.99 for the 99th percentile
+     * @return an upper bound for the value at this percentile or 0 if there are no samples
+     */
+    public long percentile(double fraction) {
+        long[] copy = new long[BUCKETS];
+        long total = copyCounts(copy);
+        return percentile(copy, total, fraction);
+    }
+
+    private long copyCounts(long[] copy) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++)
+            total += copy[i] = counts.get(i);
+        return total;
+    }
+
+    private long percentile(long[] copy, long total, double fraction) {
+        if (total == 0)
+            return 0;
+        long target = Math.max(1, (long) Math.ceil(total * fraction));
+        long sum = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            sum += copy[i];
+            if (sum >= target)
+                return Math.min(upperValueFor(i), max());
+        }
+        return max();
+    }
+
+    /**
+     * Add all the samples of another histogram to this one.
+     */
+    public void add(@NotNull LatencyHistogram histogram) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = histogram.counts.get(i);
+            if (c != 0)
+                counts.addAndGet(i, c);
+        }
+        count.addAndGet(histogram.count());
+        long value = histogram.max();
+        long m;
+        while (value > (m = max.get()))
+            if (max.compareAndSet(m, value))
+                break;
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++)
+            counts.set(i, 0);
+        count.set(0);
+        max.set(0);
+    }
+
+    @NotNull
+    public Summary summary() {
+        return summary(new Summary());
+    }
+
+    @NotNull
+    public Summary summary(@NotNull Summary summary) {
+        long[] copy = new long[BUCKETS];
+        long total = copyCounts(copy);
+        summary.count = total;
+        summary.p50 = percentile(copy, total, 0.50);
+        summary.p90 = percentile(copy, total, 0.90);
+        summary.p99 = percentile(copy, total, 0.99);
+        summary.p999 = percentile(copy, total, 0.999);
+        summary.max = max();
+        return summary;
+    }
+
+    @Override
+    public String toString() {
+        return summary().toString();
+    }
+
+    /**
+     * A point in time summary of a LatencyHistogram which can be written to a Wire.
+     */
+    public static class Summary extends SelfDescribingMarshallable {
+        long count;
+        long p50, p90, p99, p999, max;
+
+        public long count() {
+            return count;
+        }
+
+        public long p50() {
+            return p50;
+        }
+
+        public long p90() {
+            return p90;
+        }
+
+        public long p99() {
+            return p99;
+        }
+
+        public long p999() {
+            return p999;
+        }
+
+        public long max() {
+            return max;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2016-2020 Chronicle Software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.MethodReader;
+import net.openhft.chronicle.bytes.MethodReaderInterceptorReturns;
+import net.openhft.chronicle.core.io.Closeable;
+import net.openhft.chronicle.core.util.StringUtils;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Reads several sources as one, dispatching the next document of whichever source has the lowest timestamp.
+ * <p>
+ * The next document of each source is held open while it waits its turn, so its timestamp is read once and the
+ * document is only decoded when it is dispatched. All the sources share the parselets of one
+ * {@link VanillaMethodReader}. Documents from one source are always read in order, and documents with the same
+ * timestamp are read in the order of their sources.
+ * <p>
+ * A source with no document available is polled again on each {@link #readOne()}, so for live sources the order is
+ * only guaranteed across the documents available at the time.
+ */
+public class MergedMethodReader implements MethodReader {
+    @NotNull
+    private final VanillaMethodReader reader;
+    @NotNull
+    private final TimestampExtractor extractor;
+    @NotNull
+    private final MarshallableIn[] sources;
+    // the next document of each source, or null if it has none yet
+    private final DocumentContext[] documents;
+    private final long[] timestamps;
+    // a binary heap of the sources with a document, by timestamp
+    private final int[] heap;
+    private int heapSize;
+    private boolean closeIn, closed;
+
+    /**
+     * @param extractor to read the timestamp of each document
+     * @param sources   to read from
+     * @param handlers  to dispatch to, as for {@link VanillaMethodReaderBuilder#build(Object...)}
+     */
+    public MergedMethodReader(@NotNull TimestampExtractor extractor, @NotNull MarshallableIn[] sources, @NotNull Object... handlers) {
+        this((VanillaMethodReader) new VanillaMethodReaderBuilder(sources[0]).build(handlers), extractor, sources);
+    }
+
+    /**
+     * @param reader    whose parselets are used to dispatch every document, regardless of the source it was built with
+     * @param extractor to read the timestamp of each document
+     * @param sources   to read from
+     */
+    public MergedMethodReader(@NotNull VanillaMethodReader reader, @NotNull TimestampExtractor extractor, @NotNull MarshallableIn... sources) {
+        if (sources.length == 0)
+            throw new IllegalArgumentException("At least one source is required");
+        this.reader = reader;
+        this.extractor = extractor;
+        this.sources = sources.clone();
+        this.documents = new DocumentContext[sources.length];
+        this.timestamps = new long[sources.length];
+        this.heap = new int[sources.length];
+    }
+
+    /**
+     * reads the document with the lowest timestamp across all the sources
+     *
+     * @return true if there was a message, or false if no source has data available.
+     */
+    @Override
+    public boolean readOne() {
+        throwExceptionIfClosed();
+
+        for (int i = 0; i < sources.length; i++)
+            if (documents[i] == null)
+                next(i);
+        if (heapSize == 0)
+            return false;
+
+        int source = heap[0];
+        removeFirst();
+        DocumentContext dc = documents[source];
+        documents[source] = null;
+        try {
+            reader.dispatch(dc);
+        } finally {
+            dc.close();
+        }
+        next(source);
+        return true;
+    }
+
+    private void next(int source) {
+        DocumentContext dc = sources[source].readingDocument();
+        if (!dc.isPresent()) {
+            dc.close();
+            return;
+        }
+        Bytes<?> bytes = dc.wire().bytes();
+        long position = bytes.readPosition();
+        long timestamp = extractor.timestamp(dc.wire());
+        bytes.readPosition(position);
+
+        documents[source] = dc;
+        timestamps[source] = timestamp;
+        add(source);
+    }
+
+    private boolean before(int a, int b) {
+        long ta = timestamps[a], tb = timestamps[b];
+        return ta < tb || (ta == tb && a < b);
+    }
+
+    private void add(int source) {
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(source, heap[parent]))
+                break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = source;
+    }
+
+    private void removeFirst() {
+        int last = heap[--heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize)
+                break;
+            if (child + 1 < heapSize && before(heap[child + 1], heap[child]))
+                child++;
+            if (!before(heap[child], last))
+                break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+    }
+
+    @Override
+    public MethodReaderInterceptorReturns methodReaderInterceptorReturns() {
+        return reader.methodReaderInterceptorReturns();
+    }
+
+    @NotNull
+    @Override
+    public MergedMethodReader closeIn(boolean closeIn) {
+        throwExceptionIfClosed();
+
+        this.closeIn = closeIn;
+        return this;
+    }
+
+    @Override
+    public void close() {
+        if (closed)
+            return;
+        closed = true;
+        // leave the documents waiting to be read for the next reader
+        for (int i = 0; i < documents.length; i++) {
+            DocumentContext dc = documents[i];
+            if (dc != null) {
+                dc.rollbackOnClose();
+                dc.close();
+                documents[i] = null;
+            }
+        }
+        reader.close();
+        if (closeIn)
+            for (MarshallableIn source : sources)
+                Closeable.closeQuietly(source);
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Reads the timestamp of a document from its start, without reading the rest of it.
+     * The read position is restored afterwards.
+     */
+    @FunctionalInterface
+    public interface TimestampExtractor {
+        /**
+         * @return the first timing of the MessageHistory at the start of the document, or Long.MIN_VALUE if there is
+         * none.
+         */
+        @NotNull
+        static TimestampExtractor historyTiming() {
+            StringBuilder sb = new StringBuilder();
+            VanillaMessageHistory history = new VanillaMessageHistory();
+            return wire -> {
+                ValueIn in = wire.readEventName(sb);
+                if (!StringUtils.isEqual(sb, MethodReader.HISTORY))
+                    return Long.MIN_VALUE;
+                in.marshallable(history);
+                return history.timings() > 0 ? history.timing(0) : Long.MIN_VALUE;
+            };
+        }
+
+        /**
+         * @param name of the first event in each document, holding the timestamp as a long
+         * @return the value of the first event if it has this name, otherwise Long.MIN_VALUE
+         */
+        @NotNull
+        static TimestampExtractor firstEvent(@NotNull String name) {
+            StringBuilder sb = new StringBuilder();
+            return wire -> {
+                ValueIn in = wire.readEventName(sb);
+                return StringUtils.isEqual(sb, name) ? in.int64() : Long.MIN_VALUE;
+            };
+        }
+
+        long timestamp(@NotNull WireIn wire);
+    }
+}
@@ -32,6 +32,9 @@ public interface MessageHistory extends Marshallable {
 
     /**
      * You only need to call this if you wish to override it's behaviour.
+     * <p>
+     * The caller still owns <code>md</code>. If it holds resources, e.g. a {@link BytesStoreMessageHistory},
+     * close it once this thread no longer uses it.
      *
      * @param md to change to the default implementation for this thread.
      */
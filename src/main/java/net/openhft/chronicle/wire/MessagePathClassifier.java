@@ -19,16 +19,41 @@ package net.openhft.chronicle.wire;
 
 import net.openhft.chronicle.core.Jvm;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
-import java.util.OptionalInt;
 import java.util.function.IntSupplier;
-import java.util.stream.IntStream;
 
+/**
+ * Classifies a message by the sources at the end of its {@link MessageHistory}.
+ * <p>
+ * The patterns are held in a trie of source ids in reverse order, so the longest pattern matching a history is found by
+ * walking back from its last source, once, without boxing.
+ */
 public class MessagePathClassifier implements IntSupplier {
-    private final List<int[]> sourcePattern = new ArrayList<>();
-    private final List<Integer> pathIds = new ArrayList<>();
+    private static final int NO_PATH = Integer.MIN_VALUE;
+    private static final long NO_KEY = -1L;
+
+    // pathId per trie node, node 0 is the root, i.e. the empty pattern
+    private int[] nodePathIds = {NO_PATH};
+    private int nodes = 1;
+    // open addressed map of (parent node, source id) to child node
+    private long[] edgeKeys = newKeys(16);
+    private int[] edgeChildren = new int[16];
+    private int edges = 0;
+
+    private static long[] newKeys(int capacity) {
+        long[] keys = new long[capacity];
+        Arrays.fill(keys, NO_KEY);
+        return keys;
+    }
+
+    private static long edgeKey(int node, int sourceId) {
+        return ((long) node << 32) | (sourceId & 0xFFFFFFFFL);
+    }
+
+    private static int slotFor(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
 
     /**
      * @param pathId  0 indexed pathId for sourcces ending with
@@ -36,41 +61,110 @@ public class MessagePathClassifier implements IntSupplier {
      * @return this
      */
     public MessagePathClassifier addPathForSourcesEnding(int pathId, int... sources) {
-        OptionalInt duplicate = IntStream.range(0, sourcePattern.size())
-                .filter(s -> Arrays.equals(sources, sourcePattern.get(s)))
-                .findFirst();
-        if (duplicate.isPresent()) {
-            if (sources[duplicate.getAsInt()] == pathId) {
+        if (pathId == NO_PATH)
+            throw new IllegalArgumentException("Invalid pathId " + pathId);
+        int node = 0;
+        for (int i = sources.length - 1; i >= 0; i--) {
+            int child = child(node, sources[i]);
+            if (child < 0)
+                child = addChild(node, sources[i]);
+            node = child;
+        }
+        int existing = nodePathIds[node];
+        if (existing != NO_PATH) {
+            if (existing == pathId) {
                 Jvm.debug().on(getClass(), "Added pathId " + pathId + " more than once");
                 return this;
             }
-            throw new IllegalArgumentException("Duplicate entry for " + Arrays.toString(sources) + " for path " + duplicate.getAsInt() + " and " + pathId);
+            throw new IllegalArgumentException("Duplicate entry for " + Arrays.toString(sources) + " for path " + existing + " and " + pathId);
         }
-        sourcePattern.add(sources);
-        pathIds.add(pathId);
+        nodePathIds[node] = pathId;
         return this;
     }
 
+    private int child(int node, int sourceId) {
+        long key = edgeKey(node, sourceId);
+        int mask = edgeKeys.length - 1;
+        for (int i = slotFor(key, mask); ; i = (i + 1) & mask) {
+            long k = edgeKeys[i];
+            if (k == key)
+                return edgeChildren[i];
+            if (k == NO_KEY)
+                return -1;
+        }
+    }
+
+    private int addChild(int node, int sourceId) {
+        if (nodes == nodePathIds.length) {
+            nodePathIds = Arrays.copyOf(nodePathIds, nodes * 2);
+            Arrays.fill(nodePathIds, nodes, nodePathIds.length, NO_PATH);
+        }
+        int child = nodes++;
+        if (++edges * 2 > edgeKeys.length)
+            resizeEdges();
+        putEdge(edgeKeys, edgeChildren, edgeKey(node, sourceId), child);
+        return child;
+    }
+
+    private void resizeEdges() {
+        long[] keys = newKeys(edgeKeys.length * 2);
+        int[] children = new int[keys.length];
+        for (int i = 0; i < edgeKeys.length; i++)
+            if (edgeKeys[i] != NO_KEY)
+                putEdge(keys, children, edgeKeys[i], edgeChildren[i]);
+        edgeKeys = keys;
+        edgeChildren = children;
+    }
+
+    private static void putEdge(long[] keys, int[] children, long key, int child) {
+        int mask = keys.length - 1;
+        int i = slotFor(key, mask);
+        while (keys[i] != NO_KEY)
+            i = (i + 1) & mask;
+        keys[i] = key;
+        children[i] = child;
+    }
+
     @Override
     public int getAsInt() {
         return pathFor(MessageHistory.get());
     }
 
     public int pathFor(MessageHistory messageHistory) {
-        Integer pathId = null;
-        int length = -1;
-        for (int i = 0; i < sourcePattern.size(); i++) {
-            int[] sourceIds = sourcePattern.get(i);
-            if (messageHistory.sourceIdsEndsWith(sourceIds)) {
-                Integer pathId2 = pathIds.get(i);
-                if (sourceIds.length > length) {
-                    pathId = pathId2;
-                    length = sourceIds.length;
-                }
-            }
-        }
-        if (pathId == null)
+        int pathId = pathFor(messageHistory, NO_PATH);
+        if (pathId == NO_PATH)
             throw new IllegalStateException("Unable to classify the pathId for " + messageHistory);
         return pathId;
     }
+
+    /**
+     * @param messageHistory to classify
+     * @param defaultPathId  to return if no pattern matches
+     * @return the pathId of the longest pattern matching the end of the history, or defaultPathId
+     */
+    public int pathFor(MessageHistory messageHistory, int defaultPathId) {
+        int pathId = nodePathIds[0];
+        int node = 0;
+        for (int i = messageHistory.sources() - 1; i >= 0; i--) {
+            node = child(node, messageHistory.sourceId(i));
+            if (node < 0)
+                break;
+            int pathId2 = nodePathIds[node];
+            if (pathId2 != NO_PATH)
+                pathId = pathId2;
+        }
+        return pathId == NO_PATH ? defaultPathId : pathId;
+    }
+
+    /**
+     * Classify a batch of histories
+     *
+     * @param messageHistories to classify
+     * @param count            the number of histories to classify
+     * @param pathIds          to hold the pathId of each history
+     */
+    public void pathsFor(MessageHistory[] messageHistories, int count, int[] pathIds) {
+        for (int i = 0; i < count; i++)
+            pathIds[i] = pathFor(messageHistories[i]);
+    }
 }
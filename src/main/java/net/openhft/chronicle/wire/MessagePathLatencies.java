@@ -0,0 +1,212 @@
+/*
+ * Copyright 2016-2020 Chronicle Software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Latencies per message path taken from the timings of a {@link MessageHistory}.
+ * <p>
+ * Each message is classified by a {@link MessagePathClassifier}, then the delta between each pair of consecutive
+ * timings is recorded in a {@link LatencyHistogram} for that hop, as well as the delta between the first and last timing.
+ * Samples can be added from any thread without locking, and a {@link #snapshot()} can be taken and written from another.
+ */
+public class MessagePathLatencies {
+    private static final int UNCLASSIFIED = -1;
+
+    @NotNull
+    private final MessagePathClassifier classifier;
+    private final int hops;
+    private final AtomicReferenceArray<Path> paths;
+    private final AtomicLong unclassified = new AtomicLong();
+
+    /**
+     * @param classifier to find the path of each message
+     * @param paths      the number of paths, pathIds must be between 0 and paths - 1
+     * @param hops       the maximum number of hops recorded per path, any more are only included in the end to end time
+     */
+    public MessagePathLatencies(@NotNull MessagePathClassifier classifier, int paths, int hops) {
+        if (paths < 1 || hops < 1)
+            throw new IllegalArgumentException("paths and hops must be at least 1");
+        this.classifier = classifier;
+        this.hops = hops;
+        this.paths = new AtomicReferenceArray<>(paths);
+    }
+
+    /**
+     * Sample the MessageHistory of the current message
+     */
+    public void sample() {
+        sample(MessageHistory.get());
+    }
+
+    public void sample(@NotNull MessageHistory history) {
+        int pathId = classifier.pathFor(history, UNCLASSIFIED);
+        if (pathId < 0 || pathId >= paths.length()) {
+            unclassified.incrementAndGet();
+            return;
+        }
+        sample(pathId, history);
+    }
+
+    /**
+     * Sample a MessageHistory which has been classified already
+     */
+    public void sample(int pathId, @NotNull MessageHistory history) {
+        int timings = history.timings();
+        if (timings < 2)
+            return;
+        Path path = acquirePath(pathId);
+        long first = history.timing(0);
+        long previous = first;
+        for (int i = 1; i < timings; i++) {
+            long timing = history.timing(i);
+            if (i <= hops)
+                path.hops[i - 1].sample(timing - previous);
+            previous = timing;
+        }
+        path.endToEnd.sample(previous - first);
+    }
+
+    @NotNull
+    private Path acquirePath(int pathId) {
+        Path path = paths.get(pathId);
+        if (path == null) {
+            paths.compareAndSet(pathId, null, new Path(hops));
+            path = paths.get(pathId);
+        }
+        return path;
+    }
+
+    /**
+     * @return the histogram of end to end latencies for a path, or null if it has no samples
+     */
+    @Nullable
+    public LatencyHistogram endToEnd(int pathId) {
+        Path path = paths.get(pathId);
+        return path == null ? null : path.endToEnd;
+    }
+
+    /**
+     * @return the histogram of latencies from timing hop to timing hop + 1 for a path, or null if it has no samples
+     */
+    @Nullable
+    public LatencyHistogram hop(int pathId, int hop) {
+        Path path = paths.get(pathId);
+        return path == null ? null : path.hops[hop];
+    }
+
+    /**
+     * @return the number of messages which didn't match any path
+     */
+    public long unclassified() {
+        return unclassified.get();
+    }
+
+    public void reset() {
+        for (int i = 0; i < paths.length(); i++) {
+            Path path = paths.get(i);
+            if (path != null)
+                path.reset();
+        }
+        unclassified.set(0);
+    }
+
+    @NotNull
+    public Snapshot snapshot() {
+        Snapshot snapshot = new Snapshot();
+        snapshot.unclassified = unclassified();
+        for (int i = 0; i < paths.length(); i++) {
+            Path path = paths.get(i);
+            if (path != null)
+                snapshot.paths.add(path.summary(i));
+        }
+        return snapshot;
+    }
+
+    static final class Path {
+        final LatencyHistogram endToEnd = new LatencyHistogram();
+        final LatencyHistogram[] hops;
+
+        Path(int hops) {
+            this.hops = new LatencyHistogram[hops];
+            for (int i = 0; i < hops; i++)
+                this.hops[i] = new LatencyHistogram();
+        }
+
+        void reset() {
+            endToEnd.reset();
+            for (LatencyHistogram hop : hops)
+                hop.reset();
+        }
+
+        PathSummary summary(int pathId) {
+            PathSummary summary = new PathSummary();
+            summary.pathId = pathId;
+            summary.endToEnd = endToEnd.summary();
+            for (LatencyHistogram hop : hops) {
+                if (hop.count() == 0)
+                    break;
+                summary.hops.add(hop.summary());
+            }
+            return summary;
+        }
+    }
+
+    public static class PathSummary extends SelfDescribingMarshallable {
+        int pathId;
+        LatencyHistogram.Summary endToEnd;
+        final List<LatencyHistogram.Summary> hops = new ArrayList<>();
+
+        public int pathId() {
+            return pathId;
+        }
+
+        public LatencyHistogram.Summary endToEnd() {
+            return endToEnd;
+        }
+
+        /**
+         * @return the latencies from one timing to the next, for the hops which have samples
+         */
+        @NotNull
+        public List<LatencyHistogram.Summary> hops() {
+            return hops;
+        }
+    }
+
+    public static class Snapshot extends SelfDescribingMarshallable {
+        long unclassified;
+        final List<PathSummary> paths = new ArrayList<>();
+
+        public long unclassified() {
+            return unclassified;
+        }
+
+        @NotNull
+        public List<PathSummary> paths() {
+            return paths;
+        }
+    }
+}
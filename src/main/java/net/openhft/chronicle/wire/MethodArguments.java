@@ -0,0 +1,192 @@
+/*
+ * Copyright 2016-2020 Chronicle Software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Method;
+
+/**
+ * A reusable holder for the arguments of a method call, passed to a {@link MethodArgumentsInterceptor}.
+ * <p>
+ * Primitive arguments are held in primitive slots so a call can be intercepted without boxing or allocating an
+ * array. Integral types, <code>char</code> and <code>boolean</code> are held as a long, <code>float</code> and
+ * <code>double</code> as a double. The holder is reused for the next call so it must not be retained.
+ */
+public final class MethodArguments {
+    private static final Class<?>[] NO_TYPES = {};
+    private Method method;
+    private Class<?>[] types = NO_TYPES;
+    private long[] longs = {};
+    private double[] doubles = {};
+    private Object[] objects = {};
+
+    /**
+     * Prepare this holder for a call to <code>method</code>. Done by the generated code, not the interceptor.
+     */
+    public MethodArguments reset(@NotNull Method method) {
+        if (this.method != method) {
+            this.method = method;
+            this.types = method.getParameterTypes();
+            int count = types.length;
+            if (longs.length < count) {
+                longs = new long[count];
+                doubles = new double[count];
+                objects = new Object[count];
+            }
+        }
+        return this;
+    }
+
+    @NotNull
+    public Method method() {
+        return method;
+    }
+
+    @NotNull
+    public String methodName() {
+        return method.getName();
+    }
+
+    public int count() {
+        return types.length;
+    }
+
+    @NotNull
+    public Class<?> type(int index) {
+        return types[index];
+    }
+
+    public MethodArguments setLong(int index, long value) {
+        longs[index] = value;
+        return this;
+    }
+
+    public MethodArguments setBoolean(int index, boolean value) {
+        longs[index] = value ? 1 : 0;
+        return this;
+    }
+
+    public MethodArguments setDouble(int index, double value) {
+        doubles[index] = value;
+        return this;
+    }
+
+    public MethodArguments setObject(int index, Object value) {
+        objects[index] = value;
+        return this;
+    }
+
+    /**
+     * Set an argument from a possibly boxed value, unboxing into the primitive slot where the parameter is a primitive
+     */
+    public MethodArguments set(int index, Object value) {
+        Class<?> type = types[index];
+        if (!type.isPrimitive())
+            objects[index] = value;
+        else if (type == boolean.class)
+            longs[index] = Boolean.TRUE.equals(value) ? 1 : 0;
+        else if (type == char.class)
+            longs[index] = value == null ? 0 : (Character) value;
+        else if (type == float.class || type == double.class)
+            doubles[index] = value == null ? 0 : ((Number) value).doubleValue();
+        else
+            longs[index] = value == null ? 0 : ((Number) value).longValue();
+        return this;
+    }
+
+    public long getLong(int index) {
+        return longs[index];
+    }
+
+    public int getInt(int index) {
+        return (int) longs[index];
+    }
+
+    public boolean getBoolean(int index) {
+        return longs[index] != 0;
+    }
+
+    public char getChar(int index) {
+        return (char) longs[index];
+    }
+
+    public double getDouble(int index) {
+        return doubles[index];
+    }
+
+    public Object getObject(int index) {
+        return objects[index];
+    }
+
+    /**
+     * @return the argument, boxing it if it is a primitive
+     */
+    public Object get(int index) {
+        Class<?> type = types[index];
+        if (!type.isPrimitive())
+            return objects[index];
+        if (type == boolean.class)
+            return getBoolean(index);
+        if (type == char.class)
+            return getChar(index);
+        if (type == double.class)
+            return doubles[index];
+        if (type == float.class)
+            return (float) doubles[index];
+        if (type == long.class)
+            return longs[index];
+        if (type == int.class)
+            return (int) longs[index];
+        if (type == short.class)
+            return (short) longs[index];
+        return (byte) longs[index];
+    }
+
+    /**
+     * Append the method name and arguments without boxing primitives
+     */
+    public void appendTo(@NotNull StringBuilder sb) {
+        sb.append(method.getName()).append('[');
+        for (int i = 0; i < types.length; i++) {
+            if (i > 0)
+                sb.append(", ");
+            Class<?> type = types[i];
+            if (!type.isPrimitive())
+                sb.append(objects[i]);
+            else if (type == boolean.class)
+                sb.append(getBoolean(i));
+            else if (type == char.class)
+                sb.append(getChar(i));
+            else if (type == float.class)
+                sb.append((float) doubles[i]);
+            else if (type == double.class)
+                sb.append(doubles[i]);
+            else
+                sb.append(longs[i]);
+        }
+        sb.append(']');
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        appendTo(sb);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2016-2020 Chronicle Software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+/**
+ * Intercepts method reader and method writer calls without boxing the arguments.
+ * <p>
+ * Unlike <code>MethodReaderInterceptorReturns</code> and <code>MethodWriterInterceptorReturns</code> no
+ * <code>Object[]</code> is created for each call, and a generated method writer can still be used.
+ */
+@FunctionalInterface
+public interface MethodArgumentsInterceptor {
+    /**
+     * @param arguments of the call, only valid for the duration of this call.
+     * @return true to make the call, false to drop it.
+     */
+    boolean intercept(MethodArguments arguments);
+}
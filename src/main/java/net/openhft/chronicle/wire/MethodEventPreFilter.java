@@ -0,0 +1,143 @@
+/*
+ * Copyright 2016-2020 Chronicle Software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.MethodId;
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.core.util.Annotations;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+/**
+ * An EventPreFilter which accepts only the methods added, by method id using a bitset, or by name using a hash set.
+ */
+public class MethodEventPreFilter implements EventPreFilter {
+    private long[] ids = {};
+    // open addressed by hash, verified with the name
+    private long[] hashes = new long[16];
+    private byte[][] names = new byte[16][];
+    private int nameCount = 0;
+
+    private static long hash(@NotNull Bytes<?> bytes, long offset, int length) {
+        long h = length;
+        for (int i = 0; i < length; i++)
+            h = h * 31 + bytes.peekUnsignedByte(offset + i);
+        return h;
+    }
+
+    private static long hash(byte[] name) {
+        long h = name.length;
+        for (byte b : name)
+            h = h * 31 + (b & 0xFF);
+        return h;
+    }
+
+    @NotNull
+    public MethodEventPreFilter addMethodId(int methodId) {
+        if (methodId < 0)
+            throw new IllegalArgumentException("methodId must be non-negative, was " + methodId);
+        int index = methodId >>> 6;
+        if (index >= ids.length)
+            ids = Arrays.copyOf(ids, index + 1);
+        ids[index] |= 1L << methodId;
+        return this;
+    }
+
+    @NotNull
+    public MethodEventPreFilter addMethodName(@NotNull String name) {
+        byte[] bytes = new byte[name.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            char ch = name.charAt(i);
+            if (ch > 0xFF)
+                throw new IllegalArgumentException("Only 8-bit names are supported, was " + name);
+            bytes[i] = (byte) ch;
+        }
+        if (++nameCount * 2 > hashes.length) {
+            long[] hashes0 = hashes;
+            byte[][] names0 = names;
+            hashes = new long[hashes0.length * 2];
+            names = new byte[hashes.length][];
+            for (byte[] n : names0)
+                if (n != null)
+                    insert(hash(n), n);
+        }
+        insert(hash(bytes), bytes);
+        return this;
+    }
+
+    /**
+     * Accept every method of this interface, by name and by method id where it has one.
+     */
+    @NotNull
+    public MethodEventPreFilter addMethods(@NotNull Class<?> anInterface) {
+        for (Method method : anInterface.getMethods()) {
+            if (method.getDeclaringClass() == Object.class)
+                continue;
+            addMethodName(method.getName());
+            MethodId methodId = Annotations.getAnnotation(method, MethodId.class);
+            if (methodId != null) {
+                if (methodId.value() == (int) methodId.value() && methodId.value() >= 0)
+                    addMethodId((int) methodId.value());
+                else
+                    Jvm.warn().on(getClass(), "Unable to filter on the methodId of " + method);
+            }
+        }
+        return this;
+    }
+
+    private void insert(long h, byte[] name) {
+        int mask = hashes.length - 1;
+        int i = (int) (h ^ (h >>> 32)) & mask;
+        while (names[i] != null) {
+            if (hashes[i] == h && Arrays.equals(names[i], name)) {
+                nameCount--;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        hashes[i] = h;
+        names[i] = name;
+    }
+
+    @Override
+    public boolean accept(long methodId, @NotNull Bytes<?> bytes, long nameStart, int nameLength, long payloadStart) {
+        if (methodId >= 0) {
+            int index = (int) (methodId >>> 6);
+            return methodId < (long) ids.length << 6 && (ids[index] & (1L << methodId)) != 0;
+        }
+        long h = hash(bytes, nameStart, nameLength);
+        int mask = hashes.length - 1;
+        for (int i = (int) (h ^ (h >>> 32)) & mask; names[i] != null; i = (i + 1) & mask) {
+            if (hashes[i] == h && nameEquals(names[i], bytes, nameStart, nameLength))
+                return true;
+        }
+        return false;
+    }
+
+    private static boolean nameEquals(byte[] name, Bytes<?> bytes, long offset, int length) {
+        if (name.length != length)
+            return false;
+        for (int i = 0; i < length; i++)
+            if ((name[i] & 0xFF) != bytes.peekUnsignedByte(offset + i))
+                return false;
+        return true;
+    }
+}
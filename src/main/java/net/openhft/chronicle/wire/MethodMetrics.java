@@ -0,0 +1,176 @@
+/*
+ * Copyright 2016-2020 Chronicle Software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per method counts, bytes and latencies for a MethodReader or MethodWriter.
+ * <p>
+ * Pass an instance to {@link VanillaMethodReaderBuilder#metrics(MethodMetrics)} or
+ * {@link VanillaMethodWriterBuilder#metrics(MethodMetrics)}, then poll {@link #snapshot()} from any thread.
+ * When no MethodMetrics is configured, no timing is performed.
+ */
+public class MethodMetrics {
+    private final Map<String, Metric> metricMap = new ConcurrentHashMap<>();
+
+    @NotNull
+    public Metric acquire(@NotNull String methodName) {
+        Metric metric = metricMap.get(methodName);
+        return metric != null ? metric : metricMap.computeIfAbsent(methodName, Metric::new);
+    }
+
+    @Nullable
+    public Metric metric(@NotNull String methodName) {
+        return metricMap.get(methodName);
+    }
+
+    public void reset() {
+        metricMap.values().forEach(Metric::reset);
+    }
+
+    @NotNull
+    public Snapshot snapshot() {
+        Snapshot snapshot = new Snapshot();
+        for (Metric metric : metricMap.values())
+            snapshot.methods.put(metric.name, metric.summary());
+        return snapshot;
+    }
+
+    /**
+     * The metrics for one method.
+     */
+    public static final class Metric {
+        private final String name;
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+        private final LatencyHistogram codecTime = new LatencyHistogram();
+        private final LatencyHistogram handlerTime = new LatencyHistogram();
+
+        Metric(String name) {
+            this.name = name;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        /**
+         * Record a method written
+         *
+         * @param bytes       the length of the encoded event
+         * @param encodeNanos the time taken to encode the event
+         */
+        public void onWrite(long bytes, long encodeNanos) {
+            count.incrementAndGet();
+            this.bytes.addAndGet(bytes);
+            codecTime.sample(encodeNanos);
+        }
+
+        /**
+         * Record a method read
+         *
+         * @param bytes        the length of the encoded event
+         * @param decodeNanos  the time taken to decode the arguments
+         * @param handlerNanos the time taken by the handler of the method
+         */
+        public void onRead(long bytes, long decodeNanos, long handlerNanos) {
+            count.incrementAndGet();
+            this.bytes.addAndGet(bytes);
+            codecTime.sample(decodeNanos);
+            handlerTime.sample(handlerNanos);
+        }
+
+        public long count() {
+            return count.get();
+        }
+
+        public long bytes() {
+            return bytes.get();
+        }
+
+        @NotNull
+        public LatencyHistogram codecTime() {
+            return codecTime;
+        }
+
+        @NotNull
+        public LatencyHistogram handlerTime() {
+            return handlerTime;
+        }
+
+        void reset() {
+            count.set(0);
+            bytes.set(0);
+            codecTime.reset();
+            handlerTime.reset();
+        }
+
+        @NotNull
+        public Summary summary() {
+            Summary summary = new Summary();
+            summary.count = count();
+            summary.bytes = bytes();
+            summary.codecTime = codecTime.summary();
+            summary.handlerTime = handlerTime.count() == 0 ? null : handlerTime.summary();
+            return summary;
+        }
+    }
+
+    public static class Summary extends SelfDescribingMarshallable {
+        long count;
+        long bytes;
+        LatencyHistogram.Summary codecTime;
+        LatencyHistogram.Summary handlerTime;
+
+        public long count() {
+            return count;
+        }
+
+        public long bytes() {
+            return bytes;
+        }
+
+        public LatencyHistogram.Summary codecTime() {
+            return codecTime;
+        }
+
+        /**
+         * @return the handler times, or null for a MethodWriter
+         */
+        @Nullable
+        public LatencyHistogram.Summary handlerTime() {
+            return handlerTime;
+        }
+    }
+
+    public static class Snapshot extends SelfDescribingMarshallable {
+        final Map<String, Summary> methods = new TreeMap<>();
+
+        @NotNull
+        public Map<String, Summary> methods() {
+            return methods;
+        }
+    }
+}
@@ -36,6 +36,9 @@ public class MethodWriterInvocationHandlerSupplier<T> implements Supplier<Method
     private boolean disableThreadSafe;
     private String genericEvent;
     private boolean useMethodIds = true;
+    private Supplier<MarshallableOut> marshallableOutSupplier;
+    private MethodMetrics metrics;
+    private MethodArgumentsInterceptor argumentsInterceptor;
     private final ThreadLocal<MethodWriterInvocationHandler> handlerTL = ThreadLocal.withInitial(this::newHandler);
     private MethodWriterInvocationHandler handler;
 
@@ -80,6 +83,18 @@ public class MethodWriterInvocationHandlerSupplier<T> implements Supplier<Method
         this.useMethodIds = useMethodIds;
     }
 
+    public void marshallableOutSupplier(Supplier<MarshallableOut> marshallableOutSupplier) {
+        this.marshallableOutSupplier = marshallableOutSupplier;
+    }
+
+    public void metrics(MethodMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public void argumentsInterceptor(MethodArgumentsInterceptor argumentsInterceptor) {
+        this.argumentsInterceptor = argumentsInterceptor;
+    }
+
     public MethodWriterInvocationHandlerSupplier modifier(final Function<T, T> modifier) {
         this.modifier = modifier;
         return this;
@@ -92,6 +107,13 @@ public class MethodWriterInvocationHandlerSupplier<T> implements Supplier<Method
         h.onClose(closeable);
         h.recordHistory(recordHistory);
         h.useMethodIds(useMethodIds);
+        if (h instanceof AbstractMethodWriterInvocationHandler) {
+            AbstractMethodWriterInvocationHandler amwih = (AbstractMethodWriterInvocationHandler) h;
+            if (marshallableOutSupplier != null)
+                amwih.marshallableOutSupplier(marshallableOutSupplier);
+            amwih.metrics(metrics);
+            amwih.argumentsInterceptor(argumentsInterceptor);
+        }
         return h;
     }
 
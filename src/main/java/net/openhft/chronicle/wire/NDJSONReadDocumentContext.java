@@ -0,0 +1,71 @@
+/*
+ * Copyright 2016-2020 Chronicle Software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Reads a line of an {@link NDJSONWire} as a document, without the braces around it. A last line without a newline
+ * is not complete until the end of input has been signalled.
+ */
+class NDJSONReadDocumentContext extends TextReadDocumentContext {
+    NDJSONReadDocumentContext(@NotNull NDJSONWire wire) {
+        super(wire);
+    }
+
+    @Override
+    public void start() {
+        wire.getValueIn().resetState();
+        Bytes<?> bytes = wire.bytes();
+
+        present = false;
+        notComplete = false;
+        metaData(false);
+        long limit = bytes.readLimit();
+        long start = bytes.readPosition();
+        while (start < limit && bytes.readUnsignedByte(start) <= ' ')
+            start++;
+        if (start >= limit) {
+            bytes.readPosition(limit);
+            closeReadLimit(limit);
+            closeReadPosition(limit);
+            return;
+        }
+
+        long end = NDJSONWire.endOfRecord(bytes, start, limit);
+        closeReadLimit(limit);
+        if (end >= limit && !((NDJSONWire) wire).isEndOfInput()) {
+            // the rest of this line hasn't been written yet, read it again later
+            notComplete = true;
+            closeReadPosition(bytes.readPosition());
+            return;
+        }
+        closeReadPosition(end < limit ? end + 1 : limit);
+
+        while (end > start && bytes.readUnsignedByte(end - 1) <= ' ')
+            end--;
+        if (bytes.readUnsignedByte(start) == '{' && bytes.readUnsignedByte(end - 1) == '}') {
+            start++;
+            end--;
+        }
+        bytes.readLimit(end);
+        bytes.readPosition(start);
+        present = true;
+    }
+}
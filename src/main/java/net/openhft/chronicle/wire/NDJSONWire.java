@@ -0,0 +1,121 @@
+/*
+ * Copyright 2016-2020 Chronicle Software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * JSON with one document per line, also known as JSON lines or NDJSON, so the documents can be read by other tools
+ * without the size headers of {@link #useBinaryDocuments()} or the <code>...</code> separators of TextWire.
+ * <p>
+ * Each document is written as an object on its own line e.g. <code>{"event":{"id":1}}</code>, and a document is read
+ * by scanning to the end of the line, so the fields of the object can be read with <code>read</code> or a
+ * {@code MethodReader} as for any other document. As in strict NDJSON, a newline in a string must be escaped,
+ * a raw newline always ends the record.
+ * <p>
+ * A last line without a newline may still be being written, so it isn't read until {@link #endOfInput()} is called.
+ */
+public class NDJSONWire extends JSONWire {
+    private boolean endOfInput;
+
+    @SuppressWarnings("rawtypes")
+    public NDJSONWire(@NotNull Bytes bytes, boolean use8bit) {
+        super(bytes, use8bit);
+        useTextDocuments();
+    }
+
+    @SuppressWarnings("rawtypes")
+    public NDJSONWire(@NotNull Bytes bytes) {
+        this(bytes, false);
+    }
+
+    @NotNull
+    public static NDJSONWire from(@NotNull String text) {
+        return new NDJSONWire(Bytes.from(text)).endOfInput();
+    }
+
+    /**
+     * There is no more input to be appended, so a last line without a newline is a complete record.
+     */
+    @NotNull
+    public NDJSONWire endOfInput() {
+        endOfInput = true;
+        return this;
+    }
+
+    /**
+     * @return whether {@link #endOfInput()} has been called since this wire was created or cleared
+     */
+    public boolean isEndOfInput() {
+        return endOfInput;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        endOfInput = false;
+    }
+
+    /**
+     * @return the end of the record starting at <code>from</code>, i.e. the offset of the newline after it or
+     * <code>limit</code>. As JSON strings can't hold a raw newline, every newline ends a record.
+     */
+    static long endOfRecord(@NotNull Bytes<?> bytes, long from, long limit) {
+        for (long i = from; ; i++) {
+            i = StopCharScanner.NEWLINE.indexOfSpecial(bytes, i, limit);
+            if (i >= limit)
+                return limit;
+            // otherwise a backslash or non ASCII
+            if (bytes.readUnsignedByte(i) == '\n')
+                return i;
+        }
+    }
+
+    /**
+     * Use newlines between documents, this is the default for this wire.
+     */
+    @NotNull
+    @Override
+    public NDJSONWire useTextDocuments() {
+        readContext = new NDJSONReadDocumentContext(this);
+        writeContext = new NDJSONWriteDocumentContext(this);
+        return this;
+    }
+
+    /**
+     * @return the start of the first record at or after <code>position</code>, or the read limit if there isn't one.
+     * As a record doesn't contain a newline, a record starts after any newline.
+     */
+    public long nextRecord(long position) {
+        long limit = bytes.readLimit();
+        if (position <= bytes.start())
+            return bytes.start();
+        long end = endOfRecord(bytes, position - 1, limit);
+        return end < limit ? end + 1 : limit;
+    }
+
+    /**
+     * Read the first document at or after <code>readLocation</code> which needn't be the start of a record.
+     */
+    @NotNull
+    @Override
+    public DocumentContext readingDocument(long readLocation) {
+        return super.readingDocument(nextRecord(readLocation));
+    }
+}
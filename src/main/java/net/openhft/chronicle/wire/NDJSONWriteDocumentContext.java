@@ -0,0 +1,50 @@
+/*
+ * Copyright 2016-2020 Chronicle Software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Writes a document of an {@link NDJSONWire} as an object on one line.
+ * <p>
+ * JSON has no comments to mark a meta data document, so they are rejected rather than read back as data.
+ */
+class NDJSONWriteDocumentContext extends TextWriteDocumentContext {
+    NDJSONWriteDocumentContext(@NotNull NDJSONWire wire) {
+        super(wire);
+    }
+
+    @Override
+    public void start(boolean metaData) {
+        if (metaData)
+            throw new UnsupportedOperationException("NDJSONWire doesn't support meta data documents");
+        super.start(false);
+        wire().bytes().writeUnsignedByte('{');
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void close() {
+        @NotNull Bytes bytes = wire().bytes();
+        bytes.writeUnsignedByte('}');
+        bytes.writeUnsignedByte('\n');
+        wire().getValueOut().resetBetweenDocuments();
+        notComplete = false;
+    }
+}
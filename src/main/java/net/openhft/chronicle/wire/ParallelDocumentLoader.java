@@ -0,0 +1,322 @@
+/*
+ * Copyright 2016-2020 Chronicle Software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.MappedBytes;
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.core.io.IORuntimeException;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Loads a file of many documents using several threads, either YAML or TextWire documents separated by
+ * <code>---</code> lines, or JSON with one document per line.
+ * <pre>
+ * List&lt;Row&gt; rows = new ParallelDocumentLoader&lt;&gt;(WireType.YAML, Row.class).load(file);
+ * </pre>
+ * The file is memory mapped and split into chunks at document boundaries, found by scanning for the start of lines
+ * rather than parsing. Each thread has its own mapping and wire which it reuses for every document of the chunks it
+ * loads. The documents are passed to the consumer in the order they appear in the file, on the calling thread, while
+ * the later chunks are still being loaded.
+ */
+public class ParallelDocumentLoader<T> {
+    // a chunk smaller than this isn't worth handing to another thread
+    static final int MIN_CHUNK_SIZE = 64 << 10;
+    // more chunks than threads, so a thread which finishes early can take another
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    @NotNull
+    private final WireType wireType;
+    @NotNull
+    private final Class<T> type;
+    private final boolean perLine;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int minChunkSize = MIN_CHUNK_SIZE;
+
+    /**
+     * @param wireType of the documents, TEXT or YAML for <code>---</code> separated documents, JSON for one per line
+     * @param type     to load each document as
+     */
+    public ParallelDocumentLoader(@NotNull WireType wireType, @NotNull Class<T> type) {
+        this.wireType = wireType;
+        this.type = type;
+        this.perLine = documentsPerLine(wireType);
+    }
+
+    /**
+     * @return true if each line is a document, false if documents are separated by <code>---</code>
+     */
+    private static boolean documentsPerLine(WireType wireType) {
+        Bytes<?> bytes = Bytes.allocateElasticOnHeap(0);
+        try {
+            Wire wire = wireType.apply(bytes);
+            if (wire instanceof JSONWire)
+                return true;
+            if ((wire instanceof TextWire && !(wire instanceof CSVWire)) || wire instanceof YamlWire)
+                return false;
+        } finally {
+            bytes.releaseLast();
+        }
+        throw new UnsupportedOperationException("Cannot load documents of " + wireType);
+    }
+
+    @NotNull
+    public ParallelDocumentLoader<T> threads(int threads) {
+        if (threads < 1)
+            throw new IllegalArgumentException("threads: " + threads);
+        this.threads = threads;
+        return this;
+    }
+
+    public int threads() {
+        return threads;
+    }
+
+    @NotNull
+    ParallelDocumentLoader<T> minChunkSize(int minChunkSize) {
+        this.minChunkSize = minChunkSize;
+        return this;
+    }
+
+    /**
+     * @return the documents of the file in order
+     */
+    @NotNull
+    public List<T> load(@NotNull File file) throws IOException {
+        List<T> list = new ArrayList<>();
+        load(file, list::add);
+        return list;
+    }
+
+    /**
+     * Pass the documents of the file to the consumer in order, on this thread.
+     *
+     * @throws IORuntimeException if a document cannot be loaded, after the documents before it have been passed to the
+     *                            consumer
+     */
+    public void load(@NotNull File file, @NotNull Consumer<? super T> consumer) throws IOException {
+        long length = file.length();
+        if (length == 0)
+            return;
+        long[] chunkStarts;
+        MappedBytes bytes = MappedBytes.readOnly(file);
+        try {
+            bytes.readLimit(length);
+            chunkStarts = chunkStarts(bytes, perLine, chunkCount(length));
+        } finally {
+            bytes.releaseLast();
+        }
+
+        int chunks = chunkStarts.length - 1;
+        List<CompletableFuture<LoadedChunk<T>>> results = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++)
+            results.add(new CompletableFuture<>());
+        AtomicInteger nextChunk = new AtomicInteger();
+        Runnable loader = () -> loadChunks(file, chunkStarts, nextChunk, results);
+        int loaders = Math.min(threads, chunks);
+        List<Thread> threadList = new ArrayList<>();
+        if (loaders > 1) {
+            for (int i = 0; i < loaders; i++) {
+                Thread thread = new Thread(loader, "document-loader~" + i);
+                thread.setDaemon(true);
+                thread.start();
+                threadList.add(thread);
+            }
+        }
+        try {
+            if (threadList.isEmpty())
+                loader.run();
+            for (int i = 0; i < chunks; i++) {
+                LoadedChunk<T> chunk = results.get(i).join();
+                // let the chunk be collected once consumed
+                results.set(i, null);
+                chunk.documents.forEach(consumer);
+                if (chunk.failure != null)
+                    throw Jvm.rethrow(chunk.failure);
+            }
+        } finally {
+            // stop the other threads taking more chunks if the load was abandoned
+            nextChunk.set(chunks);
+            for (Thread thread : threadList) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    private int chunkCount(long length) {
+        long bySize = Math.max(1, length / minChunkSize);
+        return (int) Math.min(bySize, (long) threads * CHUNKS_PER_THREAD);
+    }
+
+    private void loadChunks(File file, long[] chunkStarts, AtomicInteger nextChunk,
+                            List<CompletableFuture<LoadedChunk<T>>> results) {
+        int chunks = chunkStarts.length - 1;
+        MappedBytes bytes = null;
+        try {
+            Wire wire = null;
+            for (int i; (i = nextChunk.getAndIncrement()) < chunks; ) {
+                LoadedChunk<T> chunk = new LoadedChunk<>();
+                try {
+                    if (wire == null) {
+                        bytes = MappedBytes.readOnly(file);
+                        wire = wireType.apply(bytes);
+                    }
+                    loadChunk(wire, chunkStarts[i], chunkStarts[i + 1], chunk.documents);
+                } catch (Throwable t) {
+                    chunk.failure = t;
+                }
+                results.get(i).complete(chunk);
+            }
+        } finally {
+            if (bytes != null)
+                bytes.releaseLast();
+        }
+    }
+
+    /**
+     * Split the bytes into about <code>chunks</code> chunks, each starting at a document.
+     *
+     * @return the start of each chunk followed by the end of the last
+     */
+    static long[] chunkStarts(@NotNull Bytes<?> bytes, boolean perLine, int chunks) {
+        long length = bytes.readLimit();
+        long[] starts = new long[chunks + 1];
+        int count = 1;
+        for (int i = 1; i < chunks; i++) {
+            long start = nextDocument(bytes, perLine, Math.max(starts[count - 1] + 1, length * i / chunks));
+            if (start >= length)
+                break;
+            starts[count++] = start;
+        }
+        starts[count++] = length;
+        long[] result = new long[count];
+        System.arraycopy(starts, 0, result, 0, count);
+        return result;
+    }
+
+    /**
+     * @return the start of the first line at or after <code>from</code> which starts a document
+     */
+    static long nextDocument(@NotNull Bytes<?> bytes, boolean perLine, long from) {
+        long length = bytes.readLimit();
+        long lineStart = from;
+        if (lineStart > 0 && bytes.readUnsignedByte(lineStart - 1) != '\n')
+            lineStart = nextLine(bytes, lineStart, length);
+        if (perLine)
+            return lineStart;
+        for (; lineStart < length; lineStart = nextLine(bytes, lineStart, length))
+            if (isMarker(bytes, lineStart, length, '-'))
+                return lineStart;
+        return length;
+    }
+
+    private static long nextLine(Bytes<?> bytes, long pos, long length) {
+        for (; pos < length; pos++)
+            if (bytes.readUnsignedByte(pos) == '\n')
+                return pos + 1;
+        return length;
+    }
+
+    /**
+     * @return true if the line starts with <code>---</code> or <code>...</code> on its own or followed by whitespace
+     */
+    private static boolean isMarker(Bytes<?> bytes, long lineStart, long length, char ch) {
+        if (lineStart + 3 > length)
+            return false;
+        for (int i = 0; i < 3; i++)
+            if (bytes.readUnsignedByte(lineStart + i) != ch)
+                return false;
+        return lineStart + 3 == length || bytes.readUnsignedByte(lineStart + 3) <= ' ';
+    }
+
+    private void loadChunk(Wire wire, long start, long end, List<T> documents) {
+        Bytes<?> bytes = wire.bytes();
+        long docStart = start;
+        for (long lineStart = start; lineStart < end; ) {
+            long next = nextLine(bytes, lineStart, end);
+            if (perLine) {
+                loadDocument(wire, lineStart, next, documents);
+            } else if (isMarker(bytes, lineStart, end, '-')) {
+                loadDocument(wire, docStart, lineStart, documents);
+                // anything on the rest of the line, e.g. a type, is part of the document
+                docStart = lineStart + 3;
+            } else if (isMarker(bytes, lineStart, end, '.')) {
+                loadDocument(wire, docStart, lineStart, documents);
+                docStart = next;
+            }
+            lineStart = next;
+        }
+        if (!perLine)
+            loadDocument(wire, docStart, end, documents);
+    }
+
+    private void loadDocument(Wire wire, long start, long end, List<T> documents) {
+        Bytes<?> bytes = wire.bytes();
+        if (!hasContent(bytes, start, end))
+            return;
+        try {
+            bytes.readLimit(end);
+            bytes.readPosition(start);
+            ValueIn valueIn = wire.getValueIn();
+            valueIn.resetState();
+            documents.add(valueIn.object(type));
+        } catch (RuntimeException e) {
+            throw new IORuntimeException("Unable to load the document at " + start, e);
+        }
+    }
+
+    /**
+     * @return true unless there is only whitespace, comments and directives
+     */
+    private static boolean hasContent(Bytes<?> bytes, long start, long end) {
+        boolean lineStart = true;
+        for (long pos = start; pos < end; pos++) {
+            int ch = bytes.readUnsignedByte(pos);
+            if (ch == '\n') {
+                lineStart = true;
+            } else if (ch == '#' || (ch == '%' && lineStart)) {
+                pos = nextLine(bytes, pos, end) - 1;
+                lineStart = true;
+            } else if (ch > ' ') {
+                return true;
+            } else {
+                lineStart = false;
+            }
+        }
+        return false;
+    }
+
+    static final class LoadedChunk<T> {
+        final List<T> documents = new ArrayList<>();
+        // the documents are those before this failure
+        Throwable failure;
+    }
+}
@@ -19,7 +19,6 @@ package net.openhft.chronicle.wire;
 
 import net.openhft.chronicle.bytes.Bytes;
 import net.openhft.chronicle.bytes.BytesStore;
-import net.openhft.chronicle.bytes.StopCharTester;
 import net.openhft.chronicle.bytes.ref.BinaryLongArrayReference;
 import net.openhft.chronicle.core.annotation.ForceInline;
 import net.openhft.chronicle.core.pool.ClassAliasPool;
@@ -38,14 +37,118 @@ import java.util.function.BiFunction;
 
 /**
  * This wire decodes URL query strings.
+ * <p>
+ * Field names and text values are percent decoded, with <code>+</code> as a space, into a buffer reused for each one,
+ * so a query can be read into a reused DTO, or passed to a method reader as one event per parameter, without
+ * allocating per request.
+ * <pre>
+ * wire.query(request.query());
+ * wire.readQuery(params);
+ * </pre>
  */
 @SuppressWarnings("rawtypes")
 public class QueryWire extends TextWire {
     final QueryValueOut valueOut = new QueryValueOut();
     final ValueIn valueIn = new QueryValueIn();
+    // the decoded text of the last field name or value read
+    private final Bytes<?> decoded = Bytes.allocateElasticOnHeap(64);
 
     public QueryWire(@NotNull Bytes bytes) {
         super(bytes);
+        // a query is a single document
+        useTextDocuments();
+    }
+
+    /**
+     * Replace the contents with a query to read. A leading <code>?</code> and any <code>#</code> fragment are dropped.
+     */
+    @NotNull
+    public QueryWire query(@NotNull CharSequence query) {
+        clear();
+        bytes.appendUtf8(query);
+        trimQuery();
+        return this;
+    }
+
+    /**
+     * Replace the contents with a query to read. A leading <code>?</code> and any <code>#</code> fragment are dropped.
+     */
+    @NotNull
+    public QueryWire query(@NotNull BytesStore query) {
+        clear();
+        bytes.write(query);
+        trimQuery();
+        return this;
+    }
+
+    private void trimQuery() {
+        if (bytes.peekUnsignedByte() == '?')
+            bytes.readSkip(1);
+        for (long i = bytes.readPosition(); i < bytes.readLimit(); i++) {
+            if (bytes.readUnsignedByte(i) == '#') {
+                bytes.readLimit(i);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Read every parameter of the query into the DTO. Fields which are not in the query are reset to their defaults,
+     * so the same DTO can be reused for each query.
+     *
+     * @return using
+     */
+    @NotNull
+    public <T> T readQuery(@NotNull T using) {
+        Wires.readMarshallable(using, this, true);
+        return using;
+    }
+
+    /**
+     * Read and decode up to <code>&amp;</code>, or <code>=</code> as well for a field name, leaving the stop character
+     * to be read.
+     *
+     * @return the decoded bytes, valid until the next field name or value is read
+     */
+    @NotNull
+    Bytes<?> decode(boolean fieldName) {
+        decoded.clear();
+        long pos = bytes.readPosition();
+        long limit = bytes.readLimit();
+        for (; pos < limit; pos++) {
+            int ch = bytes.readUnsignedByte(pos);
+            if (ch == '&' || (ch == '=' && fieldName))
+                break;
+            if (ch == '+') {
+                ch = ' ';
+            } else if (ch == '%' && pos + 2 < limit) {
+                int high = Character.digit(bytes.readUnsignedByte(pos + 1), 16);
+                int low = Character.digit(bytes.readUnsignedByte(pos + 2), 16);
+                // an invalid escape is left as it is
+                if (high >= 0 && low >= 0) {
+                    ch = (high << 4) | low;
+                    pos += 2;
+                }
+            }
+            decoded.writeUnsignedByte(ch);
+        }
+        bytes.readPosition(pos);
+        return decoded;
+    }
+
+    static void appendUtf8(@NotNull Bytes<?> decoded, @NotNull StringBuilder sb) {
+        sb.setLength(0);
+        long start = decoded.readPosition();
+        long end = decoded.readLimit();
+        for (long i = start; i < end; i++) {
+            int ch = decoded.readUnsignedByte(i);
+            if (ch >= 0x80) {
+                sb.setLength(0);
+                decoded.parseUtf8(sb, (int) (end - start));
+                return;
+            }
+            sb.append((char) ch);
+        }
     }
 
     @NotNull
@@ -64,9 +167,9 @@ public class QueryWire extends TextWire {
     @NotNull
     protected StringBuilder readField(@NotNull StringBuilder sb) {
         consumePadding();
-        bytes.parseUtf8(sb, QueryStopCharTesters.QUERY_FIELD_NAME);
-        if (rewindAndRead() == '&')
-            bytes.readSkip(-1);
+        appendUtf8(decode(true), sb);
+        if (peekCode() == '=')
+            bytes.readSkip(1);
         return sb;
     }
 
@@ -116,10 +219,6 @@ public class QueryWire extends TextWire {
         return this;
     }
 
-    int rewindAndRead() {
-        return bytes.readUnsignedByte(bytes.readPosition() - 1);
-    }
-
     @NotNull
     @Override
     public LongValue newLongReference() {
@@ -138,21 +237,6 @@ public class QueryWire extends TextWire {
         throw new UnsupportedOperationException();
     }
 
-    enum QueryStopCharTesters implements StopCharTester {
-        QUERY_FIELD_NAME {
-            @Override
-            public boolean isStopChar(int ch) throws IllegalStateException {
-                return ch == '&' || ch == '=' || ch < 0;
-            }
-        },
-        QUERY_VALUE {
-            @Override
-            public boolean isStopChar(int ch) throws IllegalStateException {
-                return ch == '&' || ch < 0;
-            }
-        }
-    }
-
     class QueryValueOut extends TextValueOut {
         @NotNull
         String sep = "";
@@ -394,7 +478,8 @@ public class QueryWire extends TextWire {
         @Override
         public StringBuilder textTo(@NotNull StringBuilder a) {
             consumePadding();
-            bytes.parseUtf8(a, QueryStopCharTesters.QUERY_VALUE);
+            appendUtf8(decode(false), a);
+            skipAmpersand();
             return a;
         }
 
@@ -402,10 +487,17 @@ public class QueryWire extends TextWire {
         @Override
         public Bytes textTo(@NotNull Bytes a) {
             consumePadding();
-            bytes.parseUtf8(a, QueryStopCharTesters.QUERY_VALUE);
+            a.clear();
+            a.write(decode(false));
+            skipAmpersand();
             return a;
         }
 
+        private void skipAmpersand() {
+            if (peekCode() == '&')
+                bytes.readSkip(1);
+        }
+
         @Override
         @NotNull
         public <T> WireIn typeLiteralAsText(T t, @NotNull BiConsumer<T, CharSequence> classNameConsumer) {
@@ -0,0 +1,312 @@
+/*
+ * Copyright 2016-2020 Chronicle Software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.io.IORuntimeException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the elements of a sequence one at a time, rather than all at once as {@code ValueIn.sequence} does.
+ * <pre>
+ * SequenceCursor cursor = SequenceCursor.of(wire);
+ * while (cursor.hasNext())
+ *     process(cursor.next(row));
+ * </pre>
+ * Nothing is kept of the elements already read, so with a TextWire, JSONWire or YamlWire over {@code MappedBytes}
+ * a sequence of any size can be read with the memory of one element. Elements can be skipped with {@link #skip()}
+ * which for TextWire and JSONWire only matches brackets and quotes rather than parsing the element.
+ */
+public abstract class SequenceCursor {
+    private long index;
+    private boolean ready;
+    private boolean ended;
+
+    /**
+     * Start reading a sequence at the current position, either at the top level or after {@code read(field)}
+     *
+     * @param wire to read, a TextWire, JSONWire or YamlWire
+     * @return a cursor positioned before the first element
+     * @throws IORuntimeException if the next value is not a sequence
+     */
+    @NotNull
+    public static SequenceCursor of(@NotNull WireIn wire) {
+        if (wire instanceof TextWire)
+            return new TextSequenceCursor((TextWire) wire);
+        if (wire instanceof YamlWire)
+            return new YamlSequenceCursor((YamlWire) wire);
+        throw new UnsupportedOperationException("Cannot stream a sequence from " + wire.getClass().getSimpleName());
+    }
+
+    /**
+     * @return true if there is another element, false once the end of the sequence has been read
+     */
+    public boolean hasNext() {
+        if (ready)
+            return true;
+        if (ended)
+            return false;
+        if (nextElement())
+            return ready = true;
+        ended = true;
+        return false;
+    }
+
+    /**
+     * @return the ValueIn to read the next element from
+     */
+    @NotNull
+    public ValueIn next() {
+        checkNext();
+        return valueIn();
+    }
+
+    /**
+     * Read the next element, reusing {@code using} if possible
+     *
+     * @param using to read into, reset first if it is Marshallable
+     * @return using, or a new object if it couldn't be reused
+     */
+    @Nullable
+    public <T> T next(@NotNull T using) {
+        checkNext();
+        return valueIn().object(using, using.getClass());
+    }
+
+    /**
+     * Read the next element as a new object of this type
+     */
+    @Nullable
+    public <T> T next(@NotNull Class<T> type) {
+        checkNext();
+        return valueIn().object(type);
+    }
+
+    /**
+     * Move past the next element without reading it.
+     */
+    public void skip() {
+        checkNext();
+        skipElement();
+    }
+
+    /**
+     * @return the number of elements read or skipped so far
+     */
+    public long index() {
+        return index;
+    }
+
+    private void checkNext() {
+        if (!hasNext())
+            throw new NoSuchElementException("End of sequence after " + index + " elements");
+        ready = false;
+        index++;
+    }
+
+    /**
+     * Move to the next element, or past the end of the sequence
+     *
+     * @return true if there is an element
+     */
+    abstract boolean nextElement();
+
+    abstract ValueIn valueIn();
+
+    abstract void skipElement();
+
+    static final class TextSequenceCursor extends SequenceCursor {
+        private final TextWire wire;
+        private final Bytes<?> bytes;
+        private final boolean comments;
+
+        TextSequenceCursor(@NotNull TextWire wire) {
+            this.wire = wire;
+            this.bytes = wire.bytes();
+            this.comments = !(wire instanceof JSONWire);
+            wire.consumePadding();
+            if (wire.peekCode() == '!') {
+                // a type for the sequence as a whole e.g. !!seq
+                while (bytes.readRemaining() > 0 && wire.peekCode() > ' ' && wire.peekCode() != '[')
+                    bytes.readSkip(1);
+                wire.consumePadding();
+            }
+            int code = wire.peekCode();
+            if (code != '[')
+                throw new IORuntimeException("Expected a [ but got " + (code < 0 ? "the end" : "'" + (char) code + "'"));
+            bytes.readSkip(1);
+        }
+
+        @Override
+        boolean nextElement() {
+            // the element may or may not have read the comma after it
+            wire.consumePadding(1);
+            int code = wire.peekCode();
+            if (code == ']') {
+                bytes.readSkip(1);
+                wire.consumePadding(1);
+                return false;
+            }
+            if (code < 0)
+                throw new IORuntimeException("Expected a ] at the end of the sequence");
+            return true;
+        }
+
+        @Override
+        ValueIn valueIn() {
+            return wire.getValueIn();
+        }
+
+        /**
+         * Find the end of the element by matching brackets and skipping quoted text.
+         */
+        @Override
+        void skipElement() {
+            long pos = bytes.readPosition();
+            long limit = bytes.readLimit();
+            int depth = 0;
+            int last = ' ';
+            for (; pos < limit; pos++) {
+                int ch = bytes.readUnsignedByte(pos);
+                switch (ch) {
+                    case '"':
+                    case '\'':
+                        // only a quote at the start of a value, not an apostrophe in plain text
+                        if (isValueStart(last)) {
+                            pos = skipQuoted(pos + 1, limit, ch);
+                            ch = 'x';
+                        }
+                        break;
+                    case '#':
+                        if (comments && isValueStart(last)) {
+                            while (pos + 1 < limit && bytes.readUnsignedByte(pos + 1) != '\n')
+                                pos++;
+                        }
+                        break;
+                    case '{':
+                    case '[':
+                        depth++;
+                        break;
+                    case '}':
+                    case ']':
+                        if (depth == 0) {
+                            bytes.readPosition(pos);
+                            return;
+                        }
+                        if (--depth == 0) {
+                            bytes.readPosition(pos + 1);
+                            return;
+                        }
+                        break;
+                    case ',':
+                        if (depth == 0) {
+                            bytes.readPosition(pos);
+                            return;
+                        }
+                        break;
+                }
+                last = ch;
+            }
+            bytes.readPosition(pos);
+        }
+
+        private static boolean isValueStart(int last) {
+            switch (last) {
+                case ' ':
+                case '\t':
+                case '\r':
+                case '\n':
+                case '[':
+                case '{':
+                case ',':
+                case ':':
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        private long skipQuoted(long pos, long limit, int quote) {
+            for (; pos < limit; pos++) {
+                int ch = bytes.readUnsignedByte(pos);
+                if (ch == '\\')
+                    pos++;
+                else if (ch == quote)
+                    return pos;
+            }
+            throw new IORuntimeException("Unterminated quotes");
+        }
+    }
+
+    static final class YamlSequenceCursor extends SequenceCursor {
+        private final YamlWire wire;
+        private final YamlTokeniser yt;
+        private final int minIndent;
+
+        YamlSequenceCursor(@NotNull YamlWire wire) {
+            this.wire = wire;
+            this.yt = wire.tokeniser();
+            wire.consumePadding();
+            if (yt.current() == YamlToken.TAG)
+                yt.next();
+            if (yt.current() != YamlToken.SEQUENCE_START)
+                throw new IORuntimeException("Expected a sequence but got " + yt);
+            minIndent = yt.secondTopContext().indent;
+            yt.next(Integer.MAX_VALUE);
+        }
+
+        @Override
+        boolean nextElement() {
+            wire.consumePadding();
+            switch (yt.current()) {
+                case SEQUENCE_ENTRY:
+                    // as ValueIn.marshallable() does, so scalars can be read too
+                    yt.next();
+                    return true;
+                case NONE:
+                    yt.next(minIndent);
+                    if (yt.current() == YamlToken.SEQUENCE_END)
+                        yt.next(minIndent);
+                    return false;
+                case SEQUENCE_END:
+                    yt.next(minIndent);
+                    return false;
+                case STREAM_END:
+                case DOCUMENT_END:
+                case MAPPING_END:
+                    return false;
+                default:
+                    return true;
+            }
+        }
+
+        @Override
+        ValueIn valueIn() {
+            return wire.getValueIn();
+        }
+
+        @Override
+        void skipElement() {
+            // the extent of a block element depends on indentation so the tokens are needed
+            wire.getValueIn().skipValue();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2016-2020 Chronicle Software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.AppendableUtil;
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.StopCharsTester;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Finds the end of a run of plain ASCII text eight bytes at a time, rather than calling a StopCharTester per character.
+ * <p>
+ * Each scanner is an equivalent of an escaping StopCharTester or StopCharsTester for text without escapes or non ASCII
+ * characters. When a backslash, a byte above 127 or the end of the input is found before the stop character,
+ * nothing is read and the caller falls back to the tester.
+ */
+final class StopCharScanner {
+    private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+    private static final long LOW_BITS = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long SPACES = 0x2020202020202020L;
+
+    private static final byte PLAIN = 0;
+    private static final byte STOP = 1;
+    private static final byte CONDITIONAL = 2;
+    private static final byte FALLBACK = 3;
+
+    static final StopCharScanner QUOTES = new StopCharScanner("\"", "", "", false, null);
+    static final StopCharScanner SINGLE_QUOTES = new StopCharScanner("'", "", "", false, null);
+    // TextStopCharTesters.END_OF_TEXT
+    static final StopCharScanner END_OF_TEXT = new StopCharScanner("\"#\0\r\n}]:,", "", "", true, null);
+    // TextStopCharsTesters.STRICT_END_OF_TEXT, parseUtf8 reads [] without testing it so [ is left to the tester
+    static final StopCharScanner STRICT_END_OF_TEXT = new StopCharScanner("\"#\0\r\n}]", ":,", "[", true, TextStopCharsTesters.STRICT_END_OF_TEXT);
+    // TextStopCharsTesters.JSON_END_OF_TEXT
+    static final StopCharScanner JSON_END_OF_TEXT = new StopCharScanner("\"#\0\r\n}],", ":", "[", true, TextStopCharsTesters.STRICT_END_OF_TEXT);
+    // StopCharTesters.COMMA_STOP
+    static final StopCharScanner CSV_END_OF_TEXT = new StopCharScanner("," + controlChars(), "", "", true, null);
+    // the quotes and newlines which decide where a CSV row ends
+    static final StopCharScanner CSV_ROW = new StopCharScanner("\"\n", "", "", false, null);
+    // the newline which ends an NDJSON record
+    static final StopCharScanner NEWLINE = new StopCharScanner("\n", "", "", false, null);
+
+    private final byte[] kinds = new byte[256];
+    private final long[] patterns;
+    private final boolean controls;
+    @Nullable
+    private final StopCharsTester conditionalTester;
+
+    /**
+     * @param stops             characters which always end the text
+     * @param conditional       characters which end the text depending on the next character
+     * @param fallback          characters which need the tester, as well as backslash and non ASCII
+     * @param controls          whether any characters below space are stops, these must be listed in stops
+     * @param conditionalTester decides whether a conditional character is a stop
+     */
+    private StopCharScanner(String stops, String conditional, String fallback, boolean controls, @Nullable StopCharsTester conditionalTester) {
+        this.controls = controls;
+        this.conditionalTester = conditionalTester;
+        for (int i = 128; i < 256; i++)
+            kinds[i] = FALLBACK;
+        kinds['\\'] = FALLBACK;
+        for (int i = 0; i < fallback.length(); i++)
+            kinds[fallback.charAt(i)] = FALLBACK;
+        for (int i = 0; i < stops.length(); i++)
+            kinds[stops.charAt(i)] = STOP;
+        for (int i = 0; i < conditional.length(); i++)
+            kinds[conditional.charAt(i)] = CONDITIONAL;
+
+        // a pattern per special character not found by the high bit or control character tests
+        int count = 0;
+        long[] patterns = new long[128];
+        for (int i = 0; i < 128; i++)
+            if (kinds[i] != PLAIN && (i >= ' ' || !controls))
+                patterns[count++] = LOW_BITS * i;
+        this.patterns = Arrays.copyOf(patterns, count);
+    }
+
+    private static String controlChars() {
+        StringBuilder sb = new StringBuilder();
+        for (char ch = 0; ch < ' '; ch++)
+            sb.append(ch);
+        return sb.toString();
+    }
+
+    /**
+     * @return the offset of the first byte from {@code from} which isn't plain text, or {@code to} if there isn't one.
+     */
+    long indexOfSpecial(@NotNull Bytes<?> bytes, long from, long to) {
+        long i = from;
+        if (LITTLE_ENDIAN) {
+            for (; i + 8 <= to; i += 8) {
+                long word = bytes.readLong(i);
+                long found = word & HIGH_BITS;
+                if (controls)
+                    found |= (word - SPACES) & ~word & HIGH_BITS;
+                for (long pattern : patterns) {
+                    long x = word ^ pattern;
+                    found |= (x - LOW_BITS) & ~x & HIGH_BITS;
+                }
+                if (found == 0)
+                    continue;
+                // the lowest byte flagged is a match, control characters which are not stops are skipped here
+                for (long j = i + (Long.numberOfTrailingZeros(found) >>> 3); j < i + 8; j++)
+                    if (kinds[bytes.readUnsignedByte(j)] != PLAIN)
+                        return j;
+            }
+        }
+        for (; i < to; i++)
+            if (kinds[bytes.readUnsignedByte(i)] != PLAIN)
+                return i;
+        return to;
+    }
+
+    /**
+     * Read plain text up to the stop character, which is consumed, replacing the contents of {@code a}.
+     *
+     * @return true if read, or false if the tester is needed, in which case nothing has been read.
+     */
+    <ACS extends Appendable & CharSequence> boolean parse(@NotNull Bytes<?> bytes, @NotNull ACS a) {
+        long start = bytes.readPosition();
+        long limit = bytes.readLimit();
+        long i = start;
+        while (true) {
+            i = indexOfSpecial(bytes, i, limit);
+            if (i >= limit)
+                return false;
+            int ch = bytes.readUnsignedByte(i);
+            byte kind = kinds[ch];
+            if (kind == STOP)
+                break;
+            if (kind == FALLBACK)
+                return false;
+            int ch2 = i + 1 < limit ? bytes.readUnsignedByte(i + 1) : -1;
+            if (conditionalTester.isStopChar(ch, ch2))
+                break;
+            i++;
+        }
+        AppendableUtil.setLength(a, 0);
+        if (a instanceof Bytes) {
+            ((Bytes) a).write(bytes, start, i - start);
+        } else if (a instanceof StringBuilder) {
+            StringBuilder sb = (StringBuilder) a;
+            sb.ensureCapacity((int) (i - start));
+            for (long j = start; j < i; j++)
+                sb.append((char) bytes.readUnsignedByte(j));
+        } else {
+            try {
+                for (long j = start; j < i; j++)
+                    a.append((char) bytes.readUnsignedByte(j));
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+        }
+        bytes.readPosition(i + 1);
+        return true;
+    }
+}
@@ -21,6 +21,7 @@ import net.openhft.chronicle.bytes.*;
 import net.openhft.chronicle.core.Jvm;
 import net.openhft.chronicle.core.OS;
 import net.openhft.chronicle.core.io.Closeable;
+import net.openhft.chronicle.core.util.ThrowingFunction;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -56,6 +57,8 @@ public class TextMethodTester<T> {
     private MethodReaderInterceptorReturns methodReaderInterceptorReturns;
     private long timeoutMS = 25;
     private UpdateInterceptor updateInterceptor;
+    private ThrowingFunction<String, Bytes, IOException> fileReader = BytesUtil::readFile;
+    private ThrowingFunction<String, Wire, IOException> wireReader;
 
     public TextMethodTester(String input, Function<T, Object> componentFunction, Class<T> outputClass, String output) {
         this.input = input;
@@ -64,6 +67,18 @@ public class TextMethodTester<T> {
         this.componentFunction = componentFunction;
     }
 
+    public String input() {
+        return input;
+    }
+
+    public String output() {
+        return output;
+    }
+
+    public Class<T> outputClass() {
+        return outputClass;
+    }
+
     public String[] retainLast() {
         return retainLast;
     }
@@ -103,6 +118,33 @@ public class TextMethodTester<T> {
         return this;
     }
 
+    public ThrowingFunction<String, Bytes, IOException> fileReader() {
+        return fileReader;
+    }
+
+    /**
+     * Set how the setup, input and output files are loaded, e.g. from a cache shared between tests.
+     * The Bytes returned are read by this tester only and must not be shared.
+     */
+    public TextMethodTester fileReader(ThrowingFunction<String, Bytes, IOException> fileReader) {
+        this.fileReader = fileReader;
+        return this;
+    }
+
+    public ThrowingFunction<String, Wire, IOException> wireReader() {
+        return wireReader;
+    }
+
+    /**
+     * Set how the setup and input files are loaded into the Wire the components read, e.g. from a parsed form
+     * shared between tests. By default they are read with the {@link #fileReader()} into a Wire of this tester's type.
+     * The Wire returned is read by this tester only and must not be shared.
+     */
+    public TextMethodTester wireReader(ThrowingFunction<String, Wire, IOException> wireReader) {
+        this.wireReader = wireReader;
+        return this;
+    }
+
     public String genericEvent() {
         return genericEvent;
     }
@@ -140,7 +182,7 @@ public class TextMethodTester<T> {
                 : new Object[]{component};
 
         if (setup != null) {
-            Wire wire0 = createWire(BytesUtil.readFile(setup));
+            Wire wire0 = readWire(setup);
 
             MethodReader reader0 = wire0.methodReaderBuilder()
                     .methodReaderInterceptorReturns(methodReaderInterceptorReturns)
@@ -152,11 +194,11 @@ public class TextMethodTester<T> {
             wireOut.bytes().clear();
         }
 
-        Wire wire = createWire(BytesUtil.readFile(input));
+        Wire wire = readWire(input);
 
         // expected
         if (retainLast == null) {
-            expected = BytesUtil.readFile(output).toString().trim().replace("\r", "");
+            expected = fileReader.apply(output).toString().trim().replace("\r", "");
         } else {
             expected = loadLastValues().toString().trim();
         }
@@ -264,13 +306,19 @@ public class TextMethodTester<T> {
                 .replace("/target/test-classes/", "/src/test/resources/");
     }
 
+    private Wire readWire(String name) throws IOException {
+        return wireReader == null
+                ? createWire(fileReader.apply(name))
+                : wireReader.apply(name);
+    }
+
     protected Wire createWire(Bytes bytes) {
         return new TextWire(bytes).useTextDocuments().addTimeStamps(true);
     }
 
     @NotNull
     protected StringBuilder loadLastValues() throws IOException {
-        Wire wireOut = createWire(BytesUtil.readFile(output));
+        Wire wireOut = createWire(fileReader.apply(output));
         Map<String, String> events = new TreeMap<>();
         consumeDocumentSeparator(wireOut);
         while (wireOut.hasMore()) {
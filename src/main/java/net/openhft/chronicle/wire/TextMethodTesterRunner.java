@@ -0,0 +1,353 @@
+/*
+ * Copyright 2016-2020 Chronicle Software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.BytesUtil;
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.core.Maths;
+import net.openhft.chronicle.core.io.IOTools;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
+
+/**
+ * Runs many {@link TextMethodTester} cases together.
+ * <ul>
+ *     <li>setup, input and output files are read once and shared between cases until they change on disk</li>
+ *     <li>setup and input files are parsed once per tester type, i.e. text or yaml, into binary documents which each
+ *     case reads, rather than parsing the text again. See {@link #parseOnce(boolean)}</li>
+ *     <li>cases are run in parallel on a {@link ForkJoinPool}, so the components they test must not share mutable state</li>
+ *     <li>with a {@link #stateFile(String)}, cases which passed before and whose files are unchanged are skipped</li>
+ * </ul>
+ * Generated method writer classes are cached per interface by the {@link VanillaMethodWriterBuilder}, so only the
+ * first case to use an interface pays the compilation cost. Method readers are not generated classes.
+ */
+@SuppressWarnings("rawtypes")
+public class TextMethodTesterRunner {
+    private final Map<String, Supplier<? extends TextMethodTester>> cases = new LinkedHashMap<>();
+    private final Map<String, CachedFile> fileCache = new ConcurrentHashMap<>();
+    private final Map<String, ParsedFile> parsedCache = new ConcurrentHashMap<>();
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private boolean parseOnce = true;
+    @Nullable
+    private String stateFile;
+
+    /**
+     * Add a case to run. The tester is created when the case runs, and only if it needs to be run.
+     *
+     * @param name   unique name of the case, used to report results and to record it in the state file
+     * @param tester creates the tester, which is not run yet
+     */
+    @NotNull
+    public TextMethodTesterRunner add(@NotNull String name, @NotNull Supplier<? extends TextMethodTester> tester) {
+        if (cases.put(name, tester) != null)
+            throw new IllegalArgumentException("Duplicate case " + name);
+        return this;
+    }
+
+    public int parallelism() {
+        return parallelism;
+    }
+
+    /**
+     * @param parallelism the number of cases to run at once, 1 runs them in order on the calling thread.
+     */
+    @NotNull
+    public TextMethodTesterRunner parallelism(int parallelism) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    public boolean parseOnce() {
+        return parseOnce;
+    }
+
+    /**
+     * @param parseOnce true to share the parsed setup and input files between cases, false for each case to parse the
+     *                  text itself, e.g. if its components depend on how values are written in the text.
+     */
+    @NotNull
+    public TextMethodTesterRunner parseOnce(boolean parseOnce) {
+        this.parseOnce = parseOnce;
+        return this;
+    }
+
+    @Nullable
+    public String stateFile() {
+        return stateFile;
+    }
+
+    /**
+     * @param stateFile where the fingerprints of passing cases are kept between runs, or null to run every case.
+     */
+    @NotNull
+    public TextMethodTesterRunner stateFile(@Nullable String stateFile) {
+        this.stateFile = stateFile;
+        return this;
+    }
+
+    /**
+     * Run all the cases which have changed, or failed, since the last run.
+     *
+     * @return the result of every case added, in the order they were added.
+     */
+    @NotNull
+    public List<Result> run() throws IOException {
+        Properties passed = loadState();
+        List<Result> results = new ArrayList<>(cases.size());
+        for (Map.Entry<String, Supplier<? extends TextMethodTester>> entry : cases.entrySet())
+            results.add(new Result(entry.getKey()));
+
+        if (parallelism == 1) {
+            for (Result result : results)
+                runCase(result, passed);
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                List<ForkJoinTask<?>> tasks = new ArrayList<>(results.size());
+                for (Result result : results)
+                    tasks.add(pool.submit(() -> runCase(result, passed)));
+                for (ForkJoinTask<?> task : tasks)
+                    task.join();
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        saveState(results);
+        return results;
+    }
+
+    private void runCase(Result result, Properties passed) {
+        try {
+            TextMethodTester<?> tester = cases.get(result.name).get();
+            tester.fileReader(this::readFile);
+            if (parseOnce)
+                tester.wireReader(file -> readWire(tester, file));
+            result.fingerprint = fingerprint(result.name, tester);
+            String hex = Long.toHexString(result.fingerprint);
+            if (hex.equals(passed.getProperty(result.name))) {
+                result.status = Status.SKIPPED;
+                return;
+            }
+            tester.run();
+            result.expected = tester.expected();
+            result.actual = tester.actual();
+            result.status = result.expected.equals(result.actual) ? Status.PASSED : Status.FAILED;
+        } catch (Throwable t) {
+            result.error = t;
+            result.status = Status.ERROR;
+        }
+    }
+
+    /**
+     * @return a hash of the case name, and the name and content hash of its setup, input and output in that order
+     */
+    private long fingerprint(String name, TextMethodTester<?> tester) throws IOException {
+        StringBuilder sb = new StringBuilder(name);
+        for (String file : new String[]{tester.setup(), tester.input(), tester.output()}) {
+            sb.append('\0');
+            if (file != null)
+                sb.append(file).append('\0').append(Long.toHexString(cachedFile(file).hash));
+        }
+        return Maths.hash64(sb);
+    }
+
+    /**
+     * Read a file once and share its content until it is modified.
+     *
+     * @return a new Bytes to read the content of the file.
+     */
+    @NotNull
+    public Bytes readFile(@NotNull String name) throws IOException {
+        if (name.startsWith("="))
+            return BytesUtil.readFile(name);
+        return Bytes.wrapForRead(cachedFile(name).content);
+    }
+
+    /**
+     * Parse a file once per tester type and share the binary documents parsed until the file is modified.
+     *
+     * @return a new Wire to read the parsed file, or the text if it couldn't be parsed.
+     */
+    @NotNull
+    public Wire readWire(@NotNull TextMethodTester<?> tester, @NotNull String name) throws IOException {
+        CachedFile file = cachedFile(name);
+        String key = tester.getClass().getName() + '\0' + name;
+        ParsedFile parsed = parsedCache.get(key);
+        if (parsed == null || parsed.file != file) {
+            parsed = new ParsedFile(file, parse(tester, file));
+            parsedCache.put(key, parsed);
+        }
+        return parsed.content == null
+                ? tester.createWire(Bytes.wrapForRead(file.content))
+                : WireType.BINARY.apply(Bytes.wrapForRead(parsed.content));
+    }
+
+    @Nullable
+    private static byte[] parse(@NotNull TextMethodTester<?> tester, @NotNull CachedFile file) {
+        Wire text = tester.createWire(Bytes.wrapForRead(file.content));
+        Wire binary = WireType.BINARY.apply(Bytes.allocateElasticOnHeap());
+        try {
+            while (true) {
+                try (DocumentContext dc = text.readingDocument()) {
+                    if (!dc.isPresent())
+                        break;
+                    try (DocumentContext dc2 = binary.writingDocument(dc.isMetaData())) {
+                        dc.wire().copyTo(dc2.wire());
+                    }
+                }
+            }
+            return binary.bytes().toByteArray();
+        } catch (Exception e) {
+            Jvm.debug().on(TextMethodTesterRunner.class, "Unable to parse, each case will read the text", e);
+            return null;
+        } finally {
+            binary.bytes().releaseLast();
+        }
+    }
+
+    @NotNull
+    private CachedFile cachedFile(@NotNull String name) throws IOException {
+        if (name.startsWith("="))
+            return new CachedFile(-1, -1, name.substring(1).getBytes(StandardCharsets.ISO_8859_1));
+
+        File file = new File(name);
+        if (!file.exists())
+            file = new File(IOTools.urlFor(name).getFile());
+        long lastModified = file.lastModified();
+        long length = file.length();
+        CachedFile cached = fileCache.get(name);
+        if (cached == null || cached.lastModified != lastModified || cached.length != length) {
+            byte[] content = file.exists()
+                    ? Files.readAllBytes(file.toPath())
+                    : BytesUtil.readFile(name).toByteArray();
+            cached = new CachedFile(lastModified, length, content);
+            fileCache.put(name, cached);
+        }
+        return cached;
+    }
+
+    private Properties loadState() throws IOException {
+        Properties properties = new Properties();
+        if (stateFile != null && new File(stateFile).exists()) {
+            try (Reader reader = new FileReader(stateFile)) {
+                properties.load(reader);
+            }
+        }
+        return properties;
+    }
+
+    private void saveState(List<Result> results) throws IOException {
+        if (stateFile == null)
+            return;
+        Properties properties = new Properties();
+        for (Result result : results) {
+            if (result.status == Status.PASSED || result.status == Status.SKIPPED)
+                properties.setProperty(result.name, Long.toHexString(result.fingerprint));
+        }
+        File file = new File(stateFile);
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs())
+            Jvm.warn().on(getClass(), "Unable to create " + parent);
+        try (Writer writer = new FileWriter(file)) {
+            properties.store(writer, "fingerprints of passing " + TextMethodTester.class.getSimpleName() + " cases");
+        }
+    }
+
+    public enum Status {
+        PASSED, FAILED, ERROR, SKIPPED
+    }
+
+    public static class Result {
+        private final String name;
+        private volatile Status status;
+        private volatile long fingerprint;
+        private volatile String expected;
+        private volatile String actual;
+        private volatile Throwable error;
+
+        Result(String name) {
+            this.name = name;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public Status status() {
+            return status;
+        }
+
+        public String expected() {
+            return expected;
+        }
+
+        public String actual() {
+            return actual;
+        }
+
+        public Throwable error() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return name + ": " + status + (error == null ? "" : " " + error);
+        }
+    }
+
+    static final class ParsedFile {
+        final CachedFile file;
+        @Nullable
+        final byte[] content;
+
+        ParsedFile(CachedFile file, @Nullable byte[] content) {
+            this.file = file;
+            this.content = content;
+        }
+    }
+
+    static final class CachedFile {
+        final long lastModified;
+        final long length;
+        final byte[] content;
+        final long hash;
+
+        CachedFile(long lastModified, long length, byte[] content) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.content = content;
+            long h = content.length;
+            for (byte b : content)
+                h = h * 0x100000001B3L + b;
+            this.hash = h;
+        }
+    }
+}
@@ -29,8 +29,6 @@ import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 public class TextMethodWriterInvocationHandler extends AbstractMethodWriterInvocationHandler {
-    @NotNull
-    private final Supplier<MarshallableOut> marshallableOutSupplier;
     private final CountingDocumentContext context = new CountingDocumentContext();
     private final Map<Method, Consumer<Object[]>> visitorConverter = new LinkedHashMap<>();
     private boolean metaData;
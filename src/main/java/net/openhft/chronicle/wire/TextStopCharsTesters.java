@@ -43,6 +43,13 @@ enum TextStopCharsTesters implements StopCharsTester {
             }
         }
     },
+    // JSON has no plain text containing a comma, only numbers, true, false and null
+    JSON_END_OF_TEXT {
+        @Override
+        public boolean isStopChar(int ch, int ch2) throws IllegalStateException {
+            return ch == ',' || STRICT_END_OF_TEXT.isStopChar(ch, ch2);
+        }
+    },
     END_EVENT_NAME {
         @Override
         public boolean isStopChar(int ch, int ch2) throws IllegalStateException {
@@ -0,0 +1,296 @@
+/*
+ * Copyright 2016-2020 Chronicle Software
+ *
+ * https://chronicle.software
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.util.StringUtils;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Copies YAML, JSON or TextWire content into a BinaryWire one token at a time.
+ * <p>
+ * Nothing is deserialized on the way, the only state is a fixed size stack of the positions of the open mappings and
+ * sequences so their lengths can be written when they are closed. As this state is kept between calls, the text can
+ * be copied as it arrives, see {@link #copyTo(BinaryWire, boolean)}, and the text already copied is dropped from the
+ * input so it doesn't grow with the size of the document.
+ */
+final class TextToBinaryTranscoder {
+    static final int MAX_DEPTH = 128;
+
+    private final Bytes<?> in;
+    private final YamlTokeniser yt;
+    private final StringBuilder sb = new StringBuilder();
+    private long longValue;
+    private final long[] lengthPositions = new long[MAX_DEPTH];
+    private int depth;
+    private boolean key, nullTag, started;
+
+    TextToBinaryTranscoder(@NotNull Bytes<?> in) {
+        this.in = in;
+        this.yt = new YamlTokeniser(in);
+    }
+
+    /**
+     * Copy the remaining text into the BinaryWire, mappings and sequences are written with their lengths as
+     * {@code ValueOut.marshallable} and {@code ValueOut.sequence} would.
+     */
+    void copyTo(@NotNull BinaryWire out) {
+        copyTo(out, false);
+    }
+
+    /**
+     * Copy as much of the text as has been received into the BinaryWire.
+     *
+     * @param moreInput whether more text may be appended to the input, in which case copying stops before a token
+     *                  the input ends part way through, and carries on from there when this is next called. The
+     *                  text copied so far is then compacted out of the input.
+     * @return true if the copy is complete, false if it is waiting for more input.
+     */
+    boolean copyTo(@NotNull BinaryWire out, boolean moreInput) {
+        if (!started) {
+            yt.reset();
+            depth = 0;
+            key = false;
+            nullTag = false;
+            started = true;
+        }
+        yt.moreInput(moreInput);
+        ValueOut valueOut = out.getValueOut();
+        boolean complete = false;
+        try {
+            while (true) {
+                YamlToken token = yt.next(YamlTokeniser.NO_INDENT);
+                if (nullTag && token != YamlToken.INCOMPLETE) {
+                    // !!null "" written by TextWire
+                    nullTag = false;
+                    valueOut.nu11();
+                    continue;
+                }
+                switch (token) {
+                    case INCOMPLETE:
+                        compact();
+                        return false;
+
+                    case NONE:
+                    case STREAM_END:
+                        while (depth > 0)
+                            close(out, --depth);
+                        complete = true;
+                        return true;
+
+                    case MAPPING_START:
+                    case SEQUENCE_START:
+                        checkDepth(depth);
+                        lengthPositions[depth++] = out.startLength();
+                        break;
+
+                    case MAPPING_END:
+                    case SEQUENCE_END:
+                        if (depth > 0)
+                            close(out, --depth);
+                        break;
+
+                    case MAPPING_KEY:
+                        key = true;
+                        break;
+
+                    case TAG:
+                        text();
+                        if (StringUtils.isEqual(sb, "!null"))
+                            nullTag = true;
+                        else
+                            valueOut.typePrefix(sb);
+                        break;
+
+                    case TEXT:
+                        text();
+                        if (key) {
+                            out.write(sb);
+                            key = false;
+                        } else {
+                            scalar(valueOut);
+                        }
+                        break;
+
+                    case ANCHOR:
+                    case ALIAS:
+                        throw new UnsupportedOperationException("Anchors and aliases are not supported " + yt);
+
+                    default:
+                        // comments, directives, document markers and sequence entries have no binary form
+                        break;
+                }
+            }
+        } catch (RuntimeException e) {
+            complete = true;
+            throw e;
+        } finally {
+            if (complete) {
+                started = false;
+                in.readPosition(in.readLimit());
+            }
+        }
+    }
+
+    /**
+     * Discard the state of a copy which is waiting for more input.
+     */
+    void reset() {
+        started = false;
+    }
+
+    /**
+     * Drop the text before the current line, which has been copied, so the input only holds what is still to be read.
+     */
+    private void compact() {
+        long position = in.readPosition();
+        long from = Math.min(position, yt.lineStart());
+        long offset = from - in.start();
+        if (offset <= 0)
+            return;
+        in.readPosition(from);
+        in.compact();
+        in.readPosition(position - offset);
+        yt.shift(offset);
+    }
+
+    private static void checkDepth(int depth) {
+        if (depth >= MAX_DEPTH)
+            throw new IllegalStateException("Nested more than " + MAX_DEPTH + " levels deep");
+    }
+
+    private void close(BinaryWire out, int depth) {
+        out.endLength(lengthPositions[depth]);
+    }
+
+    private void text() {
+        sb.setLength(0);
+        yt.text(sb);
+        YamlWire.unescape(sb);
+    }
+
+    /**
+     * Write unquoted numbers, booleans and nulls as such, everything else as text, as YamlWire would read them.
+     */
+    private void scalar(ValueOut valueOut) {
+        if (yt.blockQuote() == 0 && yt.blockEnd() >= 0) {
+            switch (numberType()) {
+                case INTEGER:
+                    valueOut.int64(longValue);
+                    return;
+                case DECIMAL:
+                    valueOut.float64(parseDouble());
+                    return;
+                default:
+                    if (StringUtils.isEqual(sb, "true")) {
+                        valueOut.bool(true);
+                        return;
+                    }
+                    if (StringUtils.isEqual(sb, "false")) {
+                        valueOut.bool(false);
+                        return;
+                    }
+                    if (StringUtils.isEqual(sb, "null") || StringUtils.isEqual(sb, "~")) {
+                        valueOut.nu11();
+                        return;
+                    }
+                    break;
+            }
+        }
+        valueOut.text(sb);
+    }
+
+    private enum NumberType {NONE, INTEGER, DECIMAL}
+
+    private NumberType numberType() {
+        int length = sb.length();
+        int i = 0;
+        if (i < length && (sb.charAt(i) == '-' || sb.charAt(i) == '+'))
+            i++;
+        int digits = 0;
+        boolean decimal = false;
+        for (; i < length; i++) {
+            char ch = sb.charAt(i);
+            if ('0' <= ch && ch <= '9')
+                digits++;
+            else if (ch == '.' && !decimal)
+                decimal = true;
+            else
+                break;
+        }
+        if (digits == 0)
+            return NumberType.NONE;
+        if (i < length && (sb.charAt(i) == 'e' || sb.charAt(i) == 'E')) {
+            i++;
+            if (i < length && (sb.charAt(i) == '-' || sb.charAt(i) == '+'))
+                i++;
+            int expDigits = 0;
+            for (; i < length && '0' <= sb.charAt(i) && sb.charAt(i) <= '9'; i++)
+                expDigits++;
+            if (expDigits == 0)
+                return NumberType.NONE;
+            decimal = true;
+        }
+        if (i < length)
+            return NumberType.NONE;
+        // an integer too large for a long is written as a double
+        return decimal || !parseLong() ? NumberType.DECIMAL : NumberType.INTEGER;
+    }
+
+    /**
+     * @return true if the integer fits a long, which is left in <code>longValue</code>
+     */
+    private boolean parseLong() {
+        boolean negative = sb.charAt(0) == '-';
+        // accumulated as a negative value so Long.MIN_VALUE fits
+        long value = 0;
+        for (int i = negative || sb.charAt(0) == '+' ? 1 : 0; i < sb.length(); i++) {
+            int digit = sb.charAt(i) - '0';
+            if (value < (Long.MIN_VALUE + digit) / 10)
+                return false;
+            value = value * 10 - digit;
+        }
+        if (!negative) {
+            if (value == Long.MIN_VALUE)
+                return false;
+            value = -value;
+        }
+        longValue = value;
+        return true;
+    }
+
+    private double parseDouble() {
+        // Bytes.parseDouble() doesn't accept an exponent of the form e+n
+        if (sb.indexOf("+", 1) >= 0)
+            return Double.parseDouble(sb.toString());
+        long position = in.readPosition();
+        long limit = in.readLimit();
+        try {
+            long start = yt.blockStart();
+            // Bytes.parseDouble() doesn't accept a leading +
+            if (in.readUnsignedByte(start) == '+')
+                start++;
+            in.readLimit(yt.blockEnd());
+            in.readPosition(start);
+            return DecimalText.parseDouble(in);
+        } finally {
+            in.readLimit(limit);
+            in.readPosition(position);
+        }
+    }
+}
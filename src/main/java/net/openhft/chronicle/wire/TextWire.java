@@ -92,11 +92,13 @@ public class TextWire extends AbstractWire implements Wire {
     }
 
     private final TextValueOut valueOut = createValueOut();
+    private final EncodedNameCache nameCache = new EncodedNameCache();
     protected final TextValueIn valueIn = createValueIn();
     private DefaultValueIn defaultValueIn;
-    private WriteDocumentContext writeContext;
-    private ReadDocumentContext readContext;
+    protected WriteDocumentContext writeContext;
+    protected ReadDocumentContext readContext;
     private final StringBuilder sb = new StringBuilder();
+    private TextToBinaryTranscoder transcoder;
     private boolean strict = false;
     private boolean addTimeStamps = false;
     protected long lineStart = 0;
@@ -374,12 +376,20 @@ public class TextWire extends AbstractWire implements Wire {
     public void copyTo(@NotNull WireOut wire) {
         if (wire instanceof TextWire) {
             wire.bytes().write(bytes, bytes().readPosition(), bytes().readLimit());
+        } else if (wire instanceof BinaryWire) {
+            copyToBinary((BinaryWire) wire);
         } else {
             // TODO: implement copying
-            throw new UnsupportedOperationException("Not implemented yet. Can only copy TextWire format to the same format");
+            throw new UnsupportedOperationException("Not implemented yet. Can only copy TextWire format to the same format or BinaryWire");
         }
     }
 
+    void copyToBinary(@NotNull BinaryWire wire) {
+        if (transcoder == null)
+            transcoder = new TextToBinaryTranscoder(bytes);
+        transcoder.copyTo(wire);
+    }
+
     @Override
     public long readEventNumber() {
         StringBuilder sb = acquireStringBuilder();
@@ -446,7 +456,7 @@ public class TextWire extends AbstractWire implements Wire {
                 sb.setLength(0);
                 return sb;
 
-            } else {
+            } else if (!StopCharScanner.END_OF_TEXT.parse(bytes, sb)) {
                 parseUntil(sb, getEscapingEndOfText());
             }
             unescape(sb);
@@ -494,8 +504,11 @@ public class TextWire extends AbstractWire implements Wire {
             } else if (ch == '"' || ch == '\'') {
                 bytes.readSkip(1);
 
-                final StopCharTester escapingQuotes = ch == '"' ? getEscapingQuotes() : getEscapingSingleQuotes();
-                parseUntil(sb, escapingQuotes);
+                final StopCharScanner scanner = ch == '"' ? StopCharScanner.QUOTES : StopCharScanner.SINGLE_QUOTES;
+                if (!scanner.parse(bytes, sb)) {
+                    final StopCharTester escapingQuotes = ch == '"' ? getEscapingQuotes() : getEscapingSingleQuotes();
+                    parseUntil(sb, escapingQuotes);
+                }
 
                 consumePadding(1);
                 ch = readCode();
@@ -506,7 +519,7 @@ public class TextWire extends AbstractWire implements Wire {
                 sb.setLength(0);
                 return null;
 
-            } else {
+            } else if (!StopCharScanner.END_OF_TEXT.parse(bytes, sb)) {
                 parseUntil(sb, getEscapingEndOfText());
             }
             unescape(sb);
@@ -540,6 +553,11 @@ public class TextWire extends AbstractWire implements Wire {
         return escaping;
     }
 
+    @NotNull
+    StopCharScanner strictEndOfTextScanner() {
+        return StopCharScanner.STRICT_END_OF_TEXT;
+    }
+
     @NotNull
     protected StopCharsTester getEscapingEndEventName() {
         StopCharsTester escaping = ThreadLocalHelper.getTL(STRICT_ESCAPED_END_OF_TEXT,
@@ -1540,6 +1558,8 @@ public class TextWire extends AbstractWire implements Wire {
             double af = Math.abs(f);
             if (af >= 1e-3 && af < 1e6)
                 bytes.append(f);
+            else if (Float.isFinite(f))
+                DecimalText.appendFloat(bytes, f);
             else
                 bytes.append(floatToString(f));
             elementSeparator();
@@ -1578,6 +1598,8 @@ public class TextWire extends AbstractWire implements Wire {
                 } else {
                     bytes.append(d);
                 }
+            } else if (Double.isFinite(d)) {
+                DecimalText.appendDouble(bytes, d);
             } else {
                 bytes.append(doubleToString(d));
             }
@@ -2054,8 +2076,12 @@ public class TextWire extends AbstractWire implements Wire {
                 eventName = name.toString();
             } else {
                 prependSeparator();
-                escape(name);
-                fieldValueSeperator();
+                if (!nameCache.write(name, bytes)) {
+                    long start = bytes.writePosition();
+                    escape(name);
+                    fieldValueSeperator();
+                    nameCache.put(name, bytes, start);
+                }
             }
             return this;
         }
@@ -2207,11 +2233,11 @@ public class TextWire extends AbstractWire implements Wire {
 
                 }
                 case '"':
-                    readText(a, getEscapingQuotes());
+                    readText(a, StopCharScanner.QUOTES, getEscapingQuotes());
                     break;
 
                 case '\'':
-                    readText(a, getEscapingSingleQuotes());
+                    readText(a, StopCharScanner.SINGLE_QUOTES, getEscapingSingleQuotes());
                     break;
 
                 case '!': {
@@ -2246,7 +2272,9 @@ public class TextWire extends AbstractWire implements Wire {
                 default: {
                     final long rem = bytes.readRemaining();
                     if (rem > 0) {
-                        if (a instanceof Bytes) {
+                        if (strictEndOfTextScanner().parse(bytes, a)) {
+                            // plain ASCII without escapes, no need for the tester
+                        } else if (a instanceof Bytes) {
                             bytes.parse8bit((Bytes) a, getStrictEscapingEndOfText());
                         } else if (use8bit) {
                             bytes.parse8bit((StringBuilder) a, getStrictEscapingEndOfText());
@@ -2291,13 +2319,15 @@ public class TextWire extends AbstractWire implements Wire {
             } while (!bytes.isEmpty() && c != '}');
         }
 
-        private <ACS extends Appendable & CharSequence> void readText(@NotNull ACS a, @NotNull StopCharTester quotes) {
+        private <ACS extends Appendable & CharSequence> void readText(@NotNull ACS a, @NotNull StopCharScanner scanner, @NotNull StopCharTester quotes) {
             bytes.readSkip(1);
-            if (use8bit)
-                bytes.parse8bit(a, quotes);
-            else
-                bytes.parseUtf8(a, quotes);
-            unescape(a);
+            if (!scanner.parse(bytes, a)) {
+                if (use8bit)
+                    bytes.parse8bit(a, quotes);
+                else
+                    bytes.parseUtf8(a, quotes);
+                unescape(a);
+            }
             consumePadding(1);
         }
 
@@ -2684,7 +2714,7 @@ public class TextWire extends AbstractWire implements Wire {
             if (peekCode() == '$') {
                 unsubstitutedNumber();
             } else {
-                tf.accept(t, (float) bytes.parseDouble());
+                tf.accept(t, (float) DecimalText.parseDouble(bytes));
             }
             return TextWire.this;
         }
@@ -2696,7 +2726,7 @@ public class TextWire extends AbstractWire implements Wire {
             if (peekCode() == '$') {
                 unsubstitutedNumber();
             } else {
-                td.accept(t, bytes.parseDouble());
+                td.accept(t, DecimalText.parseDouble(bytes));
             }
             return TextWire.this;
         }
@@ -3389,7 +3419,7 @@ public class TextWire extends AbstractWire implements Wire {
                     Jvm.warn().on(getClass(), "Unable to read " + valueIn.object() + " as a double.");
                     return 0;
             }
-            final double v = bytes.parseDouble();
+            final double v = DecimalText.parseDouble(bytes);
             checkRewind();
             return v;
         }
@@ -23,7 +23,7 @@ import org.jetbrains.annotations.NotNull;
 public class TextWriteDocumentContext implements WriteDocumentContext {
     protected Wire wire;
     private boolean metaData;
-    private boolean notComplete;
+    protected boolean notComplete;
 
     public TextWriteDocumentContext(Wire wire) {
         this.wire = wire;
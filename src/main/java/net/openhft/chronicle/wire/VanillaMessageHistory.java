@@ -18,6 +18,8 @@ package net.openhft.chronicle.wire;
 import net.openhft.chronicle.bytes.Bytes;
 import net.openhft.chronicle.bytes.BytesIn;
 import net.openhft.chronicle.bytes.BytesOut;
+import net.openhft.chronicle.bytes.BytesUtil;
+import net.openhft.chronicle.core.Jvm;
 import net.openhft.chronicle.core.io.IORuntimeException;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -25,6 +27,17 @@ import org.jetbrains.annotations.Nullable;
 @SuppressWarnings("rawtypes")
 public class VanillaMessageHistory extends SelfDescribingMarshallable implements MessageHistory {
     public static final int MESSAGE_HISTORY_LENGTH = 128;
+    /**
+     * First byte of the compact binary form. It can't be the first byte of the original forms as that is either
+     * a count of sources, no more than {@link #MESSAGE_HISTORY_LENGTH}, or a field name.
+     */
+    static final int COMPACT_HEADER = 0x9F;
+    /**
+     * First byte of the fixed width form written by {@link BytesStoreMessageHistory}
+     */
+    static final int FLAT_HEADER = 0x9E;
+    static final boolean COMPACT = Jvm.getBoolean("messageHistory.compact");
+    static final int CAPACITY = Integer.getInteger("messageHistory.length", MESSAGE_HISTORY_LENGTH);
     private static final ThreadLocal<MessageHistory> THREAD_LOCAL =
             ThreadLocal.withInitial(() -> {
                 @NotNull VanillaMessageHistory veh = new VanillaMessageHistory();
@@ -35,14 +48,35 @@ public class VanillaMessageHistory extends SelfDescribingMarshallable implements
     private int sources;
     private int timings;
     @NotNull
-    private final int[] sourceIdArray = new int[MESSAGE_HISTORY_LENGTH];
+    private final int[] sourceIdArray;
     @NotNull
-    private final long[] sourceIndexArray = new long[MESSAGE_HISTORY_LENGTH];
+    private final long[] sourceIndexArray;
     @NotNull
-    private final long[] timingsArray = new long[MESSAGE_HISTORY_LENGTH * 2];
+    private final long[] timingsArray;
     private boolean addSourceDetails = false;
+    private boolean compact = COMPACT;
     private long start;
 
+    public VanillaMessageHistory() {
+        this(CAPACITY);
+    }
+
+    /**
+     * @param capacity the maximum number of sources, with up to twice as many timings.
+     *                 The default is {@link #MESSAGE_HISTORY_LENGTH} or -DmessageHistory.length
+     */
+    public VanillaMessageHistory(int capacity) {
+        checkCapacity(capacity);
+        sourceIdArray = new int[capacity];
+        sourceIndexArray = new long[capacity];
+        timingsArray = new long[capacity * 2];
+    }
+
+    static void checkCapacity(int capacity) {
+        if (capacity < 1 || capacity > MESSAGE_HISTORY_LENGTH)
+            throw new IllegalArgumentException("capacity must be between 1 and " + MESSAGE_HISTORY_LENGTH + " was " + capacity);
+    }
+
     static MessageHistory getThreadLocal() {
         return THREAD_LOCAL.get();
     }
@@ -54,6 +88,9 @@ public class VanillaMessageHistory extends SelfDescribingMarshallable implements
     public static int marshallableSize(@NotNull BytesIn bytes) {
 
         long start = bytes.readPosition();
+        int header = bytes.readUnsignedByte(start);
+        if (header == COMPACT_HEADER || header == FLAT_HEADER)
+            return 3 + bytes.readUnsignedShort(start + 1);
         try {
 
             int sources = bytes.readUnsignedByte();
@@ -87,6 +124,26 @@ public class VanillaMessageHistory extends SelfDescribingMarshallable implements
         this.addSourceDetails = addSourceDetails;
     }
 
+    public int capacity() {
+        return sourceIdArray.length;
+    }
+
+    public boolean compact() {
+        return compact;
+    }
+
+    /**
+     * Write the history in a compact binary form, source ids and indices as stop bit encoded values and timings as
+     * stop bit encoded deltas from the first timing. This applies to BinaryWire, where it is held in a bytes value,
+     * and {@link #writeMarshallable(BytesOut)}, text wires are unchanged. Either form can be read regardless of this setting.
+     *
+     * @param compact true to write the compact form.
+     */
+    public VanillaMessageHistory compact(boolean compact) {
+        this.compact = compact;
+        return this;
+    }
+
     @Override
     public void reset() {
         sources = timings = 0;
@@ -153,8 +210,64 @@ public class VanillaMessageHistory extends SelfDescribingMarshallable implements
         return sourceIndexArray[n];
     }
 
+    /**
+     * Start a bytes value holding a binary form of <code>length</code> bytes. Wrapping the form keeps the message
+     * self-describing, so it can be dumped or copied by readers which don't know the form.
+     */
+    static void startBinaryForm(@NotNull WireOut wire, long length) {
+        wire.getValueOut().writeLength(length + 1);
+        wire.bytes().writeUnsignedByte(BinaryWireCode.U8_ARRAY);
+    }
+
+    /**
+     * @return the header of the compact or flat form, positioned at that header if it is held in a bytes value,
+     * otherwise -1 leaving the position unchanged.
+     */
+    static int readBinaryForm(@NotNull WireIn wire) {
+        if (!(wire instanceof BinaryWire))
+            return -1;
+        Bytes<?> bytes = wire.bytes();
+        int code = bytes.peekUnsignedByte();
+        if (code == COMPACT_HEADER || code == FLAT_HEADER)
+            return code; // as written to BytesOut
+        int lengthSize = code == BinaryWireCode.BYTES_LENGTH8 ? 1
+                : code == BinaryWireCode.BYTES_LENGTH16 ? 2
+                : code == BinaryWireCode.BYTES_LENGTH32 ? 4
+                : 0;
+        if (lengthSize == 0 || bytes.readRemaining() < lengthSize + 3)
+            return -1;
+        long position = bytes.readPosition();
+        if (bytes.readUnsignedByte(position + 1 + lengthSize) != BinaryWireCode.U8_ARRAY)
+            return -1;
+        int header = bytes.readUnsignedByte(position + 2 + lengthSize);
+        if (header != COMPACT_HEADER && header != FLAT_HEADER)
+            return -1;
+        bytes.readSkip(2 + lengthSize);
+        return header;
+    }
+
     @Override
     public void readMarshallable(@NotNull WireIn wire) throws IORuntimeException {
+        int header = readBinaryForm(wire);
+        if (header == COMPACT_HEADER) {
+            readCompact(wire.bytes());
+        } else if (header == FLAT_HEADER) {
+            readFlat(wire.bytes());
+        } else {
+            readSelfDescribing(wire);
+        }
+        if (addSourceDetails) {
+            @Nullable Object o = wire.parent();
+            if (o instanceof SourceContext) {
+                @Nullable SourceContext dc = (SourceContext) o;
+                addSource(dc.sourceId(), dc.index());
+            }
+
+            addTiming(nanoTime());
+        }
+    }
+
+    private void readSelfDescribing(@NotNull WireIn wire) {
         sources = 0;
         wire.read("sources").sequence(this, (t, in) -> {
             while (in.hasNextSequenceItem()) {
@@ -167,15 +280,6 @@ public class VanillaMessageHistory extends SelfDescribingMarshallable implements
                 t.addTiming(in.int64());
             }
         });
-        if (addSourceDetails) {
-            @Nullable Object o = wire.parent();
-            if (o instanceof SourceContext) {
-                @Nullable SourceContext dc = (SourceContext) o;
-                addSource(dc.sourceId(), dc.index());
-            }
-
-            addTiming(nanoTime());
-        }
     }
 
     protected long nanoTime() {
@@ -184,6 +288,12 @@ public class VanillaMessageHistory extends SelfDescribingMarshallable implements
 
     @Override
     public void writeMarshallable(@NotNull WireOut wire) {
+        if (compact && wire instanceof BinaryWire) {
+            long now = nanoTime(); // add time for this output
+            startBinaryForm(wire, 3 + compactLength(now));
+            writeCompact(wire.bytes(), now);
+            return;
+        }
         wire.write("sources")
                 .sequence(this, (t, out) -> {
                     Bytes<?> b = out.wireOut().bytes();
@@ -205,13 +315,22 @@ public class VanillaMessageHistory extends SelfDescribingMarshallable implements
 
     @Override
     public void readMarshallable(@NotNull BytesIn bytes) throws IORuntimeException {
-        sources = bytes.readUnsignedByte();
+        int header = bytes.peekUnsignedByte();
+        if (header == COMPACT_HEADER) {
+            readCompact(bytes);
+            return;
+        }
+        if (header == FLAT_HEADER) {
+            readFlat(bytes);
+            return;
+        }
+        sources = checkSources(bytes.readUnsignedByte());
         for (int i = 0; i < sources; i++)
             sourceIdArray[i] = bytes.readInt();
         for (int i = 0; i < sources; i++)
             sourceIndexArray[i] = bytes.readLong();
 
-        timings = bytes.readUnsignedByte();
+        timings = checkTimings(bytes.readUnsignedByte());
         for (int i = 0; i < timings; i++)
             timingsArray[i] = bytes.readLong();
     }
@@ -221,6 +340,11 @@ public class VanillaMessageHistory extends SelfDescribingMarshallable implements
     public void writeMarshallable(@NotNull BytesOut b) {
         BytesOut<?> bytes = b;
         assert start(bytes.writePosition());
+        if (compact) {
+            writeCompact(bytes, nanoTime()); // add time for this output
+            assert checkMarshallableSize(start, (Bytes) bytes);
+            return;
+        }
         bytes.comment("sources")
                 .writeUnsignedByte(sources);
         for (int i = 0; i < sources; i++)
@@ -237,6 +361,80 @@ public class VanillaMessageHistory extends SelfDescribingMarshallable implements
         assert checkMarshallableSize(start, (Bytes) bytes);
     }
 
+    /**
+     * @return the length of the compact form after its header and length.
+     */
+    private int compactLength(long now) {
+        long first = timings == 0 ? now : timingsArray[0];
+        int length = BytesUtil.stopBitLength(sources)
+                + BytesUtil.stopBitLength(timings + 1)
+                + 8;
+        for (int i = 0; i < sources; i++)
+            length += BytesUtil.stopBitLength(sourceIdArray[i]) + BytesUtil.stopBitLength(sourceIndexArray[i]);
+        for (int i = 1; i < timings; i++)
+            length += BytesUtil.stopBitLength(timingsArray[i] - first);
+        if (timings > 0)
+            length += BytesUtil.stopBitLength(now - first);
+        return length;
+    }
+
+    private void writeCompact(BytesOut<?> bytes, long now) {
+        long first = timings == 0 ? now : timingsArray[0];
+        bytes.writeUnsignedByte(COMPACT_HEADER);
+        bytes.writeUnsignedShort(compactLength(now));
+        bytes.writeStopBit(sources);
+        for (int i = 0; i < sources; i++) {
+            bytes.writeStopBit(sourceIdArray[i]);
+            bytes.writeStopBit(sourceIndexArray[i]);
+        }
+        bytes.writeStopBit(timings + 1);
+        bytes.writeLong(first);
+        for (int i = 1; i < timings; i++)
+            bytes.writeStopBit(timingsArray[i] - first);
+        if (timings > 0)
+            bytes.writeStopBit(now - first);
+    }
+
+    private void readCompact(BytesIn<?> bytes) {
+        bytes.readSkip(3);
+        sources = checkSources((int) bytes.readStopBit());
+        for (int i = 0; i < sources; i++) {
+            sourceIdArray[i] = (int) bytes.readStopBit();
+            sourceIndexArray[i] = bytes.readStopBit();
+        }
+        timings = checkTimings((int) bytes.readStopBit());
+        if (timings > 0) {
+            long first = bytes.readLong();
+            timingsArray[0] = first;
+            for (int i = 1; i < timings; i++)
+                timingsArray[i] = first + bytes.readStopBit();
+        }
+    }
+
+    private void readFlat(BytesIn<?> bytes) {
+        bytes.readSkip(3);
+        sources = checkSources(bytes.readUnsignedShort());
+        timings = checkTimings(bytes.readUnsignedShort());
+        for (int i = 0; i < sources; i++) {
+            sourceIdArray[i] = bytes.readInt();
+            sourceIndexArray[i] = bytes.readLong();
+        }
+        for (int i = 0; i < timings; i++)
+            timingsArray[i] = bytes.readLong();
+    }
+
+    private int checkSources(int sources) {
+        if (sources > sourceIdArray.length)
+            throw new IllegalStateException("Have exceeded message history size: " + sources + " sources");
+        return sources;
+    }
+
+    private int checkTimings(int timings) {
+        if (timings > timingsArray.length)
+            throw new IllegalStateException("Have exceeded message history size: " + timings + " timings");
+        return timings;
+    }
+
     private boolean start(final long start) {
         this.start = start;
         return true;
@@ -253,6 +451,9 @@ public class VanillaMessageHistory extends SelfDescribingMarshallable implements
     }
 
     public void addSource(int id, long index) {
+        if (sources >= sourceIdArray.length) {
+            throw new IllegalStateException("Have exceeded message history size: " + this.toString());
+        }
         sourceIdArray[sources] = id;
         sourceIndexArray[sources++] = index;
     }
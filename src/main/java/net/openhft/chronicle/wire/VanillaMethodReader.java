@@ -21,21 +21,25 @@ import net.openhft.chronicle.bytes.Bytes;
 import net.openhft.chronicle.bytes.MethodId;
 import net.openhft.chronicle.bytes.MethodReader;
 import net.openhft.chronicle.bytes.MethodReaderInterceptorReturns;
+import net.openhft.chronicle.core.ClassLocal;
 import net.openhft.chronicle.core.Jvm;
 import net.openhft.chronicle.core.Maths;
 import net.openhft.chronicle.core.io.Closeable;
 import net.openhft.chronicle.core.util.Annotations;
 import net.openhft.chronicle.core.util.ObjectUtils;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.annotation.Annotation;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
+import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
 import java.util.*;
 import java.util.function.BiConsumer;
 import java.util.function.Supplier;
@@ -50,12 +54,28 @@ public class VanillaMethodReader implements MethodReader {
     static final Object IGNORED = new Object(); // object used to flag that the call should be ignored.
     private static final boolean DONT_THROW_ON_OVERLOAD = Jvm.getBoolean("chronicle.mr_overload_dont_throw");
     private static final String[] metaIgnoreList = {"header", "index", "index2index", "roll"};
+    // handles the rest of a chain of calls after a call dropped by the argumentsInterceptor
+    private static final InvocationHandler DROPPED_CHAIN_HANDLER = (proxy, method, args) -> droppedChain(method);
+    private static final ClassLocal<Object> DROPPED_CHAINS = ClassLocal.withInitial(type ->
+            Proxy.newProxyInstance(type.getClassLoader(), new Class[]{type}, DROPPED_CHAIN_HANDLER));
     private final MarshallableIn in;
     @NotNull
     private final WireParser wireParser;
     private MessageHistory messageHistory;
     private boolean closeIn = false, closed;
     private MethodReaderInterceptorReturns methodReaderInterceptorReturns;
+    @Nullable
+    private final MethodMetrics metrics;
+    // time spent in handlers for the current event, only maintained when metrics are enabled
+    private long handlerNanos;
+    @Nullable
+    private MethodArgumentsInterceptor argumentsInterceptor;
+    private final MethodArguments arguments = new MethodArguments();
+    @Nullable
+    private final ArgumentRecycler recycler;
+    @Nullable
+    private EventPreFilter preFilter;
+    private final BinaryEventHeader eventHeader = new BinaryEventHeader();
 
     public VanillaMethodReader(MarshallableIn in,
                                boolean ignoreDefault,
@@ -71,8 +91,28 @@ public class VanillaMethodReader implements MethodReader {
                                FieldNumberParselet fieldNumberParselet,
                                MethodReaderInterceptorReturns methodReaderInterceptorReturns,
                                @NotNull Object... objects) {
+        this(new VanillaMethodReaderBuilder(in)
+                        .methodReaderInterceptorReturns(methodReaderInterceptorReturns)
+                        .ignoreDefaults(ignoreDefault),
+                defaultParselet, fieldNumberParselet, objects);
+    }
+
+    /**
+     * Options such as metrics, argument recycling, the argumentsInterceptor and the preFilter are taken from the
+     * builder.
+     */
+    VanillaMethodReader(@NotNull VanillaMethodReaderBuilder builder,
+                        WireParselet defaultParselet,
+                        FieldNumberParselet fieldNumberParselet,
+                        @NotNull Object... objects) {
+        MarshallableIn in = builder.in();
+        boolean ignoreDefault = builder.ignoreDefaults();
         this.in = in;
-        this.methodReaderInterceptorReturns = methodReaderInterceptorReturns;
+        this.methodReaderInterceptorReturns = builder.methodReaderInterceptorReturns();
+        this.metrics = builder.metrics();
+        this.recycler = builder.recyclerOrNull();
+        this.argumentsInterceptor = builder.argumentsInterceptor();
+        this.preFilter = builder.preFilter();
         if (objects[0] instanceof WireParselet)
             defaultParselet = (WireParselet) objects[0];
 
@@ -113,7 +153,7 @@ public class VanillaMethodReader implements MethodReader {
         return null;
     }
 
-    private static void invokeMethodWithOneLong(Object o, Object[] context, @NotNull Method m, String name, MethodHandle mh, Object[] argArr, CharSequence s, ValueIn v, MethodReaderInterceptorReturns methodReaderInterceptor) {
+    private void invokeMethodWithOneLong(Object o, Object[] context, @NotNull Method m, String name, MethodHandle mh, Object[] argArr, CharSequence s, ValueIn v, MethodReaderInterceptorReturns methodReaderInterceptor) {
         try {
             if (Jvm.isDebug())
                 logMessage(s, v);
@@ -133,6 +173,10 @@ public class VanillaMethodReader implements MethodReader {
                     }
                 }
             }
+            if (argumentsInterceptor != null
+                    && !argumentsInterceptor.intercept(arguments.reset(m).setLong(0, arg)))
+                return;
+            long start = metrics == null ? 0 : System.nanoTime();
             try {
                 if (methodReaderInterceptor != null) {
                     argArr[0] = arg;
@@ -153,6 +197,8 @@ public class VanillaMethodReader implements MethodReader {
                 else
                     Jvm.warn().on(o.getClass(), msg, cause);
             }
+            if (metrics != null)
+                handlerNanos += System.nanoTime() - start;
         } catch (Exception i) {
             Jvm.warn().on(o.getClass(), "Failure to dispatch message: " + name + " " + argArr[0], i);
         }
@@ -256,6 +302,35 @@ public class VanillaMethodReader implements MethodReader {
         return m.getReturnType() + " " + m.getName() + " " + Arrays.toString(m.getParameterTypes());
     }
 
+    /**
+     * @param preFilter to skip binary documents of one event by that event without decoding it, or null for none.
+     * @return this
+     */
+    @NotNull
+    public VanillaMethodReader preFilter(@Nullable EventPreFilter preFilter) {
+        this.preFilter = preFilter;
+        return this;
+    }
+
+    /**
+     * @return the recycler used for arguments, or null if one instance per parameter is always reused.
+     */
+    @Nullable
+    public ArgumentRecycler recycler() {
+        return recycler;
+    }
+
+    /**
+     * @param argumentsInterceptor called with the decoded arguments before each method is invoked, which can drop the
+     *                             call by returning false. Dropping a chained call drops the rest of its chain.
+     * @return this
+     */
+    @NotNull
+    public VanillaMethodReader argumentsInterceptor(@Nullable MethodArgumentsInterceptor argumentsInterceptor) {
+        this.argumentsInterceptor = argumentsInterceptor;
+        return this;
+    }
+
     @NotNull
     public VanillaMethodReader closeIn(boolean closeIn) {
         throwExceptionIfClosed();
@@ -276,19 +351,20 @@ public class VanillaMethodReader implements MethodReader {
                 MethodHandle mh = MethodHandles.lookup().unreflect(m).bindTo(o2);
                 @NotNull Object[] argArr = {null};
                 MethodWireKey key = createWireKey(m, name);
-                wireParser.registerOnce(key, (s, v) -> invokeMethodWithOneLong(o2, context, m, name, mh, argArr, s, v, methodReaderInterceptorReturns));
+                registerOnce(key, (s, v) -> invokeMethodWithOneLong(o2, context, m, name, mh, argArr, s, v, methodReaderInterceptorReturns));
             } catch (IllegalAccessException e) {
                 Jvm.warn().on(o2.getClass(), "Unable to unreflect " + m, e);
             }
         } else if (parameterType.isPrimitive() || parameterType2.isInterface() || !ReadMarshallable.class.isAssignableFrom(parameterType2)) {
             @NotNull Object[] argArr = {null};
             MethodWireKey key = createWireKey(m, name);
-            wireParser.registerOnce(key, (s, v) -> {
+            ArgumentRecycler.Policy policy = recyclePolicy(m);
+            registerOnce(key, (s, v) -> {
                 try {
                     if (Jvm.isDebug())
                         logMessage(s, v);
 
-                    argArr[0] = v.object(checkRecycle(argArr[0]), parameterType2);
+                    argArr[0] = v.object(recycle(argArr[0], parameterType2, policy), parameterType2);
                     Object invoke = invoke(contextSupplier.get(), m, argArr);
                     if (invoke != null)
                         context[0] = invoke;
@@ -303,13 +379,14 @@ public class VanillaMethodReader implements MethodReader {
             ReadMarshallable arg = (ReadMarshallable) ObjectUtils.newInstance(parameterType2);
             @NotNull ReadMarshallable[] argArr = {arg};
             MethodWireKey key = createWireKey(m, name);
-            wireParser.registerOnce(key, (s, v) -> {
+            ArgumentRecycler.Policy policy = recyclePolicy(m);
+            registerOnce(key, (s, v) -> {
                 try {
                     if (Jvm.isDebug())
                         logMessage(s, v);
 
                     //noinspection ConstantConditions
-                    argArr[0] = v.object(checkRecycle(argArr[0]), parameterType2);
+                    argArr[0] = (ReadMarshallable) v.object(recycle(argArr[0], parameterType2, policy), parameterType2);
                     Object invoke = invoke(contextSupplier.get(), m, argArr);
                     if (invoke != null)
                         context[0] = invoke;
@@ -334,7 +411,7 @@ public class VanillaMethodReader implements MethodReader {
         Jvm.setAccessible(m); // turn of security check to make a little faster
         String name = m.getName();
         MethodWireKey key = createWireKey(m, name);
-        wireParser.registerOnce(key, (s, v) -> {
+        registerOnce(key, (s, v) -> {
             try {
                 if (Jvm.isDebug())
                     logMessage(s, v);
@@ -352,6 +429,24 @@ public class VanillaMethodReader implements MethodReader {
         });
     }
 
+    private void registerOnce(MethodWireKey key, WireParselet parselet) {
+        wireParser.registerOnce(key, metrics == null ? parselet : measured(key.name().toString(), parselet));
+    }
+
+    @NotNull
+    private WireParselet measured(String name, WireParselet parselet) {
+        MethodMetrics.Metric metric = metrics.acquire(name);
+        return (s, v) -> {
+            Bytes<?> bytes = v.wireIn().bytes();
+            long position = bytes.readPosition();
+            long start = System.nanoTime();
+            handlerNanos = 0;
+            parselet.accept(s, v);
+            long time = System.nanoTime() - start;
+            metric.onRead(bytes.readPosition() - position, time - handlerNanos, handlerNanos);
+        };
+    }
+
     @NotNull
     protected MethodWireKey createWireKey(@NotNull Method m, String name) {
         MethodId annotation = Annotations.getAnnotation(m, MethodId.class);
@@ -365,16 +460,17 @@ public class VanillaMethodReader implements MethodReader {
 
         Jvm.setAccessible(m); // turn of security check to make a little faster
         @NotNull Object[] args = new Object[parameterTypes.length];
+        ArgumentRecycler.Policy policy = recyclePolicy(m);
         @NotNull BiConsumer<Object[], ValueIn> sequenceReader = (a, v) -> {
             int i = 0;
             for (@NotNull Class clazz : parameterTypes) {
-                a[i] = v.object(checkRecycle(a[i]), clazz);
+                a[i] = v.object(recycle(a[i], clazz, policy), clazz);
                 i++;
             }
         };
         String name = m.getName();
         MethodWireKey key = createWireKey(m, name);
-        wireParser.registerOnce(key, (s, v) -> {
+        registerOnce(key, (s, v) -> {
             try {
                 if (Jvm.isDebug())
                     logMessage(s, v);
@@ -392,6 +488,26 @@ public class VanillaMethodReader implements MethodReader {
         });
     }
 
+    @NotNull
+    private ArgumentRecycler.Policy recyclePolicy(@NotNull Method m) {
+        return recycler == null ? ArgumentRecycler.Policy.REUSE : recycler.policyFor(m.getName());
+    }
+
+    private Object recycle(Object previous, Class<?> type, ArgumentRecycler.Policy policy) {
+        switch (policy) {
+            case NEW:
+                return null;
+            case POOLED:
+                assert recycler != null;
+                Class<?> impl = ObjectUtils.implementationToUse(type);
+                return Marshallable.class.isAssignableFrom(impl) || Collection.class.isAssignableFrom(impl)
+                        ? checkRecycle(recycler.acquire(type))
+                        : null;
+            default:
+                return checkRecycle(previous);
+        }
+    }
+
     private <T> T checkRecycle(T o) {
         if (o instanceof Collection<?>) {
             ((Collection<?>) o).clear();
@@ -406,6 +522,7 @@ public class VanillaMethodReader implements MethodReader {
 
         Jvm.setAccessible(m); // turn off security check to make a little faster
         @NotNull Object[] args = new Object[parameterTypes.length];
+        ArgumentRecycler.Policy policy = recyclePolicy(m);
         @NotNull BiConsumer<Object[], ValueIn> sequenceReader = (a, v) -> {
             int i = 0;
             boolean ignored = false;
@@ -413,7 +530,7 @@ public class VanillaMethodReader implements MethodReader {
                 if (ignored)
                     v.skipValue();
                 else
-                    a[i] = v.object(checkRecycle(a[i]), clazz);
+                    a[i] = v.object(recycle(a[i], clazz, policy), clazz);
                 if (i == 0) {
                     if (methodFilterOnFirstArg.ignoreMethodBasedOnFirstArg(m.getName(), a[0])) {
                         a[0] = IGNORED;
@@ -425,7 +542,7 @@ public class VanillaMethodReader implements MethodReader {
         };
         String name = m.getName();
         MethodWireKey key = createWireKey(m, name);
-        wireParser.registerOnce(key, (s, v) -> {
+        registerOnce(key, (s, v) -> {
             try {
                 if (Jvm.isDebug())
                     logMessage(s, v);
@@ -447,6 +564,24 @@ public class VanillaMethodReader implements MethodReader {
     }
 
     protected Object invoke(Object o, @NotNull Method m, Object[] args) {
+        if (metrics == null)
+            return invoke0(o, m, args);
+        long start = System.nanoTime();
+        try {
+            return invoke0(o, m, args);
+        } finally {
+            handlerNanos += System.nanoTime() - start;
+        }
+    }
+
+    private Object invoke0(Object o, @NotNull Method m, Object[] args) {
+        if (argumentsInterceptor != null && !isDroppedChain(o)) {
+            arguments.reset(m);
+            for (int i = 0; i < args.length; i++)
+                arguments.set(i, args[i]);
+            if (!argumentsInterceptor.intercept(arguments))
+                return droppedChain(m);
+        }
         try {
             if (methodReaderInterceptorReturns != null)
                 return methodReaderInterceptorReturns.intercept(m, o, args, VanillaMethodReader::actualInvoke);
@@ -464,6 +599,23 @@ public class VanillaMethodReader implements MethodReader {
         }
     }
 
+    /**
+     * @return for a chained method, a proxy which ignores the rest of the chain, otherwise null.
+     */
+    @Nullable
+    private static Object droppedChain(@NotNull Method m) {
+        Class<?> returnType = m.getReturnType();
+        return returnType.isInterface() && !Jvm.dontChain(returnType)
+                ? DROPPED_CHAINS.get(returnType)
+                : null;
+    }
+
+    private static boolean isDroppedChain(Object o) {
+        return o != null
+                && Proxy.isProxyClass(o.getClass())
+                && Proxy.getInvocationHandler(o) == DROPPED_CHAIN_HANDLER;
+    }
+
     /**
      * reads one message
      *
@@ -492,28 +644,45 @@ public class VanillaMethodReader implements MethodReader {
             if (!context.isPresent()) {
                 return false;
             }
-            if (context.isMetaData()) {
-                readOneMetaData(context);
-                return true;
-            }
-            assert context.isData();
-
-            messageHistory().reset(context.sourceId(), context.index());
-            wireParser.accept(context.wire());
+            dispatch(context);
         }
         return true;
     }
 
+    /**
+     * Dispatch a document which is present, read from any source.
+     */
+    void dispatch(@NotNull DocumentContext context) {
+        if (context.isMetaData()) {
+            readOneMetaData(context);
+            return;
+        }
+        assert context.isData();
+
+        if (preFilter != null && context.wire() instanceof BinaryWire && !preFilterAccepts(context.wire())) {
+            Bytes<?> bytes = context.wire().bytes();
+            bytes.readPosition(bytes.readLimit());
+            return;
+        }
+        messageHistory().reset(context.sourceId(), context.index());
+        wireParser.accept(context.wire());
+    }
+
     private MessageHistory messageHistory() {
         if (messageHistory == null) messageHistory = MessageHistory.get();
         return messageHistory;
     }
 
     private boolean readOneMetaData(DocumentContext context) {
-        StringBuilder sb = Wires.acquireStringBuilder();
-
         Wire wire = context.wire();
         Bytes<?> bytes = wire.bytes();
+        if (wire instanceof BinaryWire && isIgnoredMetaData(wire)) {
+            // skip to the end of the document without reading it
+            bytes.readPosition(bytes.readLimit());
+            return false;
+        }
+
+        StringBuilder sb = Wires.acquireStringBuilder();
         long r = bytes.readPosition();
         wire.readEventName(sb);
 
@@ -529,6 +698,51 @@ public class VanillaMethodReader implements MethodReader {
         return true;
     }
 
+    /**
+     * Compare the bytes of the event name with the names in the metaIgnoreList without decoding them.
+     */
+    private boolean isIgnoredMetaData(Wire wire) {
+        Bytes<?> bytes = wire.bytes();
+        wire.consumePadding();
+        if (!eventHeader.read(bytes, bytes.readPosition()))
+            return false;
+        for (String s : metaIgnoreList) {
+            if (eventHeader.nameEquals(bytes, s))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Pass the first event after any history to the preFilter, without decoding anything but the history.
+     * A document holding more events after the first, such as a batch, is always accepted.
+     */
+    private boolean preFilterAccepts(Wire wire) {
+        Bytes<?> bytes = wire.bytes();
+        long start = bytes.readPosition();
+        try {
+            wire.consumePadding();
+            if (!eventHeader.read(bytes, bytes.readPosition()))
+                return true;
+            if (eventHeader.nameEquals(bytes, HISTORY)) {
+                bytes.readPosition(eventHeader.payloadStart);
+                wire.getValueIn().skipValue();
+                wire.consumePadding();
+                if (!eventHeader.read(bytes, bytes.readPosition()))
+                    return true;
+            }
+            if (preFilter.accept(eventHeader.methodId, bytes, eventHeader.nameStart, eventHeader.nameLength, eventHeader.payloadStart))
+                return true;
+            // only skip the whole document if the rejected event is the last one
+            bytes.readPosition(eventHeader.payloadStart);
+            wire.getValueIn().skipValue();
+            wire.consumePadding();
+            return bytes.readRemaining() > 0;
+        } finally {
+            bytes.readPosition(start);
+        }
+    }
+
     @Override
     public void close() {
         if (closeIn)
@@ -21,6 +21,9 @@ import net.openhft.chronicle.bytes.MethodReader;
 import net.openhft.chronicle.bytes.MethodReaderBuilder;
 import net.openhft.chronicle.bytes.MethodReaderInterceptorReturns;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import static net.openhft.chronicle.wire.VanillaWireParser.SKIP_READABLE_BYTES;
 
 public class VanillaMethodReaderBuilder implements MethodReaderBuilder {
     private final MarshallableIn in;
@@ -28,11 +31,19 @@ public class VanillaMethodReaderBuilder implements MethodReaderBuilder {
     private boolean ignoreDefaults;
     private WireParselet defaultParselet;
     private MethodReaderInterceptorReturns methodReaderInterceptorReturns;
+    private MethodMetrics metrics;
+    private MethodArgumentsInterceptor argumentsInterceptor;
+    private ArgumentRecycler recycler;
+    private EventPreFilter preFilter;
 
     public VanillaMethodReaderBuilder(MarshallableIn in) {
         this.in = in;
     }
 
+    MarshallableIn in() {
+        return in;
+    }
+
     // TODO add support for filtering.
 
     @NotNull
@@ -61,7 +72,7 @@ public class VanillaMethodReaderBuilder implements MethodReaderBuilder {
     }
 
     @NotNull
-    public MethodReaderBuilder ignoreDefaults(boolean ignoreDefaults) {
+    public VanillaMethodReaderBuilder ignoreDefaults(boolean ignoreDefaults) {
         this.ignoreDefaults = ignoreDefaults;
         return this;
     }
@@ -75,11 +86,92 @@ public class VanillaMethodReaderBuilder implements MethodReaderBuilder {
         return this;
     }
 
+    public MethodReaderInterceptorReturns methodReaderInterceptorReturns() {
+        return methodReaderInterceptorReturns;
+    }
+
     public VanillaMethodReaderBuilder methodReaderInterceptorReturns(MethodReaderInterceptorReturns methodReaderInterceptorReturns) {
         this.methodReaderInterceptorReturns = methodReaderInterceptorReturns;
         return this;
     }
 
+    public MethodMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * @param metrics to record the count, bytes, decode time and handler time of each method read, or null for none.
+     */
+    public VanillaMethodReaderBuilder metrics(MethodMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
+    public MethodArgumentsInterceptor argumentsInterceptor() {
+        return argumentsInterceptor;
+    }
+
+    /**
+     * @param argumentsInterceptor called with the decoded arguments before each method is invoked, which can drop the
+     *                             call by returning false. Dropping a chained call drops the rest of its chain.
+     */
+    public VanillaMethodReaderBuilder argumentsInterceptor(MethodArgumentsInterceptor argumentsInterceptor) {
+        this.argumentsInterceptor = argumentsInterceptor;
+        return this;
+    }
+
+    /**
+     * @return the recycler which handlers can {@link ArgumentRecycler#release(Class, Object)} pooled arguments to, created if
+     * needed.
+     */
+    @NotNull
+    public ArgumentRecycler recycler() {
+        if (recycler == null)
+            recycler = new ArgumentRecycler();
+        return recycler;
+    }
+
+    @Nullable
+    ArgumentRecycler recyclerOrNull() {
+        return recycler;
+    }
+
+    public VanillaMethodReaderBuilder recycler(ArgumentRecycler recycler) {
+        this.recycler = recycler;
+        return this;
+    }
+
+    /**
+     * @param policy for the arguments of methods without a policy of their own.
+     */
+    public VanillaMethodReaderBuilder recyclePolicy(@NotNull ArgumentRecycler.Policy policy) {
+        recycler().defaultPolicy(policy);
+        return this;
+    }
+
+    /**
+     * @param methodName the method to apply this policy to
+     * @param policy     for the arguments of this method.
+     */
+    public VanillaMethodReaderBuilder recyclePolicy(@NotNull String methodName, @NotNull ArgumentRecycler.Policy policy) {
+        recycler().policy(methodName, policy);
+        return this;
+    }
+
+    public EventPreFilter preFilter() {
+        return preFilter;
+    }
+
+    /**
+     * Unlike a {@link MethodFilterOnFirstArg}, this is applied before the event name or any argument is decoded.
+     *
+     * @param preFilter to skip binary documents by the raw bytes of their first event, or null for none.
+     */
+    public VanillaMethodReaderBuilder preFilter(EventPreFilter preFilter) {
+        this.preFilter = preFilter;
+        return this;
+    }
+
     public boolean warnMissing() {
         return warnMissing;
     }
@@ -94,6 +186,12 @@ public class VanillaMethodReaderBuilder implements MethodReaderBuilder {
         WireParselet defaultParselet = this.defaultParselet;
         if (defaultParselet == null)
             defaultParselet = createDefaultParselet(warnMissing);
-        return new VanillaMethodReader(in, ignoreDefaults, defaultParselet, methodReaderInterceptorReturns, impls);
+        VanillaMethodReader reader = new VanillaMethodReader(this, defaultParselet, SKIP_READABLE_BYTES, impls);
+        // when the default parselet would only skip unknown events quietly, skip them without decoding them at all.
+        boolean quietDefault = this.defaultParselet == null && !warnMissing && !VanillaMethodReader.LOGGER.isDebugEnabled();
+        WireParser wireParser = reader.wireParser();
+        if (quietDefault && wireParser instanceof VanillaWireParser && wireParser.getDefaultConsumer() == defaultParselet)
+            ((VanillaWireParser) wireParser).skipUnknown(true);
+        return reader;
     }
 }
@@ -69,6 +69,11 @@ public class VanillaMethodWriterBuilder<T> implements Supplier<T>, MethodWriterB
     private WireType wireType;
     private Class<?> proxyClass;
     private UpdateInterceptor updateInterceptor;
+    private BatchingMarshallableOut batchingOut;
+    private MethodMetrics metrics;
+    private MethodArgumentsInterceptor argumentsInterceptor;
+    private int asyncCapacity;
+    private AsyncMethodWriter asyncWriter;
 
     public VanillaMethodWriterBuilder(@NotNull Class<T> tClass,
                                       WireType wireType,
@@ -187,6 +192,8 @@ public class VanillaMethodWriterBuilder<T> implements Supplier<T>, MethodWriterB
         sb.append(useMethodIds ? "MethodIds" : "");
         sb.append(updateInterceptor != null ? "Intercepting" : "");
         sb.append(hasMethodWriterListener() ? "MethodListener" : "");
+        sb.append(metrics != null ? "Metrics" : "");
+        sb.append(argumentsInterceptor != null ? "ArgumentsIntercepting" : "");
         sb.append(toFirstCapCase(wireType().toString().replace("_", "")));
         sb.append("MethodWriter");
         return sb.toString();
@@ -195,6 +202,61 @@ public class VanillaMethodWriterBuilder<T> implements Supplier<T>, MethodWriterB
     @NotNull
     @Override
     public T get() {
+        return asyncCapacity > 0 ? getAsync() : get0();
+    }
+
+    /**
+     * The writer returned copies each call into the ring buffer of an AsyncMethodWriter, which replays it on a
+     * writer with the rest of this configuration. The updateInterceptor, listener and metrics apply to the
+     * replaying writer, the argumentsInterceptor to the caller. Recorded history is copied from the caller.
+     */
+    @NotNull
+    private T getAsync() {
+        if (handlerSupplier.methodWriterInterceptorReturns() != null)
+            throw new IllegalStateException("async is not supported with methodWriterInterceptorReturns");
+        for (Class<?> anInterface : interfaces) {
+            for (Method method : anInterface.getMethods()) {
+                Class<?> returnType = method.getReturnType();
+                if (returnType.isInterface() && !Jvm.dontChain(returnType))
+                    throw new IllegalStateException("async is not supported with chained method " + method);
+            }
+        }
+        MethodArgumentsInterceptor callerInterceptor = this.argumentsInterceptor;
+        UpdateInterceptor updateInterceptor = this.updateInterceptor;
+        MethodWriterListener methodWriterListener = this.methodWriterListener;
+        MethodMetrics metrics = this.metrics;
+        try {
+            handlerSupplier.argumentsInterceptor(null);
+            this.argumentsInterceptor = null;
+            T target = get0();
+
+            // a batch records the history of the call which starts it
+            boolean recordHistory = batchingOut != null
+                    ? batchingOut.underlying().recordHistory()
+                    : outSupplier != null && outSupplier.get().recordHistory();
+            AsyncMethodWriter asyncWriter = new AsyncMethodWriter(target, asyncCapacity, batchingOut, recordHistory);
+            this.argumentsInterceptor = callerInterceptor == null
+                    ? asyncWriter
+                    : args -> callerInterceptor.intercept(args) && asyncWriter.intercept(args);
+            this.updateInterceptor = null;
+            this.methodWriterListener = null;
+            this.metrics = null;
+            T t = DISABLE_PROXY_GEN ? null : createInstance();
+            if (t == null)
+                throw new IllegalStateException("Unable to generate an async method writer for " + interfaces);
+            this.asyncWriter = asyncWriter;
+            return t;
+        } finally {
+            handlerSupplier.argumentsInterceptor(callerInterceptor);
+            this.argumentsInterceptor = callerInterceptor;
+            this.updateInterceptor = updateInterceptor;
+            this.methodWriterListener = methodWriterListener;
+            this.metrics = metrics;
+        }
+    }
+
+    @NotNull
+    private T get0() {
         if (proxyClass != null) {
             try {
                 Constructor<T> constructor = (Constructor) proxyClass.getConstructor(MethodWriterInvocationHandlerSupplier.class);
@@ -247,7 +309,9 @@ public class VanillaMethodWriterBuilder<T> implements Supplier<T>, MethodWriterB
                 hasMethodWriterListener(),
                 metaData,
                 useMethodIds,
-                updateInterceptor != null);
+                updateInterceptor != null,
+                metrics != null,
+                argumentsInterceptor != null);
     }
 
     private boolean hasMethodWriterListener() {
@@ -262,7 +326,12 @@ public class VanillaMethodWriterBuilder<T> implements Supplier<T>, MethodWriterB
                 recordHistory(true);
                 handlerSupplier.recordHistory(true);
             }
-            return aClass.getDeclaredConstructors()[0].newInstance(outSupplier, closeable, methodWriterListener, updateInterceptor);
+            List<Object> args = new ArrayList<>(Arrays.asList(outSupplier, closeable, methodWriterListener, updateInterceptor));
+            if (metrics != null)
+                args.add(metrics);
+            if (argumentsInterceptor != null)
+                args.add(argumentsInterceptor);
+            return aClass.getDeclaredConstructors()[0].newInstance(args.toArray());
         } catch (Exception e) {
             throw Jvm.rethrow(e);
         }
@@ -296,6 +365,105 @@ public class VanillaMethodWriterBuilder<T> implements Supplier<T>, MethodWriterB
         return this;
     }
 
+    public MethodMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * @param metrics to record the count, bytes and encode time of each method written, or null for none.
+     *                Generated writers only include the timing code when this is set.
+     * @return this
+     */
+    public VanillaMethodWriterBuilder<T> metrics(MethodMetrics metrics) {
+        this.metrics = metrics;
+        handlerSupplier.metrics(metrics);
+        return this;
+    }
+
+    public MethodArgumentsInterceptor argumentsInterceptor() {
+        return argumentsInterceptor;
+    }
+
+    /**
+     * Unlike {@link #methodWriterInterceptorReturns(MethodWriterInterceptorReturns)}, this doesn't box the arguments,
+     * nor does it prevent a generated writer being used.
+     * <p>
+     * A generated writer passes the same MethodArguments to every call, so it must only be used by one thread at a time.
+     *
+     * @param argumentsInterceptor called before each method is written, which can drop the call by returning false.
+     * @return this
+     */
+    public VanillaMethodWriterBuilder<T> argumentsInterceptor(MethodArgumentsInterceptor argumentsInterceptor) {
+        this.argumentsInterceptor = argumentsInterceptor;
+        handlerSupplier.argumentsInterceptor(argumentsInterceptor);
+        return this;
+    }
+
+    /**
+     * Append consecutive calls to a single document, rather than one document per call.
+     * The document is completed when either limit is reached or {@link BatchingMarshallableOut#flush()} is called on
+     * {@link #batchingOut()}. Must be called after the marshallableOut has been set.
+     *
+     * @param maxBatchBytes the size of document at which the batch is completed
+     * @param maxBatchCount the number of calls after which the batch is completed
+     * @return this
+     */
+    public VanillaMethodWriterBuilder<T> batch(long maxBatchBytes, int maxBatchCount) {
+        return batch(maxBatchBytes, maxBatchCount, Long.MAX_VALUE);
+    }
+
+    /**
+     * As {@link #batch(long, int)}, also completing a batch once it is <code>maxBatchNanos</code> old, either on
+     * the next call or when {@link BatchingMarshallableOut#flushIfIdle()} is called.
+     * The marshallableOut is resolved at the start of each batch.
+     *
+     * @param maxBatchBytes the size of document at which the batch is completed
+     * @param maxBatchCount the number of calls after which the batch is completed
+     * @param maxBatchNanos the age at which the batch is completed
+     * @return this
+     */
+    public VanillaMethodWriterBuilder<T> batch(long maxBatchBytes, int maxBatchCount, long maxBatchNanos) {
+        if (outSupplier == null)
+            throw new NullPointerException("marshallableOut(out) has not been set.");
+        BatchingMarshallableOut batchingOut = new BatchingMarshallableOut(outSupplier, maxBatchBytes, maxBatchCount, maxBatchNanos);
+        this.batchingOut = batchingOut;
+        this.outSupplier = () -> batchingOut;
+        handlerSupplier.marshallableOutSupplier(outSupplier);
+        return this;
+    }
+
+    /**
+     * Return a writer which only copies the arguments of each call into a ring buffer, leaving another thread to
+     * serialize them. The {@link #asyncWriter()} must be added to an EventLoop or started after the writer is built.
+     * Combined with {@link #batch(long, int)}, each group of calls replayed together is written as one batch.
+     * Interfaces with chained methods, returning another interface, are not supported.
+     *
+     * @param capacity the number of calls which can be queued before the caller waits
+     * @return this
+     */
+    public VanillaMethodWriterBuilder<T> async(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("capacity must be positive, was " + capacity);
+        this.asyncCapacity = capacity;
+        return this;
+    }
+
+    /**
+     * @return the AsyncMethodWriter of the last writer built in {@link #async(int)} mode, otherwise null
+     */
+    @Nullable
+    public AsyncMethodWriter asyncWriter() {
+        return asyncWriter;
+    }
+
+    /**
+     * @return the batching output if {@link #batch(long, int)} has been called, otherwise null
+     */
+    @Nullable
+    public BatchingMarshallableOut batchingOut() {
+        return batchingOut;
+    }
+
     public MethodWriterBuilder<T> metaData(final boolean metaData) {
         this.metaData = metaData;
         return this;
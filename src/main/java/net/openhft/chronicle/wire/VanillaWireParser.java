@@ -17,6 +17,7 @@
  */
 package net.openhft.chronicle.wire;
 
+import net.openhft.chronicle.bytes.Bytes;
 import net.openhft.chronicle.core.Jvm;
 import net.openhft.chronicle.core.util.CharSequenceComparator;
 import net.openhft.chronicle.core.util.StringUtils;
@@ -39,6 +40,11 @@ public class VanillaWireParser implements WireParser {
     private FieldNumberParselet fieldNumberParselet;
     private WireParselet lastParslet = null;
     private long lastStart = 0;
+    // open addressed hashes of the registered names, used to skip unknown binary events without decoding them.
+    private long[] nameHashes = new long[16];
+    private int nameCount = 0;
+    private boolean nonLatin1Name = false;
+    private boolean skipUnknown = false;
 
     public VanillaWireParser(@NotNull WireParselet defaultConsumer,
                              @NotNull FieldNumberParselet fieldNumberParselet) {
@@ -56,12 +62,29 @@ public class VanillaWireParser implements WireParser {
         return defaultConsumer;
     }
 
+    /**
+     * @param skipUnknown if true, binary events with a name which isn't registered are skipped without being decoded
+     *                    or passed to the default consumer, e.g. because it would only skip them anyway.
+     * @return this
+     */
+    @NotNull
+    public VanillaWireParser skipUnknown(boolean skipUnknown) {
+        this.skipUnknown = skipUnknown;
+        return this;
+    }
+
+    public boolean skipUnknown() {
+        return skipUnknown;
+    }
+
     public void parseOne(@NotNull WireIn wireIn) {
         long start = wireIn.bytes().readPosition();
         if (peekCode(wireIn) == BinaryWireCode.FIELD_NUMBER) {
             parseOneBinary(wireIn);
             return;
         }
+        if (skipUnknown && !nonLatin1Name && wireIn instanceof BinaryWire && skippedUnknown(wireIn))
+            return;
 
         @NotNull ValueIn valueIn = wireIn.readEventName(sb);
         WireParselet parslet;
@@ -110,6 +133,94 @@ public class VanillaWireParser implements WireParser {
         fieldNumberParselet.readOne(methodId, wireIn);
     }
 
+    /**
+     * Skip an event if the hash of its name bytes doesn't match any registered name.
+     *
+     * @return true if the event was skipped.
+     */
+    private boolean skippedUnknown(@NotNull WireIn wireIn) {
+        Bytes<?> bytes = wireIn.bytes();
+        long start = bytes.readPosition();
+        int code = bytes.peekUnsignedByte();
+        long nameStart;
+        int length;
+        if (code >= BinaryWireCode.FIELD_NAME0 && code <= BinaryWireCode.FIELD_NAME31) {
+            nameStart = start + 1;
+            length = code - BinaryWireCode.FIELD_NAME0;
+
+        } else if (code == BinaryWireCode.EVENT_NAME || code == BinaryWireCode.FIELD_NAME_ANY) {
+            bytes.uncheckedReadSkipOne();
+            long len = bytes.readStopBit();
+            nameStart = bytes.readPosition();
+            bytes.readPosition(start);
+            if (len <= 0 || len > bytes.readLimit() - nameStart)
+                return false;
+            length = (int) len;
+
+        } else {
+            return false;
+        }
+        // empty and numeric names are handled by the normal path
+        if (length == 0 || containsHash(hash(bytes, nameStart, length)))
+            return false;
+
+        bytes.readPosition(nameStart + length);
+        ValueIn valueIn = wireIn.getValueIn();
+        if (bytes.readRemaining() > 0)
+            valueIn.skipValue();
+        return true;
+    }
+
+    private static long hash(@NotNull Bytes<?> bytes, long offset, int length) {
+        long h = length;
+        for (int i = 0; i < length; i++)
+            h = h * 31 + bytes.peekUnsignedByte(offset + i);
+        return h == 0 ? 1 : h;
+    }
+
+    private static long hash(@NotNull CharSequence name) {
+        long h = name.length();
+        for (int i = 0; i < name.length(); i++)
+            h = h * 31 + name.charAt(i);
+        return h == 0 ? 1 : h;
+    }
+
+    private boolean containsHash(long h) {
+        int mask = nameHashes.length - 1;
+        for (int i = (int) (h ^ (h >>> 32)) & mask; ; i = (i + 1) & mask) {
+            long h2 = nameHashes[i];
+            if (h2 == h)
+                return true;
+            if (h2 == 0)
+                return false;
+        }
+    }
+
+    private void addHash(@NotNull String name) {
+        for (int i = 0; i < name.length(); i++)
+            if (name.charAt(i) > 0xFF)
+                nonLatin1Name = true;
+        long h = hash(name);
+        if (containsHash(h))
+            return;
+        if (++nameCount * 2 > nameHashes.length) {
+            long[] hashes = nameHashes;
+            nameHashes = new long[hashes.length * 2];
+            for (long h2 : hashes)
+                if (h2 != 0)
+                    insertHash(h2);
+        }
+        insertHash(h);
+    }
+
+    private void insertHash(long h) {
+        int mask = nameHashes.length - 1;
+        int i = (int) (h ^ (h >>> 32)) & mask;
+        while (nameHashes[i] != 0)
+            i = (i + 1) & mask;
+        nameHashes[i] = h;
+    }
+
     @NotNull
     @Override
     public VanillaWireParser register(@NotNull WireKey key, WireParselet valueInConsumer) {
@@ -123,6 +234,7 @@ public class VanillaWireParser implements WireParser {
 
     private VanillaWireParser register(String keyName, int code, WireParselet valueInConsumer) {
         namedConsumer.put(keyName, valueInConsumer);
+        addHash(keyName);
         numberedConsumer.put(code, new AbstractMap.SimpleEntry<>(keyName, valueInConsumer));
         return this;
     }
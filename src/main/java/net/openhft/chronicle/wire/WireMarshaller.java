@@ -56,6 +56,7 @@ public class WireMarshaller<T> {
     final TreeMap<CharSequence, FieldAccess> fieldMap = new TreeMap<>(WireMarshaller::compare);
 
     private final boolean isLeaf;
+    private final boolean copiesByValue;
     @Nullable
     private final T defaultValue;
 
@@ -67,9 +68,12 @@ public class WireMarshaller<T> {
         this.fields = fields;
         this.isLeaf = isLeaf;
         this.defaultValue = defaultValue;
+        boolean copiesByValue = true;
         for (FieldAccess field : fields) {
             fieldMap.put(field.key.name(), field);
+            copiesByValue &= field.copiesByValue();
         }
+        this.copiesByValue = copiesByValue;
     }
 
     @NotNull
@@ -335,6 +339,30 @@ public class WireMarshaller<T> {
         }
     }
 
+    /**
+     * Copy every field from one object to another, without encoding them.
+     *
+     * @param from to copy
+     * @param to   to overwrite
+     */
+    public void copyTo(T from, T to) {
+        try {
+            for (FieldAccess field : fields) {
+                field.copy(from, to);
+            }
+        } catch (IllegalAccessException e) {
+            // should never happen as the types should match.
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * @return true if {@link #copyTo(Object, Object)} leaves no mutable field shared by both objects.
+     */
+    public boolean copiesByValue() {
+        return copiesByValue;
+    }
+
     public boolean isLeaf() {
         return isLeaf;
     }
@@ -509,6 +537,19 @@ public class WireMarshaller<T> {
             return Objects.equals(v1, v2);
         }
 
+        /**
+         * @return true if {@link #copy(Object, Object)} copies the value rather than a reference to mutable state.
+         */
+        protected boolean copiesByValue() {
+            Class<?> type = field.getType();
+            return type.isPrimitive()
+                    || type.isEnum()
+                    || type == String.class
+                    || type == Boolean.class
+                    || type == Character.class
+                    || (Number.class.isAssignableFrom(type) && type.getName().startsWith("java.lang."));
+        }
+
         protected void copy(Object from, Object to) throws IllegalAccessException {
             // checks for null
             //noinspection ResultOfMethodCallIgnored
@@ -719,6 +760,11 @@ public class WireMarshaller<T> {
             return StringUtils.isEqual((StringBuilder) field.get(o1), (StringBuilder) field.get(o2));
         }
 
+        @Override
+        protected boolean copiesByValue() {
+            return true;
+        }
+
         @Override
         protected void copy(Object from, Object to) {
             final StringBuilder fromSequence = (StringBuilder) unsafeGetObject(from, offset);
@@ -780,6 +826,11 @@ public class WireMarshaller<T> {
             bytes.write(bytesField);
         }
 
+        @Override
+        protected boolean copiesByValue() {
+            return true;
+        }
+
         @Override
         protected void copy(Object from, Object to) {
             Bytes fromBytes = (Bytes) unsafeGetObject(from, offset);
@@ -1663,7 +1714,7 @@ public class WireMarshaller<T> {
 
     static class LongConversionFieldAccess extends FieldAccess {
         @NotNull
-        private final LongConverter longConverter;
+        final LongConverter longConverter;
 
         LongConversionFieldAccess(@NotNull Field field, @NotNull LongConversion longConversion) {
             super(field);
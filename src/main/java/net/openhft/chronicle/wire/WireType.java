@@ -299,6 +299,16 @@ public enum WireType implements Function<Bytes, Wire>, LicenceCheck {
             return new YamlWire(bytes).useBinaryDocuments();
         }
     },
+    /**
+     * JSON with a document per line rather than size headers, see {@link NDJSONWire}
+     */
+    NDJSON {
+        @NotNull
+        @Override
+        public Wire apply(@NotNull Bytes bytes) {
+            return new NDJSONWire(bytes);
+        }
+    },
     RAW {
         @NotNull
         @Override
@@ -391,6 +401,9 @@ public enum WireType implements Function<Bytes, Wire>, LicenceCheck {
         if (wire instanceof YamlWire)
             return WireType.YAML;
 
+        if (wire instanceof NDJSONWire)
+            return WireType.NDJSON;
+
         if (wire instanceof JSONWire)
             return WireType.JSON;
 
@@ -35,7 +35,11 @@ public enum YamlToken {
     ALIAS,
     RESERVED,
     STREAM_END,
-    STREAM_START(STREAM_END);
+    STREAM_START(STREAM_END),
+    /**
+     * The input received so far ends part way through the next token, see {@link YamlTokeniser#moreInput(boolean)}
+     */
+    INCOMPLETE;
 
     public final YamlToken toEnd;
 
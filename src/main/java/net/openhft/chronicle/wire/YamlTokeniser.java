@@ -29,6 +29,8 @@ import java.util.Set;
 public class YamlTokeniser {
 
     static final int NO_INDENT = -1;
+    // how far past the end of a token the tokeniser can look to decide what it is e.g. "---" followed by a space
+    private static final int LOOK_AHEAD = 3;
     static final Set<YamlToken> NO_TEXT = EnumSet.of(
             YamlToken.SEQUENCE_START,
             YamlToken.SEQUENCE_ENTRY,
@@ -50,6 +52,18 @@ public class YamlTokeniser {
     char blockQuote = 0;
     boolean hasSequenceEntry;
     long lastKeyPosition = -1;
+    private boolean moreInput = false;
+    // the state saved before each token when more input is expected, so a token which is cut short can be reread
+    private YTContext[] savedContexts = {};
+    private YamlToken[] savedTokens = {};
+    private int[] savedIndents = {};
+    private YamlKeys[] savedKeys = {};
+    private int[] savedKeyCounts = {};
+    private int savedSize;
+    private long savedPosition, savedLineStart, savedBlockStart, savedBlockEnd, savedLastKeyPosition;
+    private int savedFlowDepth;
+    private char savedBlockQuote;
+    private boolean savedHasSequenceEntry;
 
     public YamlTokeniser(BytesIn in) {
         this.in = in;
@@ -64,7 +78,8 @@ public class YamlTokeniser {
         contexts.forEach(freeContexts::add);
         contexts.clear();
         if (temp != null) temp.clear();
-        lineStart = 0;
+        // the input is read from the start of a line
+        lineStart = in.readPosition();
         flowDepth = Integer.MAX_VALUE;
         blockQuote = 0;
         hasSequenceEntry = false;
@@ -101,10 +116,109 @@ public class YamlTokeniser {
             YamlToken next = popPushed();
             return last = next;
         }
+        if (moreInput)
+            return nextOrIncomplete(minIndent);
         YamlToken next = next0(minIndent);
         return this.last = next;
     }
 
+    /**
+     * Set whether more bytes may be appended to the input, e.g. as they are received from a socket.
+     * <p>
+     * While this is set, a token which reaches the end of the input received so far isn't returned as it might
+     * be cut short. Instead the tokeniser goes back to where it was before that token, keeping its contexts, and
+     * {@link #next()} returns {@link YamlToken#INCOMPLETE} so it can be called again once more bytes have arrived.
+     * Once the last bytes have been appended, this should be set to false so the remaining tokens are read.
+     */
+    public void moreInput(boolean moreInput) {
+        this.moreInput = moreInput;
+    }
+
+    public boolean moreInput() {
+        return moreInput;
+    }
+
+    private YamlToken nextOrIncomplete(int minIndent) {
+        save();
+        YamlToken next;
+        try {
+            next = next0(minIndent);
+        } catch (RuntimeException e) {
+            if (in.readLimit() - in.readPosition() >= LOOK_AHEAD)
+                throw e;
+            next = null;
+        }
+        if (next != null && in.readLimit() - in.readPosition() >= LOOK_AHEAD)
+            return this.last = next;
+        restore();
+        return YamlToken.INCOMPLETE;
+    }
+
+    private void save() {
+        int size = contextSize();
+        if (savedContexts.length < size) {
+            int length = Math.max(8, size * 2);
+            savedContexts = new YTContext[length];
+            savedTokens = new YamlToken[length];
+            savedIndents = new int[length];
+            savedKeys = new YamlKeys[length];
+            savedKeyCounts = new int[length];
+        }
+        for (int i = 0; i < size; i++) {
+            YTContext context = contexts.get(i);
+            savedContexts[i] = context;
+            savedTokens[i] = context.token;
+            savedIndents[i] = context.indent;
+            savedKeys[i] = context.keys;
+            savedKeyCounts[i] = context.keys == null ? 0 : context.keys.count;
+        }
+        savedSize = size;
+        savedPosition = in.readPosition();
+        savedLineStart = lineStart;
+        savedBlockStart = blockStart;
+        savedBlockEnd = blockEnd;
+        savedLastKeyPosition = lastKeyPosition;
+        savedFlowDepth = flowDepth;
+        savedBlockQuote = blockQuote;
+        savedHasSequenceEntry = hasSequenceEntry;
+    }
+
+    private void restore() {
+        // contexts pushed while reading the token are free again, and those popped are in use again
+        for (YTContext context : contexts)
+            if (!wasSaved(context))
+                freeContexts.add(context);
+        contexts.clear();
+        for (int i = 0; i < savedSize; i++) {
+            YTContext context = savedContexts[i];
+            for (int j = freeContexts.size() - 1; j >= 0; j--)
+                if (freeContexts.get(j) == context)
+                    freeContexts.remove(j);
+            context.token = savedTokens[i];
+            context.indent = savedIndents[i];
+            context.keys = savedKeys[i];
+            if (context.keys != null)
+                context.keys.count = savedKeyCounts[i];
+            contexts.add(context);
+        }
+        pushed.clear();
+        in.readPosition(savedPosition);
+        lineStart = savedLineStart;
+        blockStart = savedBlockStart;
+        blockEnd = savedBlockEnd;
+        lastKeyPosition = savedLastKeyPosition;
+        flowDepth = savedFlowDepth;
+        blockQuote = savedBlockQuote;
+        hasSequenceEntry = savedHasSequenceEntry;
+    }
+
+    private boolean wasSaved(YTContext context) {
+        for (int i = 0; i < savedSize; i++)
+            if (savedContexts[i] == context)
+                return true;
+        return false;
+    }
+
     YamlToken next0(int minIndent) {
         consumeWhitespace();
         blockStart = blockEnd = in.readPosition();
@@ -573,6 +687,9 @@ public class YamlTokeniser {
             int ch = in.readUnsignedByte();
             if (ch == '\\') {
                 ch = in.readUnsignedByte();
+                // an escaped double quote doesn't end a double quoted string
+                if (ch == '"' && stop == '"')
+                    continue;
             }
             if (ch == stop) {
                 // ignore double single quotes.
@@ -713,6 +830,29 @@ public boolean isText(String s) {
         return lastKeyPosition;
     }
 
+    /**
+     * The unread input has been moved <code>offset</code> bytes nearer the start, e.g. by {@code Bytes.compact()},
+     * so move the positions held to match. Only positions at or after the earliest of {@link #lineStart()} and the
+     * read position are still valid.
+     */
+    void shift(long offset) {
+        lineStart -= offset;
+        if (blockStart >= 0)
+            blockStart -= offset;
+        if (blockEnd >= 0)
+            blockEnd -= offset;
+        if (lastKeyPosition >= 0)
+            lastKeyPosition -= offset;
+        for (YTContext context : contexts) {
+            YamlKeys keys = context.keys;
+            if (keys == null)
+                continue;
+            long[] offsets = keys.offsets();
+            for (int i = 0; i < keys.count(); i++)
+                offsets[i] -= offset;
+        }
+    }
+
     public YamlToken rereadAndNext(long offset) {
         in.readPosition(offset);
         lineStart = offset;
@@ -82,12 +82,15 @@ public class YamlWire extends AbstractWire implements Wire {
     }
 
     private final TextValueOut valueOut = createValueOut();
+    private final EncodedNameCache nameCache = new EncodedNameCache();
     private final TextValueIn valueIn = createValueIn();
     private final StringBuilder sb = new StringBuilder();
     private final YamlTokeniser yt;
     private DefaultValueIn defaultValueIn;
     private WriteDocumentContext writeContext;
     private ReadDocumentContext readContext;
+    private TextToBinaryTranscoder transcoder;
+    private boolean moreInput;
 
     public YamlWire(@NotNull Bytes bytes, boolean use8bit) {
         super(bytes, use8bit);
@@ -312,16 +315,51 @@ public class YamlWire extends AbstractWire implements Wire {
             return bytes.toString();
     }
 
+    /**
+     * Append the next part of a document as it is received, e.g. from a socket or pipe.
+     * <p>
+     * Copying to a BinaryWire with {@link #copyTo(WireOut)} then transcodes as much as has been received so far, and
+     * carries on from where it stopped on the next call, so the document doesn't have to be buffered before it is
+     * parsed. The text copied is dropped from {@link #bytes()} so only the line being read is held. Call {@link #endOfInput()} after the last part has been fed, and copy once more to finish.
+     */
+    @NotNull
+    public YamlWire feed(@NotNull BytesStore data) {
+        bytes.write(data);
+        moreInput = true;
+        return this;
+    }
+
+    /**
+     * There is no more of the document to {@link #feed(BytesStore)}
+     */
+    @NotNull
+    public YamlWire endOfInput() {
+        moreInput = false;
+        return this;
+    }
+
     @Override
     public void copyTo(@NotNull WireOut wire) {
         if (wire instanceof YamlWire) {
             wire.bytes().write(bytes, bytes().readPosition(), bytes().readLimit());
+        } else if (wire instanceof BinaryWire) {
+            copyToBinary((BinaryWire) wire);
         } else {
             // TODO: implement copying
-            throw new UnsupportedOperationException("Not implemented yet. Can only copy TextWire format to the same format");
+            throw new UnsupportedOperationException("Not implemented yet. Can only copy TextWire format to the same format or BinaryWire");
         }
     }
 
+    YamlTokeniser tokeniser() {
+        return yt;
+    }
+
+    void copyToBinary(@NotNull BinaryWire wire) {
+        if (transcoder == null)
+            transcoder = new TextToBinaryTranscoder(bytes);
+        transcoder.copyTo(wire, moreInput);
+    }
+
     @Override
     public long readEventNumber() {
         StringBuilder sb = acquireStringBuilder();
@@ -524,6 +562,9 @@ public class YamlWire extends AbstractWire implements Wire {
     @Override
     public void clear() {
         yt.reset();
+        if (transcoder != null)
+            transcoder.reset();
+        moreInput = false;
         bytes.clear();
         valueIn.resetState();
         valueOut.resetState();
@@ -1253,6 +1294,8 @@ public class YamlWire extends AbstractWire implements Wire {
             double af = Math.abs(f);
             if (af >= 1e-3 && af < 1e6)
                 bytes.append(f);
+            else if (Float.isFinite(f))
+                DecimalText.appendFloat(bytes, f);
             else
                 bytes.append(floatToString(f));
             elementSeparator();
@@ -1291,6 +1334,8 @@ public class YamlWire extends AbstractWire implements Wire {
                 } else {
                     bytes.append(d);
                 }
+            } else if (Double.isFinite(d)) {
+                DecimalText.appendDouble(bytes, d);
             } else {
                 bytes.append(doubleToString(d));
             }
@@ -1767,8 +1812,12 @@ public class YamlWire extends AbstractWire implements Wire {
                 eventName = name.toString();
             } else {
                 prependSeparator();
-                escape(name);
-                fieldValueSeperator();
+                if (!nameCache.write(name, bytes)) {
+                    long start = bytes.writePosition();
+                    escape(name);
+                    fieldValueSeperator();
+                    nameCache.put(name, bytes, start);
+                }
             }
             return this;
         }
@@ -2059,6 +2108,14 @@ public class YamlWire extends AbstractWire implements Wire {
                         consumeAny(minIndent);
                         break;
 
+                    // in flow style only the first entry has a SEQUENCE_ENTRY
+                    case TEXT:
+                    case TAG:
+                    case MAPPING_START:
+                    case SEQUENCE_START:
+                        consumeAny(minIndent);
+                        break;
+
                     case SEQUENCE_END:
                         yt.next(minIndent);
                         return;
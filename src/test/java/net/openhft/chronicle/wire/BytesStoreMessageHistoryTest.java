@@ -0,0 +1,112 @@
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BytesStoreMessageHistoryTest extends WireTestCommon {
+
+    @Test
+    public void binaryWireBothWays() {
+        BinaryWire bw = new BinaryWire(Bytes.allocateElasticOnHeap());
+        try (BytesStoreMessageHistory history = new BytesStoreMessageHistory(8)) {
+            history.addSource(1, 0x100);
+            history.addSource(2, 0x200);
+            history.addTiming(1000);
+            history.addTiming(2000);
+            bw.writeEventName("history").marshallable(history);
+            // after the event name, marshallable length and the bytes value's length and code
+            assertEquals(bw.bytes().readRemaining() - 9 - 5 - 3, VanillaMessageHistory.marshallableSize(bw.bytes().readPosition(17)));
+            bw.bytes().readPosition(0);
+
+            VanillaMessageHistory vmh = new VanillaMessageHistory(8);
+            bw.read("history").marshallable(vmh);
+            assertEquals(2, vmh.sources());
+            assertEquals(0x200, vmh.sourceIndex(1));
+            assertEquals(3, vmh.timings());
+            assertEquals(2000, vmh.timing(1));
+
+            // and back again, with the compact form
+            bw.clear();
+            bw.writeEventName("history").marshallable(vmh.compact(true));
+            history.reset();
+            bw.read("history").marshallable(history);
+            assertEquals(2, history.sources());
+            assertEquals(2, history.lastSourceId());
+            assertEquals(0x200, history.lastSourceIndex());
+            assertEquals(4, history.timings());
+            assertEquals(1000, history.timing(0));
+        }
+    }
+
+    @Test
+    public void binaryWireIsSelfDescribing() {
+        Wire wire = WireType.BINARY.apply(Bytes.allocateElasticOnHeap());
+        try (BytesStoreMessageHistory history = new BytesStoreMessageHistory(4)) {
+            history.addSource(1, 0x100);
+            history.addTiming(1000);
+            try (DocumentContext dc = wire.writingDocument()) {
+                dc.wire().writeEventName("history").marshallable(history);
+                dc.wire().writeEventName("tick").text("EURUSD");
+            }
+        }
+        String dump = WireDumper.of(wire).asString();
+        assertTrue(dump, dump.contains("history: "));
+        assertTrue(dump, dump.contains("tick: EURUSD"));
+
+        Wire json = WireType.JSON.apply(Bytes.allocateElasticOnHeap());
+        try (DocumentContext dc = wire.readingDocument()) {
+            dc.wire().copyTo(json);
+        }
+        assertTrue(json.toString(), json.toString().contains("EURUSD"));
+        json.bytes().releaseLast();
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void textWire() {
+        try (BytesStoreMessageHistory history = new BytesStoreMessageHistory(4)) {
+            Wire wire = WireType.TEXT.apply(Bytes.from("sources: [ 3, 48 ], timings: [ 10, 20 ]"));
+            history.readMarshallable(wire);
+            assertEquals(1, history.sources());
+            assertEquals(48, history.sourceIndex(0));
+            assertEquals(2, history.timings());
+            assertEquals(20, history.timing(1));
+            assertEquals(true, history.sourceIdsEndsWith(new int[]{3}));
+            wire.bytes().releaseLast();
+        }
+    }
+
+    @Test
+    public void equalsAndCopyTo() {
+        try (BytesStoreMessageHistory history = new BytesStoreMessageHistory(4);
+             BytesStoreMessageHistory copy = new BytesStoreMessageHistory(8)) {
+            history.addSource(1, 0x100);
+            history.addTiming(1000);
+            history.addTiming(2000);
+            assertNotEquals(history, copy);
+
+            assertSame(copy, history.copyTo(copy));
+            assertEquals(history, copy);
+            assertEquals(history.hashCode(), copy.hashCode());
+
+            copy.addTiming(3000);
+            assertNotEquals(history, copy);
+
+            VanillaMessageHistory vmh = history.copyTo(new VanillaMessageHistory(4));
+            assertEquals(1, vmh.sources());
+            assertEquals(0x100, vmh.sourceIndex(0));
+            assertEquals(2, vmh.timings());
+            assertEquals(2000, vmh.timing(1));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void capacity() {
+        try (BytesStoreMessageHistory history = new BytesStoreMessageHistory(1)) {
+            history.addSource(1, 1);
+            history.addSource(2, 2);
+        }
+    }
+}
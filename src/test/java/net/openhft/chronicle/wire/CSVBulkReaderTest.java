@@ -0,0 +1,187 @@
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.OS;
+import net.openhft.chronicle.core.io.IORuntimeException;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.junit.Assert.*;
+
+public class CSVBulkReaderTest extends WireTestCommon {
+    private static final int ROWS = 5_000;
+
+    private static File writeFile(String name, String text) throws IOException {
+        File file = new File(OS.TARGET, "CSVBulkReaderTest-" + name + "-" + System.nanoTime());
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return file;
+    }
+
+    private static List<String> read(String text) throws IOException {
+        File file = writeFile("rows", text);
+        try {
+            List<String> rows = new ArrayList<>();
+            new CSVBulkReader<>(Trade.class)
+                    .threads(1)
+                    .read(file, t -> rows.add(t.toString()));
+            return rows;
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void readsRowsOnManyThreads() throws IOException {
+        StringBuilder sb = new StringBuilder("# trades\nid,symbol,qty,price,time,side,active,note,venue\n");
+        for (int i = 0; i < ROWS; i++) {
+            String time = String.format("2020-01-%02dT10:%02d:%02d.%06d", 1 + i % 28, i % 60, i / 60 % 60, i);
+            if (i % 3 == 0)
+                sb.append(String.format("%d, S%d , %d, %d.25, %s, B, true, \"n,%d\", LSE\r\n", i, i % 7, i * 10, i, time, i));
+            else
+                sb.append(String.format("%d,S%d,%d,%d.25,%s,S,false,n%d,NYSE\n", i, i % 7, i * 10, i, time, i));
+        }
+        File file = writeFile("many", sb.toString());
+        AtomicReferenceArray<Trade> trades = new AtomicReferenceArray<>(ROWS);
+        try {
+            long rows = new CSVBulkReader<>(Trade.class)
+                    .threads(4)
+                    .minChunkSize(1 << 10)
+                    .read(file, t -> assertNull(trades.getAndSet((int) t.id, t.deepCopy())));
+            assertEquals(ROWS, rows);
+        } finally {
+            file.delete();
+        }
+        for (int i = 0; i < ROWS; i++) {
+            Trade t = trades.get(i);
+            assertEquals("S" + i % 7, t.symbol);
+            assertEquals(i * 10, t.qty);
+            assertEquals(i + 0.25, t.price, 0.0);
+            String time = String.format("2020-01-%02dT10:%02d:%02d.%06d", 1 + i % 28, i % 60, i / 60 % 60, i);
+            assertEquals(MicroTimestampLongConverter.INSTANCE.parse(time), t.time);
+            assertEquals(i % 3 == 0 ? 'B' : 'S', t.side);
+            assertEquals(i % 3 == 0, t.active);
+            assertEquals((i % 3 == 0 ? "n," : "n") + i, t.note.toString());
+            assertEquals(i % 3 == 0 ? Venue.LSE : Venue.NYSE, t.venue);
+        }
+    }
+
+    @Test
+    public void quotedLineBreaksAcrossChunks() throws IOException {
+        StringBuilder sb = new StringBuilder("id,symbol,qty,note\n");
+        for (int i = 0; i < ROWS; i++) {
+            // a quoted value which would read as rows, a comment and a blank line if a chunk started inside it
+            if (i % 3 == 0)
+                sb.append(i).append(",S,1,\"a\n").append(i).append(",T,2,b\n# c\n\n\"\"d\"\"\"\n");
+            else
+                sb.append(i).append(",S,1,n").append(i).append('\n');
+        }
+        File file = writeFile("lines", sb.toString());
+        AtomicReferenceArray<Trade> trades = new AtomicReferenceArray<>(ROWS);
+        try {
+            long rows = new CSVBulkReader<>(Trade.class)
+                    .threads(4)
+                    .minChunkSize(1 << 10)
+                    .read(file, t -> assertNull(trades.getAndSet((int) t.id, t.deepCopy())));
+            assertEquals(ROWS, rows);
+        } finally {
+            file.delete();
+        }
+        for (int i = 0; i < ROWS; i++) {
+            Trade t = trades.get(i);
+            assertEquals("S", t.symbol);
+            assertEquals(i % 3 == 0 ? "a\n" + i + ",T,2,b\n# c\n\n\"d\"" : "n" + i, t.note.toString());
+        }
+    }
+
+    @Test
+    public void headerMapsColumnsByName() throws IOException {
+        assertEquals("[" +
+                        "Trade{id=1, symbol='AB', qty=0, price=1.5, side=\u0000, active=false, note=null, venue=null}, " +
+                        "Trade{id=2, symbol='CD', qty=0, price=0.0, side=\u0000, active=false, note=null, venue=null}]",
+                read("price,unknown,symbol,id\n" +
+                        "1.5,x,AB,1\n" +
+                        "\n" +
+                        "# a comment\n" +
+                        ",y,CD,2").toString());
+    }
+
+    @Test
+    public void quotedValues() throws IOException {
+        assertEquals("[" +
+                        "Trade{id=1, symbol='say \"hi\", café', qty=12, price=0.0, side=\u0000, active=false, note=a \"b\", venue=LSE}, " +
+                        "Trade{id=2, symbol='', qty=0, price=0.0, side=\u0000, active=false, note=null, venue=null}]",
+                read("\"id\",\"symbol\",\"qty\",\"note\",\"venue\"\n" +
+                        "1,\"say \"\"hi\"\", café\", \"12\" ,\"a \"\"b\"\"\",\"LSE\"\n" +
+                        "2,\"\"\n").toString());
+    }
+
+    @Test
+    public void shortRowsUseDefaults() throws IOException {
+        File file = writeFile("short", "id,qty,note\n1,10,a\n2\n");
+        try {
+            List<String> rows = new ArrayList<>();
+            new CSVBulkReader<>(Trade.class).read(file, t -> rows.add(t.id + " " + t.qty + " " + t.note));
+            assertEquals("[1 10 a, 2 0 null]", rows.toString());
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void failureHasThePosition() throws IOException {
+        try {
+            read("id,symbol\n1,\"open\n");
+            fail();
+        } catch (IORuntimeException e) {
+            assertEquals("Unable to read the row at 10", e.getMessage());
+        }
+    }
+
+    @Test
+    public void parseTimestamp() {
+        for (String time : new String[]{"2020-02-29T23:59:59", "1969-12-31T23:59:59.999", "2020/03/01T00:00:00.1", "1600-03-01T01:02:03.", "2038-01-19T03:14:08.123"}) {
+            Bytes<?> bytes = Bytes.from(time);
+            assertEquals(time, MilliTimestampLongConverter.INSTANCE.parse(time),
+                    CSVColumn.parseTimestamp(bytes, 0, bytes.readLimit(), 3));
+            assertEquals(time, NanoTimestampLongConverter.INSTANCE.parse(time),
+                    CSVColumn.parseTimestamp(bytes, 0, bytes.readLimit(), 9));
+        }
+        // left to the converter
+        for (String time : new String[]{"2021-02-29T00:00:00", "2020-01-01T00:00:00.1234", "2020-01-01 00:00:00", "1577836800000"}) {
+            Bytes<?> bytes = Bytes.from(time);
+            assertEquals(time, Long.MIN_VALUE, CSVColumn.parseTimestamp(bytes, 0, bytes.readLimit(), 3));
+        }
+    }
+
+    enum Venue {
+        LSE, NYSE
+    }
+
+    static class Trade extends SelfDescribingMarshallable {
+        long id;
+        String symbol;
+        int qty;
+        double price;
+        @LongConversion(MicroTimestampLongConverter.class)
+        long time;
+        char side;
+        boolean active;
+        StringBuilder note;
+        Venue venue;
+
+        @Override
+        public String toString() {
+            return "Trade{id=" + id + ", symbol='" + symbol + "', qty=" + qty + ", price=" + price + ", side=" + side +
+                    ", active=" + active + ", note=" + note + ", venue=" + venue + "}";
+        }
+    }
+}
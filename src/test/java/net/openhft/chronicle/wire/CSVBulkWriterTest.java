@@ -0,0 +1,170 @@
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.OS;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+public class CSVBulkWriterTest extends WireTestCommon {
+    private static final int ROWS = 5_000;
+
+    private static Report report(int i) {
+        Report r = new Report();
+        r.id = i;
+        r.symbol = i % 5 == 0 ? "say \"hi\", café" : i % 7 == 0 ? null : "S" + i % 7;
+        r.qty = i * 10;
+        r.price = i + 0.25;
+        r.time = 1_600_000_000_000_000L + i * 1_000_123L;
+        r.side = i % 2 == 0 ? 'B' : 'S';
+        r.active = i % 3 == 0;
+        r.note = new StringBuilder(i % 4 == 0 ? " padded " : "n" + i);
+        r.venue = i % 2 == 0 ? Venue.LSE : Venue.NYSE;
+        r.code = i;
+        return r;
+    }
+
+    @Test
+    public void writeRows() {
+        Bytes<?> bytes = Bytes.allocateElasticOnHeap();
+        CSVBulkWriter<Report> writer = new CSVBulkWriter<>(Report.class);
+        writer.writeHeader(bytes);
+        writer.writeRow(report(0), bytes);
+        writer.writeRow(report(1), bytes);
+        writer.writeRow(new Report(), bytes);
+        assertEquals("id,symbol,qty,price,time,side,active,note,venue,code\n" +
+                        "0,\"say \"\"hi\"\", café\",0,0.25,2020-09-13T12:26:40,B,true,\" padded \",LSE,\n" +
+                        "1,S1,10,1.25,2020-09-13T12:26:41.000123,S,false,n1,NYSE,A\n" +
+                        "0,,0,0.0,0,,false,,,\n",
+                new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void chosenColumns() {
+        Bytes<?> bytes = Bytes.allocateElasticOnHeap();
+        CSVBulkWriter<Report> writer = new CSVBulkWriter<>(Report.class, "note", "id");
+        writer.writeHeader(bytes);
+        Report report = report(3);
+        report.note.setLength(0);
+        report.note.append("#3");
+        writer.writeRow(report, bytes);
+        assertEquals("note,id\n\"#3\",3\n", bytes.toString());
+        try {
+            new CSVBulkWriter<>(Report.class, "none");
+            fail();
+        } catch (IllegalArgumentException expected) {
+            assertEquals("net.openhft.chronicle.wire.CSVBulkWriterTest$Report has no field none", expected.getMessage());
+        }
+    }
+
+    @Test
+    public void readBackInBlocks() throws IOException {
+        File file = new File(OS.TARGET, "CSVBulkWriterTest-" + System.nanoTime());
+        AtomicReferenceArray<Report> reports = new AtomicReferenceArray<>(ROWS);
+        try {
+            long written = new CSVBulkWriter<>(Report.class)
+                    .blockSize(1 << 10)
+                    .write(file, IntStream.range(0, ROWS).mapToObj(CSVBulkWriterTest::report));
+            assertEquals(ROWS, written);
+            long read = new CSVBulkReader<>(Report.class)
+                    .threads(4)
+                    .minChunkSize(1 << 10)
+                    .read(file, r -> reports.set((int) r.id, r.deepCopy()));
+            assertEquals(ROWS, read);
+        } finally {
+            file.delete();
+        }
+        for (int i = 0; i < ROWS; i++)
+            assertEquals(report(i).toString(), reports.get(i).toString());
+    }
+
+    @Test
+    public void lineBreaksInBlocks() throws IOException {
+        File file = new File(OS.TARGET, "CSVBulkWriterTest-" + System.nanoTime());
+        AtomicReferenceArray<Report> reports = new AtomicReferenceArray<>(ROWS);
+        try {
+            long written = new CSVBulkWriter<>(Report.class)
+                    .blockSize(1 << 10)
+                    .write(file, IntStream.range(0, ROWS).mapToObj(CSVBulkWriterTest::multiLineReport));
+            assertEquals(ROWS, written);
+            long read = new CSVBulkReader<>(Report.class)
+                    .threads(4)
+                    .minChunkSize(1 << 10)
+                    .read(file, r -> reports.set((int) r.id, r.deepCopy()));
+            assertEquals(ROWS, read);
+        } finally {
+            file.delete();
+        }
+        for (int i = 0; i < ROWS; i++)
+            assertEquals(multiLineReport(i).toString(), reports.get(i).toString());
+    }
+
+    private static Report multiLineReport(int i) {
+        Report r = report(i);
+        // lines which would read as a row, a comment or a blank line if a chunk started there
+        if (i % 3 == 0)
+            r.note = new StringBuilder("first, \"line\"\n" + i + ",S1,10\n# not a comment\n\r\n\nlast " + i);
+        return r;
+    }
+
+    @Test
+    public void writeIterable() throws IOException {
+        File file = new File(OS.TARGET, "CSVBulkWriterTest-" + System.nanoTime());
+        try {
+            List<Report> reports = new ArrayList<>();
+            reports.add(report(1));
+            assertEquals(1, new CSVBulkWriter<>(Report.class, "id", "qty").write(file, reports));
+            assertEquals("id,qty\n1,10\n", new String(Files.readAllBytes(file.toPath())));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void appendTimestamp() {
+        Random random = new Random(1);
+        Bytes<?> bytes = Bytes.allocateElasticOnHeap();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            long time = random.nextLong() % 250_000_000_000_000L;
+            if (i % 3 == 0)
+                time -= time % 1_000_000;
+            bytes.clear();
+            sb.setLength(0);
+            assertTrue(CSVColumn.appendTimestamp(bytes, time, 6));
+            MicroTimestampLongConverter.INSTANCE.append(sb, time);
+            assertEquals(sb.toString(), bytes.toString());
+        }
+        // past 9999 is left to the converter
+        assertFalse(CSVColumn.appendTimestamp(bytes, 253_402_300_800_000L, 3));
+    }
+
+    enum Venue {
+        LSE, NYSE
+    }
+
+    static class Report extends SelfDescribingMarshallable {
+        long id;
+        String symbol;
+        int qty;
+        double price;
+        @LongConversion(MicroTimestampLongConverter.class)
+        long time;
+        char side;
+        boolean active;
+        StringBuilder note;
+        Venue venue;
+        @LongConversion(Base64LongConverter.class)
+        long code;
+    }
+}
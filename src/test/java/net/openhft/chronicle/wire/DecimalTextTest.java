@@ -0,0 +1,118 @@
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class DecimalTextTest extends WireTestCommon {
+    private static String doubleText(double d) {
+        Bytes<?> bytes = Bytes.allocateElasticOnHeap(32);
+        DecimalText.appendDouble(bytes, d);
+        return bytes.toString();
+    }
+
+    private static String floatText(float f) {
+        Bytes<?> bytes = Bytes.allocateElasticOnHeap(32);
+        DecimalText.appendFloat(bytes, f);
+        return bytes.toString();
+    }
+
+    @Test
+    public void shortestDouble() {
+        assertEquals("0.0", doubleText(0.0));
+        assertEquals("-0.0", doubleText(-0.0));
+        assertEquals("1.0", doubleText(1.0));
+        assertEquals("0.1", doubleText(0.1));
+        assertEquals("0.001", doubleText(0.001));
+        assertEquals("1.0E-4", doubleText(1e-4));
+        assertEquals("1.0E7", doubleText(1e7));
+        assertEquals("1234567.0", doubleText(1234567));
+        assertEquals("1.0E23", doubleText(1e23));
+        assertEquals("4.9E-324", doubleText(Double.MIN_VALUE));
+        assertEquals("1.7976931348623157E308", doubleText(Double.MAX_VALUE));
+        assertEquals("2.2250738585072014E-308", doubleText(Double.MIN_NORMAL));
+        // Double.toString before Java 19 writes more digits than needed for these
+        assertEquals("2.82879384806159E17", doubleText(2.82879384806159E17));
+        assertEquals("1.9400994884341945E25", doubleText(1.9400994884341945E25));
+        assertEquals("NaN", doubleText(Double.NaN));
+        assertEquals("-Infinity", doubleText(Double.NEGATIVE_INFINITY));
+    }
+
+    @Test
+    public void shortestFloat() {
+        assertEquals("0.0", floatText(0.0f));
+        assertEquals("0.1", floatText(0.1f));
+        assertEquals("1.0E10", floatText(1e10f));
+        assertEquals("-1.0E-5", floatText(-1e-5f));
+        assertEquals("1.4E-45", floatText(Float.MIN_VALUE));
+        assertEquals("3.4028235E38", floatText(Float.MAX_VALUE));
+        assertEquals("1.1754944E-38", floatText(Float.MIN_NORMAL));
+        assertEquals("Infinity", floatText(Float.POSITIVE_INFINITY));
+    }
+
+    @Test
+    public void roundTrip() {
+        Random random = new Random(1);
+        for (int i = 0; i < 200_000; i++) {
+            double d = Double.longBitsToDouble(random.nextLong());
+            if (Double.isNaN(d))
+                continue;
+            String text = doubleText(d);
+            assertEquals(text, d, Double.parseDouble(text), 0.0);
+            // never longer than the JDK's own output
+            assertEquals(text, true, text.length() <= Double.toString(d).length());
+
+            float f = Float.intBitsToFloat(random.nextInt());
+            if (Float.isNaN(f))
+                continue;
+            String ftext = floatText(f);
+            assertEquals(ftext, f, Float.parseFloat(ftext), 0.0f);
+        }
+    }
+
+    @Test
+    public void parseDoubleMatchesBytes() {
+        String[] texts = {"0", "-0.0", "1.5", "1.5}", "12.25,", "1e3]", "1e3,", "-1.5E-3 ", "7.5e-6\n", ".5", "1.", "1e+2", "1_000",
+                "12345678901234567890", "0.000000000000000000001", "1e400", "", "-", "123456789.123456789", "1.2.3"};
+        for (String text : texts)
+            assertParsedAs(text);
+
+        Random random = new Random(2);
+        for (int i = 0; i < 100_000; i++) {
+            double d = random.nextInt(1_000_000) / Math.pow(10, random.nextInt(12));
+            assertParsedAs(Double.toString(d) + (i % 2 == 0 ? "," : ""));
+            // the JDK's shortest text reads back as the same double when parsed exactly
+            assertEquals(Double.doubleToLongBits(d), Double.doubleToLongBits(DecimalText.parseDouble(Bytes.from(Double.toString(d)))));
+            assertParsedAs(Long.toString(random.nextLong() >> random.nextInt(64)));
+        }
+    }
+
+    private static void assertParsedAs(String text) {
+        Bytes<?> expected = Bytes.from(text);
+        double value = expected.parseDouble();
+        Bytes<?> actual = Bytes.from(text);
+        assertEquals(text, value, DecimalText.parseDouble(actual), 0.0);
+        assertEquals(text, expected.readPosition(), actual.readPosition());
+        assertEquals(text, expected.lastDecimalPlaces(), actual.lastDecimalPlaces());
+    }
+
+    @Test
+    public void textWire() {
+        Wire wire = WireType.TEXT.apply(Bytes.allocateElasticOnHeap());
+        wire.write("a").float64(1.9400994884341945E25)
+                .write("b").float64(-2.5E-12)
+                .write("c").float32(1.0E10f)
+                .write("d").float64(0.125);
+        assertEquals("a: 1.9400994884341945E25\n" +
+                "b: -2.5E-12\n" +
+                "c: 1.0E10\n" +
+                "d: 0.125\n", wire.toString());
+        assertEquals(1.9400994884341945E25, wire.read("a").float64(), 0.0);
+        assertEquals(-2.5E-12, wire.read("b").float64(), 0.0);
+        assertEquals(1.0E10f, wire.read("c").float32(), 0.0f);
+        assertEquals(0.125, wire.read("d").float64(), 0.0);
+    }
+}
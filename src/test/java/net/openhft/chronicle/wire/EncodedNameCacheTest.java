@@ -0,0 +1,80 @@
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class EncodedNameCacheTest extends WireTestCommon {
+    @Test
+    public void copiesTheNameAndSeparator() {
+        Bytes<?> bytes = Bytes.allocateElasticOnHeap();
+        EncodedNameCache cache = new EncodedNameCache();
+        String name = "field";
+        assertFalse(cache.write(name, bytes));
+        bytes.append("\"field\":");
+        cache.put(name, bytes, 0);
+
+        bytes.clear();
+        assertTrue(cache.write(name, bytes));
+        assertEquals("\"field\":", bytes.toString());
+        // equal but not the same instance
+        assertFalse(cache.write(new String(name), bytes));
+        bytes.releaseLast();
+    }
+
+    @Test
+    public void collidingNamesUseTwoSlots() {
+        Bytes<?> bytes = Bytes.allocateElasticOnHeap();
+        EncodedNameCache cache = new EncodedNameCache();
+        String[] names = {"AaAa", "BBBB", "AaBB"};
+        assertEquals(names[0].hashCode(), names[2].hashCode());
+        for (String name : names) {
+            long start = bytes.writePosition();
+            bytes.append(name).append(": ");
+            cache.put(name, bytes, start);
+        }
+        bytes.clear();
+        assertTrue(cache.write(names[0], bytes));
+        assertTrue(cache.write(names[1], bytes));
+        assertFalse(cache.write(names[2], bytes));
+        assertEquals("AaAa: BBBB: ", bytes.toString());
+        bytes.releaseLast();
+    }
+
+    @Test
+    public void text() {
+        assertEquals("" +
+                        "dto: {\n" +
+                        "  name: one,\n" +
+                        "  \"a:b\": 1,\n" +
+                        "  value: 1.5\n" +
+                        "}\n" +
+                        "dto: {\n" +
+                        "  name: one,\n" +
+                        "  \"a:b\": 1,\n" +
+                        "  value: 1.5\n" +
+                        "}\n",
+                writeTwice(WireType.TEXT));
+    }
+
+    @Test
+    public void json() {
+        assertEquals("" +
+                        "\"dto\":{\"name\":\"one\",\"a:b\":1,\"value\":1.5}, " +
+                        "\"dto\":{\"name\":\"one\",\"a:b\":1,\"value\":1.5}",
+                writeTwice(WireType.JSON));
+    }
+
+    private static String writeTwice(WireType wireType) {
+        Wire wire = wireType.apply(Bytes.allocateElasticOnHeap());
+        for (int i = 0; i < 2; i++)
+            wire.write("dto").marshallable(m -> m
+                    .write("name").text("one")
+                    .write("a:b").int32(1)
+                    .write("value").float64(1.5));
+        String s = wire.toString();
+        wire.bytes().releaseLast();
+        return s;
+    }
+}
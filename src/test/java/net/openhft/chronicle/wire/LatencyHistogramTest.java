@@ -0,0 +1,50 @@
+package net.openhft.chronicle.wire;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest extends WireTestCommon {
+    @Test
+    public void bucketsAreMonotonic() {
+        int last = -1;
+        for (long v = 0; v < 1 << 20; v++) {
+            int bucket = LatencyHistogram.bucketFor(v);
+            assertTrue(bucket >= last);
+            assertTrue(v <= LatencyHistogram.upperValueFor(bucket));
+            last = bucket;
+        }
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucketFor(Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.upperValueFor(LatencyHistogram.BUCKETS - 1));
+    }
+
+    @Test
+    public void percentiles() {
+        LatencyHistogram h = new LatencyHistogram();
+        assertEquals(0, h.percentile(0.5));
+        for (int i = 1; i <= 1000; i++)
+            h.sample(i * 1000L);
+        assertEquals(1000, h.count());
+        assertEquals(1_000_000, h.max());
+        long p50 = h.percentile(0.5);
+        assertTrue("p50=" + p50, 500_000 <= p50 && p50 <= 500_000 * 9 / 8);
+        long p99 = h.percentile(0.99);
+        assertTrue("p99=" + p99, 990_000 <= p99 && p99 <= 1_000_000);
+
+        LatencyHistogram.Summary summary = h.summary();
+        assertEquals(1000, summary.count());
+        assertEquals(p50, summary.p50());
+        LatencyHistogram.Summary summary2 = Marshallable.fromString(summary.toString());
+        assertEquals(summary, summary2);
+
+        LatencyHistogram h2 = new LatencyHistogram();
+        h2.sample(2_000_000);
+        h2.add(h);
+        assertEquals(1001, h2.count());
+        assertEquals(2_000_000, h2.max());
+
+        h.reset();
+        assertEquals(0, h.count());
+        assertEquals(0, h.max());
+    }
+}
@@ -1,9 +1,11 @@
 package net.openhft.chronicle.wire;
 
+import net.openhft.chronicle.bytes.Bytes;
 import net.openhft.chronicle.bytes.HexDumpBytes;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class MessageHistoryTest extends WireTestCommon {
@@ -55,6 +57,106 @@ public class MessageHistoryTest extends WireTestCommon {
         bw.bytes().releaseLast();
     }
 
+    @Test
+    public void compactBinary() {
+        VanillaMessageHistory history = new SetTimeMessageHistory().compact(true);
+        history.addSource(1, 0xff);
+        history.addSource(2, 0xfff);
+        history.addTiming(120962203510000L);
+        history.addTiming(120962203515000L);
+
+        BinaryWire bw = new BinaryWire(new HexDumpBytes());
+        bw.writeEventName("history").marshallable(history);
+        assertEquals("" +
+                "b9 07 68 69 73 74 6f 72 79                      # history\n" +
+                "82 1a 00 00 00 80 18 8a 9f 14 00 02 01 ff 01 02 # SetTimeMessageHistory\n" +
+                "ff 1f 03 f0 e4 2b b5 03 6e 00 00 88 27 f4 4e\n", bw.bytes().toHexString());
+
+        // read back by a history which isn't compact
+        VanillaMessageHistory history2 = new VanillaMessageHistory();
+        bw.read("history").marshallable(history2);
+        assertEquals(2, history2.sources());
+        assertEquals(0xfff, history2.sourceIndex(1));
+        assertEquals(3, history2.timings());
+        assertEquals(120962203515000L, history2.timing(1));
+        assertEquals(120962203520100L, history2.timing(2));
+        bw.bytes().releaseLast();
+    }
+
+    @Test
+    public void compactBinaryIsSelfDescribing() {
+        VanillaMessageHistory history = new SetTimeMessageHistory().compact(true);
+        history.addSource(1, 0xff);
+        history.addTiming(120962203510000L);
+
+        Wire wire = WireType.BINARY.apply(Bytes.allocateElasticOnHeap());
+        try (DocumentContext dc = wire.writingDocument()) {
+            dc.wire().writeEventName("history").marshallable(history);
+            dc.wire().writeEventName("tick").text("EURUSD");
+        }
+        String dump = WireDumper.of(wire).asString();
+        assertTrue(dump, dump.contains("history: "));
+        assertTrue(dump, dump.contains("tick: EURUSD"));
+
+        Wire yaml = WireType.YAML.apply(Bytes.allocateElasticOnHeap());
+        try (DocumentContext dc = wire.readingDocument()) {
+            dc.wire().copyTo(yaml);
+        }
+        assertTrue(yaml.toString(), yaml.toString().contains("tick: EURUSD"));
+        yaml.bytes().releaseLast();
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void compactBytes() {
+        VanillaMessageHistory history = new SetTimeMessageHistory().compact(true);
+        history.addSource(3, -1);
+        history.addTiming(120962203510000L);
+
+        Bytes<?> bytes = Bytes.allocateElasticOnHeap();
+        history.writeMarshallable(bytes);
+        assertEquals(bytes.readRemaining(), VanillaMessageHistory.marshallableSize(bytes));
+        assertEquals(18, bytes.readRemaining());
+
+        VanillaMessageHistory history2 = new VanillaMessageHistory();
+        history2.readMarshallable(bytes);
+        assertEquals(0, bytes.readRemaining());
+        assertEquals(1, history2.sources());
+        assertEquals(3, history2.sourceId(0));
+        assertEquals(-1, history2.sourceIndex(0));
+        assertEquals(2, history2.timings());
+        assertEquals(120962203510000L, history2.timing(0));
+        assertEquals(120962203520100L, history2.timing(1));
+
+        // the original form is still read
+        bytes.clear();
+        history.compact(false).writeMarshallable(bytes);
+        assertEquals(bytes.readRemaining(), VanillaMessageHistory.marshallableSize(bytes));
+        history2.readMarshallable(bytes);
+        assertEquals(2, history2.timings());
+        assertEquals(120962203520200L, history2.timing(1));
+        bytes.releaseLast();
+    }
+
+    @Test
+    public void capacity() {
+        VanillaMessageHistory history = new VanillaMessageHistory(2);
+        assertEquals(2, history.capacity());
+        history.addSource(1, 1);
+        history.addSource(2, 2);
+        try {
+            history.addSource(3, 3);
+            fail();
+        } catch (IllegalStateException e) {
+            // all good
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void capacityTooLarge() {
+        new VanillaMessageHistory(VanillaMessageHistory.MESSAGE_HISTORY_LENGTH + 1);
+    }
+
     static class SetTimeMessageHistory extends VanillaMessageHistory {
         long nanoTime = 120962203520000L;
 
@@ -6,6 +6,7 @@ package net.openhft.chronicle.wire;
 
 import org.junit.Test;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 public class MessagePathClassifierTest extends WireTestCommon {
@@ -32,6 +33,31 @@ public class MessagePathClassifierTest extends WireTestCommon {
         assertEquals(0, mpc.pathFor(messageHistory("sources: [ 1, 0, 2, 0, 5, 0 ]")));
     }
 
+    @Test
+    public void pathsFor() {
+        MessagePathClassifier mpc = new MessagePathClassifier();
+        // enough routes to resize the trie
+        for (int i = 1; i <= 200; i++)
+            mpc.addPathForSourcesEnding(i * 10, i, i + 1, i + 2);
+        mpc.addPathForSourcesEnding(1, 102);
+
+        MessageHistory[] histories = {
+                messageHistory("sources: [ 7, 0, 100, 0, 101, 0, 102, 0 ]"),
+                messageHistory("sources: [ 7, 0, 101, 0, 102, 0 ]"),
+                messageHistory("sources: [ 1, 0, 2, 0, 3, 0 ]")
+        };
+        int[] pathIds = new int[4];
+        mpc.pathsFor(histories, histories.length, pathIds);
+        assertArrayEquals(new int[]{1000, 1, 10, 0}, pathIds);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void noPath() {
+        new MessagePathClassifier()
+                .addPathForSourcesEnding(4, 4)
+                .pathFor(messageHistory("sources: [ 3, 0 ]"));
+    }
+
     @Test
     public void addPathForSourcesEnding() {
         new MessagePathClassifier()
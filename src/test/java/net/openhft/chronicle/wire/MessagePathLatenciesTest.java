@@ -0,0 +1,67 @@
+package net.openhft.chronicle.wire;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class MessagePathLatenciesTest extends WireTestCommon {
+    private static VanillaMessageHistory history(int[] sources, long... timings) {
+        VanillaMessageHistory history = new VanillaMessageHistory();
+        for (int source : sources)
+            history.addSource(source, 0);
+        for (long timing : timings)
+            history.addTiming(timing);
+        return history;
+    }
+
+    @Test
+    public void sample() {
+        MessagePathClassifier classifier = new MessagePathClassifier()
+                .addPathForSourcesEnding(0, 1, 2)
+                .addPathForSourcesEnding(1, 3);
+        MessagePathLatencies latencies = new MessagePathLatencies(classifier, 2, 2);
+
+        for (int i = 0; i < 10; i++)
+            latencies.sample(history(new int[]{1, 2}, 1000, 1010 + i, 1100));
+        latencies.sample(history(new int[]{3}, 5000, 5003, 5006, 5010));
+        latencies.sample(history(new int[]{4}, 1, 2));
+
+        assertEquals(10, latencies.endToEnd(0).count());
+        assertEquals(100, latencies.endToEnd(0).max());
+        assertEquals(19, latencies.hop(0, 0).max());
+        assertEquals(90, latencies.hop(0, 1).max());
+        // the third hop of path 1 is only in the end to end time
+        assertEquals(10, latencies.endToEnd(1).max());
+        assertEquals(1, latencies.unclassified());
+
+        assertEquals("" +
+                        "!net.openhft.chronicle.wire.MessagePathLatencies$Snapshot {\n" +
+                        "  unclassified: 1,\n" +
+                        "  paths: [\n" +
+                        "    {\n" +
+                        "      pathId: 0,\n" +
+                        "      endToEnd: { count: 10, p50: 100, p90: 100, p99: 100, p999: 100, max: 100 },\n" +
+                        "      hops: [\n" +
+                        "        { count: 10, p50: 14, p90: 19, p99: 19, p999: 19, max: 19 },\n" +
+                        "        { count: 10, p50: 87, p90: 90, p99: 90, p999: 90, max: 90 }\n" +
+                        "      ]\n" +
+                        "    },\n" +
+                        "    {\n" +
+                        "      pathId: 1,\n" +
+                        "      endToEnd: { count: 1, p50: 10, p90: 10, p99: 10, p999: 10, max: 10 },\n" +
+                        "      hops: [\n" +
+                        "        { count: 1, p50: 3, p90: 3, p99: 3, p999: 3, max: 3 },\n" +
+                        "        { count: 1, p50: 3, p90: 3, p99: 3, p999: 3, max: 3 }\n" +
+                        "      ]\n" +
+                        "    }\n" +
+                        "  ]\n" +
+                        "}\n",
+                latencies.snapshot().toString());
+
+        latencies.reset();
+        assertEquals(0, latencies.endToEnd(0).count());
+        assertEquals(0, latencies.unclassified());
+        assertNull(new MessagePathLatencies(classifier, 2, 2).endToEnd(0));
+    }
+}
@@ -0,0 +1,164 @@
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.MethodReader;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class NDJSONWireTest extends WireTestCommon {
+    @Test
+    public void methodWriterAndReader() {
+        Wire wire = WireType.NDJSON.apply(Bytes.allocateElasticOnHeap());
+        assertEquals(WireType.NDJSON, WireType.valueOf(wire));
+        Events events = wire.methodWriter(Events.class);
+        events.order("ABC", 1_000, 1);
+        events.hello("line\nbreak \"quoted\" {}");
+        events.dto(new Dto("one", 1.5));
+        assertEquals("" +
+                        "{\"order\":[ \"ABC\",1000,1 ]}\n" +
+                        "{\"hello\":\"line\\nbreak \\\"quoted\\\" {}\"}\n" +
+                        "{\"dto\":{\"name\":\"one\",\"value\":1.5}}\n",
+                wire.toString());
+
+        List<String> calls = new ArrayList<>();
+        MethodReader reader = wire.methodReader(new Events() {
+            @Override
+            public void order(String symbol, long qty, int side) {
+                calls.add("order " + symbol + " " + qty + " " + side);
+            }
+
+            @Override
+            public void hello(String text) {
+                calls.add("hello " + text);
+            }
+
+            @Override
+            public void dto(Dto dto) {
+                calls.add("dto " + dto.name + " " + dto.value);
+            }
+        });
+        while (reader.readOne()) {
+            // read all
+        }
+        assertEquals("[order ABC 1000 1, hello line\nbreak \"quoted\" {}, dto one 1.5]", calls.toString());
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void readsRecordsWrittenByOtherTools() {
+        NDJSONWire wire = NDJSONWire.from("" +
+                "{\"name\":\"a\",\"value\":1}\r\n" +
+                "\n" +
+                "{\"name\":\"b\\\"\\\\\",\"value\":2}\n" +
+                "{\"name\":\"c\\nc\",\"value\":3}");
+        List<String> names = new ArrayList<>();
+        while (true) {
+            try (DocumentContext dc = wire.readingDocument()) {
+                if (!dc.isPresent())
+                    break;
+                names.add(dc.wire().read("name").text() + "=" + dc.wire().read("value").int32());
+            }
+        }
+        assertEquals("[a=1, b\"\\=2, c\nc=3]", names.toString());
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void seekToTheNextRecord() {
+        Wire wire = WireType.NDJSON.apply(Bytes.allocateElasticOnHeap());
+        for (int i = 0; i < 10; i++)
+            try (DocumentContext dc = wire.writingDocument()) {
+                dc.wire().write("n").int32(i);
+            }
+        NDJSONWire ndjson = (NDJSONWire) wire;
+        // each record is {"n":i} and a newline
+        assertEquals(0, ndjson.nextRecord(0));
+        assertEquals(8, ndjson.nextRecord(1));
+        assertEquals(8, ndjson.nextRecord(8));
+        assertEquals(80, ndjson.nextRecord(75));
+        for (long pos : new long[]{0, 3, 8, 43}) {
+            try (DocumentContext dc = wire.readingDocument(pos)) {
+                assertTrue(dc.isPresent());
+                assertEquals((pos + 7) / 8, dc.wire().read("n").int32());
+            }
+        }
+        try (DocumentContext dc = wire.readingDocument(75)) {
+            assertFalse(dc.isPresent());
+        }
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void metaDataIsRejected() {
+        Wire wire = WireType.NDJSON.apply(Bytes.allocateElasticOnHeap());
+        try {
+            wire.writingDocument(true);
+            fail();
+        } catch (UnsupportedOperationException expected) {
+            assertEquals(0, wire.bytes().writePosition());
+        } finally {
+            wire.bytes().releaseLast();
+        }
+    }
+
+    @Test
+    public void partialLastLine() {
+        NDJSONWire wire = new NDJSONWire(Bytes.allocateElasticOnHeap());
+        wire.bytes().append("{\"n\":1}\n{\"n\":");
+        try (DocumentContext dc = wire.readingDocument()) {
+            assertTrue(dc.isPresent());
+            assertEquals(1, dc.wire().read("n").int32());
+        }
+        long position = wire.bytes().readPosition();
+        try (DocumentContext dc = wire.readingDocument()) {
+            assertFalse(dc.isPresent());
+            assertTrue(dc.isNotComplete());
+        }
+        assertEquals(position, wire.bytes().readPosition());
+
+        wire.bytes().append("2}");
+        try (DocumentContext dc = wire.readingDocument()) {
+            assertFalse(dc.isPresent());
+        }
+        wire.endOfInput();
+        try (DocumentContext dc = wire.readingDocument()) {
+            assertTrue(dc.isPresent());
+            assertFalse(dc.isNotComplete());
+            assertEquals(2, dc.wire().read("n").int32());
+        }
+        try (DocumentContext dc = wire.readingDocument()) {
+            assertFalse(dc.isPresent());
+        }
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void endOfRecord() {
+        Bytes<?> bytes = Bytes.from("{\"a\":\"x\\\"\\ny\",\"b\":\"\\\\\"}\n{}");
+        assertEquals(23, NDJSONWire.endOfRecord(bytes, 0, bytes.readLimit()));
+        assertEquals(bytes.readLimit(), NDJSONWire.endOfRecord(bytes, 24, bytes.readLimit()));
+        bytes.releaseLast();
+    }
+
+    interface Events {
+        void order(String symbol, long qty, int side);
+
+        void hello(String text);
+
+        void dto(Dto dto);
+    }
+
+    static class Dto extends SelfDescribingMarshallable {
+        String name;
+        double value;
+
+        Dto(String name, double value) {
+            this.name = name;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.OS;
+import net.openhft.chronicle.core.io.IORuntimeException;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ParallelDocumentLoaderTest extends WireTestCommon {
+    private static final int DOCUMENTS = 3_000;
+
+    private static File writeFile(String name, String... documents) throws IOException {
+        File file = new File(OS.TARGET, "ParallelDocumentLoaderTest-" + name + "-" + System.nanoTime());
+        try (Writer writer = new FileWriter(file)) {
+            for (int i = 0; i < DOCUMENTS; i++)
+                writer.write(String.format(documents[i % documents.length], i));
+        }
+        return file;
+    }
+
+    private static void assertRowsInOrder(List<Row> rows) {
+        assertEquals(DOCUMENTS, rows.size());
+        for (int i = 0; i < DOCUMENTS; i++) {
+            assertEquals("n" + i, rows.get(i).name);
+            assertEquals(i, rows.get(i).qty);
+        }
+    }
+
+    private static List<Row> load(WireType wireType, File file) throws IOException {
+        try {
+            return new ParallelDocumentLoader<>(wireType, Row.class)
+                    .threads(4)
+                    .minChunkSize(1 << 10)
+                    .load(file);
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void yaml() throws IOException {
+        File file = writeFile("yaml",
+                "---\nname: n%1$d\nqty: %1$d\n",
+                "--- !net.openhft.chronicle.wire.ParallelDocumentLoaderTest$Row\n# a comment\nname: n%1$d\nqty: %1$d\n...\n",
+                "--- {name: n%1$d, qty: %1$d}\n",
+                "---\n# only a comment\n--- { name: n%1$d,\n  qty: %1$d\n}\n");
+        assertRowsInOrder(load(WireType.YAML, file));
+    }
+
+    @Test
+    public void text() throws IOException {
+        File file = writeFile("text",
+                "--- !net.openhft.chronicle.wire.ParallelDocumentLoaderTest$Row {\n  name: n%1$d,\n  qty: %1$d\n}\n",
+                "---\nname: n%1$d\nqty: %1$d\n");
+        assertRowsInOrder(load(WireType.TEXT, file));
+    }
+
+    @Test
+    public void jsonLines() throws IOException {
+        File file = writeFile("json",
+                "{\"name\":\"n%1$d\",\"qty\":%1$d}\n",
+                "\n{ \"name\": \"n%1$d\", \"qty\": %1$d }\r\n");
+        assertRowsInOrder(load(WireType.JSON, file));
+    }
+
+    @Test
+    public void singleThread() throws IOException {
+        File file = writeFile("single", "---\nname: n%1$d\nqty: %1$d\n");
+        try {
+            List<Row> rows = new ArrayList<>();
+            new ParallelDocumentLoader<>(WireType.YAML, Row.class)
+                    .threads(1)
+                    .load(file, rows::add);
+            assertRowsInOrder(rows);
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void chunksStartAtDocuments() {
+        Bytes<?> bytes = Bytes.from("" +
+                "a: |\n" +
+                "  ---\n" +
+                "  text\n" +
+                "--- {b: 1}\n" +
+                "---x: 2\n" +
+                "---\n" +
+                "c: 3\n");
+        assertEquals(18, ParallelDocumentLoader.nextDocument(bytes, false, 1));
+        assertEquals(18, ParallelDocumentLoader.nextDocument(bytes, false, 18));
+        assertEquals(37, ParallelDocumentLoader.nextDocument(bytes, false, 19));
+        assertEquals(bytes.readLimit(), ParallelDocumentLoader.nextDocument(bytes, false, 38));
+        assertEquals(5, ParallelDocumentLoader.nextDocument(bytes, true, 3));
+        assertArrayEquals(new long[]{0, 18, 37, bytes.readLimit()},
+                ParallelDocumentLoader.chunkStarts(bytes, false, 4));
+        bytes.releaseLast();
+    }
+
+    @Test
+    public void failureStopsAtTheDocument() throws IOException {
+        File file = writeFile("bad", "--- {name: n%1$d, qty: %1$d}\n");
+        try (Writer writer = new FileWriter(file, true)) {
+            writer.write("--- [ bad ]\n");
+        }
+        List<Row> rows = new ArrayList<>();
+        try {
+            new ParallelDocumentLoader<>(WireType.TEXT, Row.class)
+                    .threads(3)
+                    .minChunkSize(1 << 10)
+                    .load(file, rows::add);
+            fail();
+        } catch (IORuntimeException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().startsWith("Unable to load the document at "));
+        } finally {
+            file.delete();
+        }
+        assertRowsInOrder(rows);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void binaryIsNotSupported() {
+        new ParallelDocumentLoader<>(WireType.BINARY, Row.class);
+    }
+
+    static class Row extends SelfDescribingMarshallable {
+        String name;
+        int qty;
+    }
+}
@@ -18,6 +18,7 @@
 package net.openhft.chronicle.wire;
 
 import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.MethodReader;
 import org.jetbrains.annotations.NotNull;
 import org.junit.Test;
 
@@ -26,8 +27,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import static net.openhft.chronicle.bytes.Bytes.allocateElasticOnHeap;
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 
 public class QueryWireTest extends WireTestCommon {
     private Bytes bytes;
@@ -62,4 +62,65 @@ public class QueryWireTest extends WireTestCommon {
             wp.parseOne(wire);
         assertEquals(new ArrayList<>(Arrays.asList(true, 12345L, "Hello World", 12.345)), results);
     }
+
+    @Test
+    public void percentDecoding() {
+        @NotNull QueryWire wire = createWire();
+        wire.query("?na%6De=caf%C3%A9+au+lait&sym=EUR%2FUSD&bad=100%&amp=%26%3D&empty=&last=x#fragment");
+        StringBuilder name = new StringBuilder();
+        List<String> pairs = new ArrayList<>();
+        while (wire.bytes().readRemaining() > 0) {
+            ValueIn in = wire.read(name);
+            pairs.add(name + "=" + in.text());
+        }
+        assertEquals("[name=café au lait, sym=EUR/USD, bad=100%, amp=&=, empty=, last=x]", pairs.toString());
+    }
+
+    @Test
+    public void readQueryIntoReusedDto() {
+        @NotNull QueryWire wire = createWire();
+        Params params = new Params();
+        wire.query("symbol=EUR%2FUSD&qty=1000&price=1.25");
+        assertSame(params, wire.readQuery(params));
+        assertEquals("EUR/USD 1000 1.25", params.symbol + " " + params.qty + " " + params.price);
+        StringBuilder symbol = params.symbol;
+
+        wire.query("price=2.5&symbol=GBP+USD");
+        wire.readQuery(params);
+        assertEquals("GBP USD 0 2.5", params.symbol + " " + params.qty + " " + params.price);
+        assertSame(symbol, params.symbol);
+    }
+
+    @Test
+    public void methodReader() {
+        @NotNull QueryWire wire = createWire();
+        List<String> calls = new ArrayList<>();
+        MethodReader reader = wire.methodReader(new Admin() {
+            @Override
+            public void level(int level) {
+                calls.add("level " + level);
+            }
+
+            @Override
+            public void name(String name) {
+                calls.add("name " + name);
+            }
+        });
+        wire.query(Bytes.from("level=3&name=Hello%20World&level=4"));
+        assertTrue(reader.readOne());
+        assertFalse(reader.readOne());
+        assertEquals("[level 3, name Hello World, level 4]", calls.toString());
+    }
+
+    interface Admin {
+        void level(int level);
+
+        void name(String name);
+    }
+
+    static class Params extends SelfDescribingMarshallable {
+        StringBuilder symbol;
+        long qty;
+        double price;
+    }
 }
@@ -0,0 +1,113 @@
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.MappedBytes;
+import net.openhft.chronicle.core.OS;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.*;
+
+@RunWith(value = Parameterized.class)
+public class SequenceCursorTest extends WireTestCommon {
+    private final WireType wireType;
+
+    public SequenceCursorTest(WireType wireType) {
+        this.wireType = wireType;
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> wireTypes() {
+        return Arrays.asList(
+                new Object[]{WireType.TEXT},
+                new Object[]{WireType.JSON},
+                new Object[]{WireType.YAML}
+        );
+    }
+
+    private String format(String text) {
+        return wireType == WireType.JSON
+                ? text.replaceAll("(\\w+): ", "\"$1\": ").replace('\'', '"')
+                : text;
+    }
+
+    @Test
+    public void readsIntoTheSameObject() {
+        Wire wire = wireType.apply(Bytes.from(format("rows: [ { name: 'a', qty: 1 }, { name: 'b, ]', qty: 2 },\n" +
+                "  { name: 'c', qty: 3 } ]\n" +
+                "after: 4\n")));
+        wire.read("rows");
+        SequenceCursor cursor = SequenceCursor.of(wire);
+        Row row = new Row();
+        StringBuilder names = new StringBuilder();
+        while (cursor.hasNext()) {
+            assertSame(row, cursor.next(row));
+            names.append(row.name).append(row.qty).append(';');
+        }
+        assertEquals("a1;b, ]2;c3;", names.toString());
+        assertEquals(3, cursor.index());
+        assertEquals(4, wire.read("after").int32());
+    }
+
+    @Test
+    public void skipsElements() {
+        Wire wire = wireType.apply(Bytes.from(format("[ { name: 'a', qty: 1 }, { name: 'x', qty: [ 1, { y: ']' } ] }, 3, [ 4, 5 ], { name: 'c', qty: 3 } ]")));
+        SequenceCursor cursor = SequenceCursor.of(wire);
+        assertEquals("a", cursor.next(Row.class).name);
+        cursor.skip();
+        assertEquals(3, cursor.next().int32());
+        cursor.skip();
+        assertEquals(3, cursor.next(new Row()).qty);
+        assertFalse(cursor.hasNext());
+        assertEquals(5, cursor.index());
+        try {
+            cursor.next();
+            fail();
+        } catch (NoSuchElementException expected) {
+            // end of sequence
+        }
+    }
+
+    @Test
+    public void mappedFile() throws IOException {
+        File file = new File(OS.TARGET, "SequenceCursorTest-" + wireType + "-" + System.nanoTime());
+        try (Writer writer = new FileWriter(file)) {
+            writer.write('[');
+            for (int i = 0; i < 20_000; i++)
+                writer.write(format((i > 0 ? ",\n" : "") + "{ name: 'n" + i + "', qty: " + i + " }"));
+            writer.write("]\n");
+        }
+        MappedBytes bytes = MappedBytes.readOnly(file);
+        try {
+            bytes.readLimit(file.length());
+            SequenceCursor cursor = SequenceCursor.of(wireType.apply(bytes));
+            Row row = new Row();
+            long sum = 0;
+            while (cursor.hasNext()) {
+                if (cursor.index() % 2 == 0)
+                    cursor.skip();
+                else
+                    sum += cursor.next(row).qty;
+            }
+            assertEquals(20_000, cursor.index());
+            assertEquals(10_000L * 10_000, sum);
+        } finally {
+            bytes.releaseLast();
+            file.delete();
+        }
+    }
+
+    static class Row extends SelfDescribingMarshallable {
+        String name;
+        int qty;
+    }
+}
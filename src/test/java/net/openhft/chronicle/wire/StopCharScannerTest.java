@@ -0,0 +1,86 @@
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.StopCharTester;
+import net.openhft.chronicle.bytes.StopCharTesters;
+import net.openhft.chronicle.bytes.StopCharsTester;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+public class StopCharScannerTest extends WireTestCommon {
+    private static final String ALPHABET = "abcdefgh 0\t\"'#\r\n}]:,[{!\\é";
+
+    private static void assertSameAs(StopCharScanner scanner, BiConsumer<Bytes<?>, StringBuilder> parse8bit, BiConsumer<Bytes<?>, StringBuilder> parseUtf8) {
+        Random random = new Random(1);
+        int parsed = 0;
+        for (int n = 0; n < 20_000; n++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(40);
+            for (int i = 0; i < length; i++)
+                text.append(ALPHABET.charAt(random.nextInt(random.nextBoolean() ? 8 : ALPHABET.length())));
+
+            Bytes<?> bytes = Bytes.from(text.toString());
+            StringBuilder sb = new StringBuilder("old");
+            if (!scanner.parse(bytes, sb)) {
+                assertEquals(0, bytes.readPosition());
+                continue;
+            }
+            parsed++;
+            for (BiConsumer<Bytes<?>, StringBuilder> parse : new BiConsumer[]{parse8bit, parseUtf8}) {
+                Bytes<?> bytes2 = Bytes.from(text.toString());
+                StringBuilder sb2 = new StringBuilder();
+                parse.accept(bytes2, sb2);
+                assertEquals(text.toString(), sb2.toString(), sb.toString());
+                assertEquals(text.toString(), bytes2.readPosition(), bytes.readPosition());
+            }
+        }
+        assertTrue(parsed > 1000);
+    }
+
+    private static void assertSameAs(StopCharScanner scanner, Supplier<StopCharTester> tester) {
+        assertSameAs(scanner, (b, sb) -> b.parse8bit(sb, tester.get()), (b, sb) -> b.parseUtf8(sb, tester.get()));
+    }
+
+    private static void assertSameAs2(StopCharScanner scanner, Supplier<StopCharsTester> tester) {
+        assertSameAs(scanner, (b, sb) -> b.parse8bit(sb, tester.get()), (b, sb) -> b.parseUtf8(sb, tester.get()));
+    }
+
+    @Test
+    public void quotes() {
+        assertSameAs(StopCharScanner.QUOTES, StopCharTesters.QUOTES::escaping);
+        assertSameAs(StopCharScanner.SINGLE_QUOTES, StopCharTesters.SINGLE_QUOTES::escaping);
+    }
+
+    @Test
+    public void endOfText() {
+        assertSameAs(StopCharScanner.END_OF_TEXT, TextStopCharTesters.END_OF_TEXT::escaping);
+        assertSameAs2(StopCharScanner.STRICT_END_OF_TEXT, TextStopCharsTesters.STRICT_END_OF_TEXT::escaping);
+        assertSameAs2(StopCharScanner.JSON_END_OF_TEXT, TextStopCharsTesters.JSON_END_OF_TEXT::escaping);
+    }
+
+    @Test
+    public void csv() {
+        assertSameAs(StopCharScanner.CSV_END_OF_TEXT, StopCharTesters.COMMA_STOP::escaping);
+    }
+
+    @Test
+    public void longText() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 100; i++)
+            text.append("hello world ");
+        Bytes<?> bytes = Bytes.from(text + "\", next");
+        StringBuilder sb = new StringBuilder();
+        assertTrue(StopCharScanner.QUOTES.parse(bytes, sb));
+        assertEquals(text.toString(), sb.toString());
+        assertEquals(", next", bytes.toString());
+
+        Bytes<?> bytes2 = Bytes.from(text + "\\\" escaped\"");
+        assertFalse(StopCharScanner.QUOTES.parse(bytes2, sb));
+        assertEquals(0, bytes2.readPosition());
+    }
+}
@@ -0,0 +1,148 @@
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.junit.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.Assert.*;
+
+public class TextToBinaryTranscoderTest extends WireTestCommon {
+    private static final String JSON = "{\"a\":1,\"b\":[true,\"x\",null,1.5,-300],\"c\":{\"d\":\"e q\\\"\\n\",\"f\":2.5},\"e\":[],\"g\":{\"x\":1.099511627776E12,\"y\":1.0E-20}}";
+
+    private static Wire binary(Wire text) {
+        Wire binary = WireType.BINARY.apply(Bytes.allocateElasticOnHeap());
+        text.copyTo(binary);
+        return binary;
+    }
+
+    private static String json(Wire binary) {
+        Wire json = WireType.JSON.apply(Bytes.allocateElasticOnHeap());
+        binary.copyTo(json);
+        return json.toString();
+    }
+
+    @Test
+    public void jsonToBinaryAndBack() {
+        Wire binary = binary(WireType.JSON.apply(Bytes.from(JSON)));
+        assertEquals(JSON, json(binary));
+
+        binary.bytes().readPosition(0);
+        binary.getValueIn().marshallable(w -> {
+            assertEquals(1, w.read("a").int32());
+            w.read("b").sequence(w, (w2, v) -> {
+                assertTrue(v.bool());
+                assertEquals("x", v.text());
+                assertNull(v.text());
+                assertEquals(1.5, v.float64(), 0.0);
+                assertEquals(-300, v.int32());
+            });
+            w.read("c").marshallable(c -> {
+                assertEquals("e q\"\n", c.read("d").text());
+                assertEquals(2.5, c.read("f").float64(), 0.0);
+            });
+            w.read("e").sequence(w, (w2, v) -> assertFalse(v.hasNextSequenceItem()));
+            w.read("g").marshallable(g -> {
+                assertEquals(1L << 40, g.read("x").int64());
+                assertEquals(1e-20, g.read("y").float64(), 0.0);
+            });
+        });
+    }
+
+    @Test
+    public void yamlTextAndJsonTranscodeTheSame() {
+        String expected = binary(WireType.JSON.apply(Bytes.from(JSON))).bytes().toHexString();
+        String text = "{\n" +
+                "  a: 1,\n" +
+                "  b: [ true, x, !!null \"\", 1.5, -300 ],\n" +
+                "  c: { d: \"e q\\\"\\n\", f: 2.5 },\n" +
+                "  e: [ ],\n" +
+                "  g: { x: 1099511627776, y: 1.0E-20 }\n" +
+                "}\n";
+        String yaml = "a: 1\n" +
+                "b:\n" +
+                "  - true\n" +
+                "  - x\n" +
+                "  - ~\n" +
+                "  - 1.5\n" +
+                "  - -300\n" +
+                "c:\n" +
+                "  d: \"e q\\\"\\n\"\n" +
+                "  f: 2.5\n" +
+                "e: []\n" +
+                "g: {x: 1099511627776, y: 1e-20}\n";
+        assertEquals(expected, binary(WireType.TEXT.apply(Bytes.from(text))).bytes().toHexString());
+        assertEquals(expected, binary(WireType.YAML.apply(Bytes.from(yaml))).bytes().toHexString());
+    }
+
+    @Test
+    public void yamlFedInParts() {
+        String yaml = "a: 1\n" +
+                "b:\n" +
+                "  - true\n" +
+                "  - x\n" +
+                "  - !!null \"\"\n" +
+                "  - 1.5\n" +
+                "  - -300\n" +
+                "c:\n" +
+                "  d: \"e q\\\"\\n\"\n" +
+                "  f: 2.5\n" +
+                "e: []\n" +
+                "g: {x: 1099511627776, y: 1e-20}\n";
+        String expected = binary(WireType.JSON.apply(Bytes.from(JSON))).bytes().toHexString();
+        for (int partSize : new int[]{1, 5, 16}) {
+            YamlWire yamlWire = new YamlWire(Bytes.allocateElasticOnHeap());
+            Wire binary = WireType.BINARY.apply(Bytes.allocateElasticOnHeap());
+            for (int i = 0; i < yaml.length(); i += partSize) {
+                yamlWire.feed(Bytes.from(yaml.substring(i, Math.min(yaml.length(), i + partSize))));
+                yamlWire.copyTo(binary);
+                // only the line being read is kept
+                assertTrue(yamlWire.bytes().writePosition() < 64);
+            }
+            yamlWire.endOfInput().copyTo(binary);
+            assertEquals("in parts of " + partSize, expected, binary.bytes().toHexString());
+        }
+    }
+
+    @Test
+    public void typesAreKept() {
+        Wire binary = binary(WireType.TEXT.apply(Bytes.from("!MyType { x: 1, y: \"2\" }")));
+        Bytes<?> bytes = binary.bytes();
+        assertEquals(BinaryWireCode.TYPE_PREFIX, bytes.readUnsignedByte());
+        assertEquals("MyType", bytes.readUtf8());
+        binary.getValueIn().marshallable(w -> {
+            assertEquals(1, w.read("x").int32());
+            assertEquals("2", w.read("y").text());
+        });
+    }
+
+    @Test
+    public void longsAreExact() {
+        Wire binary = binary(WireType.JSON.apply(Bytes.from(
+                "{\"max\":9223372036854775807,\"min\":-9223372036854775808,\"over\":9223372036854775808}")));
+        binary.getValueIn().marshallable(w -> {
+            assertEquals(Long.MAX_VALUE, w.read("max").int64());
+            assertEquals(Long.MIN_VALUE, w.read("min").int64());
+            assertEquals(9223372036854775808.0, w.read("over").float64(), 0.0);
+        });
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void nestingIsBounded() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i <= TextToBinaryTranscoder.MAX_DEPTH; i++)
+            sb.append('[');
+        for (int i = 0; i <= TextToBinaryTranscoder.MAX_DEPTH; i++)
+            sb.append(']');
+        binary(WireType.JSON.apply(Bytes.from(sb.toString())));
+    }
+
+    @Test
+    public void binaryToJsonFallsBackForOtherValues() {
+        Wire binary = WireType.BINARY.apply(Bytes.allocateElasticOnHeap());
+        binary.write("date").date(LocalDate.of(2020, 1, 2))
+                .write("n").int32(1);
+        // dates aren't on the direct path so this is written by the general copy
+        assertEquals("\"date\":2020-01-02,\"n\":1", json(binary));
+    }
+}
@@ -5,7 +5,10 @@ import net.openhft.chronicle.bytes.MethodId;
 import net.openhft.chronicle.bytes.MethodReader;
 import org.junit.Test;
 
-import static org.junit.Assert.assertTrue;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
 
 public class VanillaWireParserTest extends WireTestCommon {
 
@@ -25,6 +28,56 @@ public class VanillaWireParserTest extends WireTestCommon {
         assertTrue(reader.readOne());
     }
 
+    @Test
+    public void skipUnknownWithoutDefaultConsumer() {
+        final BinaryWire wire = new BinaryWire(Bytes.allocateElasticOnHeap());
+        final Speaker speaker = wire.methodWriter(Speaker.class);
+        final Listener listener = wire.methodWriter(Listener.class);
+        speaker.say("ignored");
+        wire.writeDocument(w -> w.writeEventName("a-very-long-event-name-which-is-not-handled").marshallable(m -> m.write("x").int32(1)));
+        listener.hear("hello");
+
+        List<String> defaulted = new ArrayList<>();
+        List<String> heard = new ArrayList<>();
+        VanillaWireParser parser = new VanillaWireParser((s, v) -> {
+            defaulted.add(s.toString());
+            v.skipValue();
+        }, VanillaWireParser.SKIP_READABLE_BYTES);
+        parser.register("hear", (s, v) -> heard.add(v.text()));
+        assertFalse(parser.skipUnknown());
+        parser.skipUnknown(true);
+
+        for (int i = 0; i < 3; i++)
+            try (DocumentContext dc = wire.readingDocument()) {
+                assertTrue(dc.isPresent());
+                parser.accept(dc.wire());
+                assertEquals(dc.wire().bytes().readLimit(), dc.wire().bytes().readPosition());
+            }
+        assertEquals("[]", defaulted.toString());
+        assertEquals("[hello]", heard.toString());
+    }
+
+    @Test
+    public void methodReaderSkipsUnknownInBatch() {
+        final BinaryWire wire = new BinaryWire(Bytes.allocateElasticOnHeap());
+        try (DocumentContext dc = wire.writingDocument()) {
+            dc.wire().writeEventName("say").text("one");
+            dc.wire().writeEventName("hear").text("two");
+            dc.wire().writeEventName("other").int64(3);
+            dc.wire().writeEventName("hear").text("four");
+        }
+        try (DocumentContext dc = wire.writingDocument(true)) {
+            dc.wire().writeEventName("header").marshallable(m -> m.write("hear").text("meta"));
+        }
+
+        List<String> heard = new ArrayList<>();
+        final MethodReader reader = new VanillaMethodReaderBuilder(wire).build((Listener) heard::add);
+        assertTrue(reader.readOne());
+        assertTrue(reader.readOne());
+        assertFalse(reader.readOne());
+        assertEquals("[two, four]", heard.toString());
+    }
+
     interface Speaker {
         @MethodId(7)
         void say(final String message);
@@ -37,6 +37,7 @@ public class WireDumperTest extends WireTestCommon {
         return Arrays.stream(values).filter(WireType::isAvailable).
                 filter(wt -> wt != WireType.CSV).
                 filter(wt -> wt != WireType.READ_ANY).
+                filter(wt -> wt != WireType.NDJSON). // no headers to dump
                 filter(wt -> wt != WireType.YAML). // todo
                 map(wt -> new Object[]{wt.toString(), wt}).toArray(Object[][]::new);
     }
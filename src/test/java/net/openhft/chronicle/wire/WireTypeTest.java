@@ -97,7 +97,7 @@ public class WireTypeTest extends WireTestCommon {
             @NotNull String tmp = OS.getTarget() + "/testFromFile-" + System.nanoTime();
             wt.toFile(tmp, tm);
             @Nullable Object o;
-            if (wt == WireType.JSON)
+            if (wt == WireType.JSON || wt == WireType.NDJSON)
                 o = wt.apply(BytesUtil.readFile(tmp)).getValueIn().object(TestMarshallable.class);
             else
                 o = wt.fromFile(tmp);
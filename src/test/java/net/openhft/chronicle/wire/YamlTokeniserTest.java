@@ -30,6 +30,82 @@ public class YamlTokeniserTest extends WireTestCommon {
         }
     }
 
+    /**
+     * Tokenise the resource as if it were received in parts of partSize bytes.
+     */
+    static String doTestInParts(String resource, int partSize) {
+        try {
+            Bytes whole = BytesUtil.readFile(resource);
+            Bytes bytes = Bytes.allocateElasticOnHeap();
+            YamlTokeniser yt = new YamlTokeniser(bytes);
+            yt.moreInput(true);
+            StringBuilder sb = new StringBuilder();
+            int i = 0;
+            while (true) {
+                YamlToken next = yt.next(Integer.MIN_VALUE);
+                if (next == YamlToken.STREAM_END)
+                    break;
+                if (next == YamlToken.INCOMPLETE) {
+                    long length = Math.min(partSize, whole.readRemaining());
+                    bytes.write(whole, whole.readPosition(), length);
+                    whole.readSkip(length);
+                    yt.moreInput(whole.readRemaining() > 0);
+                    continue;
+                }
+                sb.append(yt).append('\n');
+                if (++i >= 100) {
+                    sb.append(".......\n");
+                    break;
+                }
+            }
+            return sb.toString();
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    @Test
+    public void partialInput() {
+        String[] resources = {
+                "yaml/spec/2_1_SequenceOfScalars.yaml",
+                "yaml/spec/2_2_MappingScalarsToScalars.yaml",
+                "yaml/spec/2_3_MappingScalarsToSequences.yaml",
+                "yaml/spec/2_4_SequenceOfMappings.yaml",
+                "yaml/spec/2_4_SequenceOfMappings-fixed.yaml",
+                "yaml/spec/2_5_SequenceOfSequences.yaml",
+                "yaml/spec/2_6_MappingOfMappings.yaml",
+                "yaml/spec/2_7_TwoDocumentsInAStream.yaml",
+                "yaml/spec/2_8_PlayByPlayFeed.yaml",
+                "yaml/spec/2_9_SingleDocumentWithTwoComments.yaml",
+                "yaml/spec/2_10_NodeAppearsTwiceInThisDocument.yaml",
+                "yaml/spec/2_11MappingBetweenSequences.yaml",
+                "yaml/spec/2_12CompactNestedMapping.yaml",
+                "yaml/spec/2_13InLiteralsNewlinesArePreserved.yaml",
+                "yaml/spec/2_14InThefoldedScalars.yaml",
+                "yaml/spec/2_15FoldedNewlines.yaml",
+                "yaml/spec/2_16IndentationDeterminesScope.yaml",
+                "yaml/spec/2_17QuotedScalars.yaml",
+                "yaml/spec/2_18Multi_lineFlowScalars.yaml",
+                "yaml/spec/2_19Integers.yaml",
+                "yaml/spec/2_20FloatingPoint.yaml",
+                "yaml/spec/2_21Miscellaneous.yaml",
+                "yaml/spec/2_22Timestamps.yaml",
+                "yaml/spec/2_23VariousExplicitTags.yaml",
+                "yaml/spec/2_24GlobalTags.yaml",
+                "yaml/spec/2_25UnorderedSets.yaml",
+                "yaml/spec/2_26OrderedMappings.yaml",
+                "yaml/spec/2_27Invoice.yaml",
+                "yaml/spec/2_28LogFile.yaml",
+                "yaml/sample1.yaml",
+                "yaml/sample2.yaml",
+                "=#\nb: AA\nc: {}\nd: \n  A: 1\n  B: 2\ne: [ x, \"y\" ]"};
+        for (String resource : resources) {
+            String expected = doTest(resource);
+            for (int partSize : new int[]{1, 2, 3, 7, 64})
+                assertEquals(resource + " in parts of " + partSize, expected, doTestInParts(resource, partSize));
+        }
+    }
+
     @Test
     public void eg2_1() {
         assertEquals("DIRECTIVES_END \n" +
@@ -0,0 +1,116 @@
+package net.openhft.chronicle.wire.method;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.MethodReader;
+import net.openhft.chronicle.wire.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ArgumentRecyclerTest extends WireTestCommon {
+    private static List<Quote> readAll(Wire wire, VanillaMethodReaderBuilder builder) {
+        List<Quote> received = new ArrayList<>();
+        MethodReader reader = builder.build((Quotes) received::add);
+        while (reader.readOne()) {
+        }
+        return received;
+    }
+
+    private static Wire write(int count) {
+        Wire wire = WireType.BINARY.apply(Bytes.allocateElasticOnHeap());
+        Quotes writer = wire.methodWriter(Quotes.class);
+        Quote quote = new Quote();
+        for (int i = 0; i < count; i++) {
+            quote.price = i;
+            writer.quote(quote);
+        }
+        return wire;
+    }
+
+    @Test
+    public void reuseByDefault() {
+        Wire wire = write(3);
+        List<Quote> received = readAll(wire, new VanillaMethodReaderBuilder(wire));
+        assertSame(received.get(0), received.get(2));
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void alwaysNew() {
+        Wire wire = write(3);
+        List<Quote> received = readAll(wire, new VanillaMethodReaderBuilder(wire)
+                .recyclePolicy("quote", ArgumentRecycler.Policy.NEW));
+        assertNotSame(received.get(0), received.get(1));
+        assertNotSame(received.get(1), received.get(2));
+        assertEquals(0, received.get(0).price, 0);
+        assertEquals(2, received.get(2).price, 0);
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void pooled() {
+        Wire wire = write(6);
+        VanillaMethodReaderBuilder builder = new VanillaMethodReaderBuilder(wire)
+                .recyclePolicy(ArgumentRecycler.Policy.POOLED);
+        ArgumentRecycler recycler = builder.recycler();
+        List<Quote> received = new ArrayList<>();
+        MethodReader reader = builder.build((Quotes) q -> {
+            received.add(q);
+            // hold on to two quotes, releasing the oldest
+            if (received.size() > 2)
+                recycler.release(Quote.class, received.get(received.size() - 3));
+        });
+        while (reader.readOne()) {
+        }
+        assertEquals(6, received.size());
+        for (int i = 0; i < 3; i++)
+            assertNotSame(received.get(i), received.get(i + 1));
+        // the first three are new, then released quotes are reused
+        assertSame(received.get(0), received.get(3));
+        ArgumentRecycler.Pool pool = recycler.pool(Quote.class);
+        assertEquals(6, pool.acquired());
+        assertEquals(3, pool.misses());
+        assertEquals(3, recycler.misses());
+        assertEquals(1, pool.size());
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void boundedPool() {
+        ArgumentRecycler recycler = new ArgumentRecycler().poolCapacity(2);
+        for (int i = 0; i < 3; i++)
+            recycler.release(Quote.class, new Quote());
+        recycler.release(Quote.class, "not pooled");
+        ArgumentRecycler.Pool pool = recycler.pool(Quote.class);
+        assertEquals(2, pool.size());
+        assertEquals(1, pool.discarded());
+        assertNotNull(recycler.acquire(Quote.class));
+        assertNotNull(recycler.acquire(Quote.class));
+        assertNull(recycler.acquire(Quote.class));
+        assertEquals(1, pool.misses());
+    }
+
+    @Test
+    public void pooledByDeclaredType() {
+        ArgumentRecycler recycler = new ArgumentRecycler();
+        FxQuote fxQuote = new FxQuote();
+        recycler.release(Quote.class, fxQuote);
+        assertEquals(0, recycler.pool(FxQuote.class).size());
+        assertSame(fxQuote, recycler.acquire(Quote.class));
+    }
+
+    interface Quotes {
+        void quote(Quote quote);
+    }
+
+    static class Quote extends SelfDescribingMarshallable {
+        double price;
+    }
+
+    static class FxQuote extends Quote {
+        String symbol;
+    }
+}
@@ -0,0 +1,191 @@
+package net.openhft.chronicle.wire.method;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.MethodReader;
+import net.openhft.chronicle.core.threads.InvalidEventHandlerException;
+import net.openhft.chronicle.wire.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class AsyncMethodWriterTest extends WireTestCommon {
+    @Test
+    public void backgroundThread() throws InterruptedException {
+        Wire wire = WireType.BINARY.apply(Bytes.allocateElasticOnHeap());
+        VanillaMethodWriterBuilder<Orders> builder = (VanillaMethodWriterBuilder<Orders>) wire.methodWriterBuilder(Orders.class);
+        Orders writer = builder.async(16).build();
+        AsyncMethodWriter asyncWriter = builder.asyncWriter();
+        assertNotNull(asyncWriter);
+        assertEquals(16, asyncWriter.capacity());
+        Thread thread = asyncWriter.start("async-writer");
+
+        Order order = new Order();
+        StringBuilder note = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            order.qty = i;
+            order.price = i / 4.0;
+            note.setLength(0);
+            note.append("note").append(i);
+            writer.order(order, note, i % 2 == 0);
+        }
+        asyncWriter.close();
+        thread.join(10_000);
+        assertFalse(thread.isAlive());
+        assertEquals(0, asyncWriter.queued());
+
+        List<String> received = new ArrayList<>();
+        MethodReader reader = wire.methodReader((Orders) (o, n, buy) -> received.add(o.qty + "," + o.price + "," + n + "," + buy));
+        while (reader.readOne()) {
+        }
+        assertEquals(1000, received.size());
+        for (int i = 0; i < 1000; i++)
+            assertEquals(i + "," + i / 4.0 + ",note" + i + "," + (i % 2 == 0), received.get(i));
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void replayedInBatches() throws InvalidEventHandlerException {
+        Wire wire = WireType.BINARY.apply(Bytes.allocateElasticOnHeap());
+        wire.notCompleteIsNotPresent(true);
+        List<String> intercepted = new ArrayList<>();
+        VanillaMethodWriterBuilder<Orders> builder = (VanillaMethodWriterBuilder<Orders>) wire.methodWriterBuilder(Orders.class);
+        builder.batch(1 << 20, 1000)
+                .async(4)
+                .argumentsInterceptor(args -> intercepted.add(args.methodName()));
+        Orders writer = builder.build();
+        AsyncMethodWriter asyncWriter = builder.asyncWriter();
+
+        Order order = new Order();
+        for (int i = 0; i < 3; i++) {
+            order.qty = i;
+            writer.order(order, "n", true);
+        }
+        assertEquals("[order, order, order]", intercepted.toString());
+        assertEquals(3, asyncWriter.queued());
+        assertEquals(0, wire.bytes().writePosition());
+
+        assertTrue(asyncWriter.action());
+        assertFalse(asyncWriter.action());
+        assertEquals(0, asyncWriter.queued());
+
+        List<Long> received = new ArrayList<>();
+        MethodReader reader = wire.methodReader((Orders) (o, n, buy) -> received.add(o.qty));
+        assertTrue(reader.readOne());
+        assertEquals("[0, 1, 2]", received.toString());
+        assertFalse(reader.readOne());
+
+        asyncWriter.close();
+        try {
+            asyncWriter.action();
+            fail();
+        } catch (InvalidEventHandlerException expected) {
+            // removed from the event loop
+        }
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void failedCallDoesNotStopReplay() throws InvalidEventHandlerException {
+        Wire wire = WireType.BINARY.apply(Bytes.allocateElasticOnHeap());
+        VanillaMethodWriterBuilder<Orders> builder = (VanillaMethodWriterBuilder<Orders>) wire.methodWriterBuilder(Orders.class);
+        builder.async(4)
+                .updateInterceptor((methodName, buy) -> {
+                    if (!(Boolean) buy)
+                        throw new IllegalArgumentException("rejected");
+                    return true;
+                });
+        Orders writer = builder.build();
+        AsyncMethodWriter asyncWriter = builder.asyncWriter();
+
+        Order order = new Order();
+        for (int i = 0; i < 3; i++) {
+            order.qty = i;
+            writer.order(order, "n", i != 1);
+        }
+        assertEquals(3, asyncWriter.queued());
+        assertTrue(asyncWriter.action());
+        assertEquals(0, asyncWriter.queued());
+
+        // the ring buffer is free again after the failed call
+        for (int i = 3; i < 10; i++) {
+            order.qty = i;
+            writer.order(order, "n", true);
+            asyncWriter.action();
+        }
+
+        List<Long> received = new ArrayList<>();
+        MethodReader reader = wire.methodReader((Orders) (o, n, buy) -> received.add(o.qty));
+        while (reader.readOne()) {
+        }
+        assertEquals("[0, 2, 3, 4, 5, 6, 7, 8, 9]", received.toString());
+        asyncWriter.close();
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void marshallablesCopiedByValue() throws InvalidEventHandlerException {
+        assertTrue(WireMarshaller.WIRE_MARSHALLER_CL.get(Order.class).copiesByValue());
+        assertFalse(WireMarshaller.WIRE_MARSHALLER_CL.get(Basket.class).copiesByValue());
+
+        Wire wire = WireType.BINARY.apply(Bytes.allocateElasticOnHeap());
+        VanillaMethodWriterBuilder<Baskets> builder = (VanillaMethodWriterBuilder<Baskets>) wire.methodWriterBuilder(Baskets.class);
+        Baskets writer = builder.async(4).build();
+        AsyncMethodWriter asyncWriter = builder.asyncWriter();
+
+        Order order = new Order();
+        order.qty = 1;
+        order.account.append("A1");
+        Basket basket = new Basket();
+        basket.order.qty = 2;
+        writer.basket(order, basket);
+        // changes after the call aren't seen by the replaying thread
+        order.qty = 10;
+        order.account.append("-changed");
+        basket.order.qty = 20;
+        assertTrue(asyncWriter.action());
+
+        List<String> received = new ArrayList<>();
+        MethodReader reader = wire.methodReader((Baskets) (o, b) -> received.add(o.qty + "," + o.account + "," + b.order.qty));
+        assertTrue(reader.readOne());
+        assertEquals("[1,A1,2]", received.toString());
+        asyncWriter.close();
+        wire.bytes().releaseLast();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void chainedMethodsRejected() {
+        Wire wire = WireType.BINARY.apply(Bytes.allocateElasticOnHeap());
+        try {
+            VanillaMethodWriterBuilder<ChainedOrders> builder = (VanillaMethodWriterBuilder<ChainedOrders>) wire.methodWriterBuilder(ChainedOrders.class);
+            builder.async(4).build();
+        } finally {
+            wire.bytes().releaseLast();
+        }
+    }
+
+    interface ChainedOrders {
+        Orders account(String name);
+    }
+
+    interface Orders {
+        void order(Order order, CharSequence note, boolean buy);
+    }
+
+    interface Baskets {
+        void basket(Order order, Basket basket);
+    }
+
+    static class Order extends SelfDescribingMarshallable {
+        long qty;
+        double price;
+        StringBuilder account = new StringBuilder();
+    }
+
+    // holds a mutable Marshallable so is copied with copyTo
+    static class Basket extends SelfDescribingMarshallable {
+        Order order = new Order();
+    }
+}
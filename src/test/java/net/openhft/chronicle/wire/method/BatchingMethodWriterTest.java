@@ -0,0 +1,155 @@
+package net.openhft.chronicle.wire.method;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.MethodReader;
+import net.openhft.chronicle.core.Mocker;
+import net.openhft.chronicle.wire.*;
+import org.junit.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+
+public class BatchingMethodWriterTest extends WireTestCommon {
+
+    private static int countDocuments(Wire wire) {
+        int count = 0;
+        long pos = wire.bytes().readPosition();
+        while (true) {
+            try (DocumentContext dc = wire.readingDocument()) {
+                if (!dc.isPresent())
+                    break;
+                count++;
+                dc.wire().bytes().readPosition(dc.wire().bytes().readLimit());
+            }
+        }
+        wire.bytes().readPosition(pos);
+        return count;
+    }
+
+    @Test
+    public void batchByCount() {
+        Wire wire = WireType.BINARY.apply(Bytes.allocateElasticOnHeap());
+        wire.notCompleteIsNotPresent(true);
+        VanillaMethodWriterBuilder<BookListener> builder = (VanillaMethodWriterBuilder<BookListener>) wire.methodWriterBuilder(BookListener.class);
+        BookListener writer = builder.batch(1 << 20, 2).build();
+
+        for (int i = 0; i < 5; i++)
+            writer.level(i, 100.0 + i);
+        // the fifth call is still pending
+        assertEquals(2, countDocuments(wire));
+        builder.batchingOut().flush();
+        assertEquals(3, countDocuments(wire));
+
+        StringWriter sw = new StringWriter();
+        MethodReader reader = wire.methodReader(Mocker.logging(BookListener.class, "", sw));
+        assertTrue(reader.readOne());
+        assertTrue(reader.readOne());
+        assertTrue(reader.readOne());
+        assertFalse(reader.readOne());
+        assertEquals("" +
+                "level[0, 100.0]\n" +
+                "level[1, 101.0]\n" +
+                "level[2, 102.0]\n" +
+                "level[3, 103.0]\n" +
+                "level[4, 104.0]\n", sw.toString().replace("\r", ""));
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void batchByBytes() {
+        Wire wire = WireType.BINARY.apply(Bytes.allocateElasticOnHeap());
+        BatchingMarshallableOut out = new BatchingMarshallableOut(wire, 64, Integer.MAX_VALUE);
+        BookListener writer = out.methodWriter(BookListener.class);
+        for (int i = 0; i < 20; i++)
+            writer.level(i, i);
+        out.flush();
+        int documents = countDocuments(wire);
+        assertTrue("documents=" + documents, 1 < documents && documents < 20);
+
+        StringWriter sw = new StringWriter();
+        MethodReader reader = wire.methodReader(Mocker.logging(BookListener.class, "", sw));
+        for (int i = 0; i < documents; i++)
+            assertTrue(reader.readOne());
+        assertFalse(reader.readOne());
+        assertEquals(20, sw.toString().split("\n").length);
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void flushWithNothingWritten() {
+        Wire wire = WireType.BINARY.apply(Bytes.allocateElasticOnHeap());
+        BatchingMarshallableOut out = new BatchingMarshallableOut(wire, 1024, 16);
+        out.flush();
+        assertEquals(0, wire.bytes().writePosition());
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void outputResolvedPerBatch() {
+        Wire wire1 = WireType.BINARY.apply(Bytes.allocateElasticOnHeap());
+        Wire wire2 = WireType.BINARY.apply(Bytes.allocateElasticOnHeap());
+        Wire[] current = {wire1};
+        BatchingMarshallableOut out = new BatchingMarshallableOut(() -> current[0], 1 << 20, 2, Long.MAX_VALUE);
+        BookListener writer = out.methodWriter(BookListener.class);
+        writer.level(0, 100);
+        // the open batch stays on the first output
+        current[0] = wire2;
+        writer.level(1, 101);
+        writer.level(2, 102);
+        out.flush();
+        assertEquals(1, countDocuments(wire1));
+        assertEquals(1, countDocuments(wire2));
+        wire1.bytes().releaseLast();
+        wire2.bytes().releaseLast();
+    }
+
+    @Test
+    public void flushIfIdle() throws InterruptedException {
+        Wire wire = WireType.BINARY.apply(Bytes.allocateElasticOnHeap());
+        BatchingMarshallableOut out = new BatchingMarshallableOut(() -> wire, 1 << 20, 16, 10_000_000);
+        BookListener writer = out.methodWriter(BookListener.class);
+        assertFalse(out.flushIfIdle());
+        writer.level(0, 100);
+        assertEquals(1, out.batchCount());
+        Thread.sleep(20);
+        assertTrue(out.flushIfIdle());
+        assertEquals(0, out.batchCount());
+        assertEquals(1, countDocuments(wire));
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void historyOncePerBatch() {
+        Wire wire = WireType.BINARY.apply(Bytes.allocateElasticOnHeap());
+        MarshallableOut recording = new MarshallableOut() {
+            @Override
+            public DocumentContext writingDocument(boolean metaData) {
+                return wire.writingDocument(metaData);
+            }
+
+            @Override
+            public DocumentContext acquireWritingDocument(boolean metaData) {
+                return wire.acquireWritingDocument(metaData);
+            }
+
+            @Override
+            public boolean recordHistory() {
+                return true;
+            }
+        };
+        BatchingMarshallableOut out = new BatchingMarshallableOut(() -> recording, 1 << 20, 3, Long.MAX_VALUE);
+        BookListener writer = out.methodWriter(BookListener.class);
+        for (int i = 0; i < 6; i++)
+            writer.level(i, 100.0 + i);
+        assertEquals(2, countDocuments(wire));
+        String dump = WireDumper.of(wire).asString();
+        assertEquals(dump, 2, dump.split("history: ", -1).length - 1);
+        assertEquals(dump, 6, dump.split("level: ", -1).length - 1);
+        wire.bytes().releaseLast();
+    }
+
+    interface BookListener {
+        void level(int level, double price);
+    }
+}
@@ -0,0 +1,149 @@
+package net.openhft.chronicle.wire.method;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.MethodId;
+import net.openhft.chronicle.bytes.MethodReader;
+import net.openhft.chronicle.wire.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class EventPreFilterTest extends WireTestCommon {
+    private static final String[] SYMBOLS = {"EURUSD", "USDJPY", "GBPUSD", "AUDUSD", "USDCHF"};
+
+    private static List<String> read(Wire wire, EventPreFilter preFilter) {
+        List<String> received = new ArrayList<>();
+        MethodReader reader = new VanillaMethodReaderBuilder(wire)
+                .preFilter(preFilter)
+                .build(new Market() {
+                    @Override
+                    public void tick(String symbol) {
+                        received.add(symbol);
+                    }
+
+                    @Override
+                    public void quote(String symbol, double price) {
+                        received.add(symbol + "@" + price);
+                    }
+
+                    @Override
+                    public void heartbeat() {
+                        received.add("hb");
+                    }
+                });
+        while (reader.readOne()) {
+        }
+        return received;
+    }
+
+    private static Wire write(boolean useMethodIds) {
+        Wire wire = WireType.BINARY.apply(Bytes.allocateElasticOnHeap());
+        Market market = wire.methodWriterBuilder(Market.class).useMethodIds(useMethodIds).get();
+        for (String symbol : SYMBOLS) {
+            market.tick(symbol);
+            market.quote(symbol, 1.5);
+        }
+        market.heartbeat();
+        return wire;
+    }
+
+    @Test
+    public void byMethodName() {
+        Wire wire = write(false);
+        assertEquals("[EURUSD, USDJPY, GBPUSD, AUDUSD, USDCHF, hb]",
+                read(wire, new MethodEventPreFilter().addMethodName("tick").addMethodName("heartbeat")).toString());
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void emptyAndHistoryOnlyDocuments() {
+        Wire wire = WireType.BINARY.apply(Bytes.allocateElasticOnHeap());
+        try (DocumentContext dc = wire.writingDocument(true)) {
+            // empty meta data
+        }
+        try (DocumentContext dc = wire.writingDocument()) {
+            // empty data
+        }
+        try (DocumentContext dc = wire.writingDocument()) {
+            dc.wire().writeEventName(MethodReader.HISTORY).marshallable(new VanillaMessageHistory());
+        }
+        wire.methodWriter(Market.class).tick("EURUSD");
+        assertEquals("[EURUSD]",
+                read(wire, new MethodEventPreFilter().addMethodName("tick")).toString());
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void byMethodId() {
+        Wire wire = write(true);
+        EventPreFilter filter = new MethodEventPreFilter().addMethods(Quotes.class);
+        assertEquals("[EURUSD@1.5, USDJPY@1.5, GBPUSD@1.5, AUDUSD@1.5, USDCHF@1.5]",
+                read(wire, filter).toString());
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void byKeyPrefix() {
+        Wire wire = write(false);
+        // skip the string's type code
+        KeyPrefixBloomFilter symbols = new KeyPrefixBloomFilter(1, 6, 10, 0.001)
+                .add("EURUSD")
+                .add("GBPUSD");
+        assertTrue(symbols.hashes() > 1);
+        EventPreFilter filter = new MethodEventPreFilter().addMethodName("tick").and(symbols)
+                .or(new MethodEventPreFilter().addMethodName("heartbeat"));
+        assertEquals("[EURUSD, GBPUSD, hb]", read(wire, filter).toString());
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void passesOverHistory() {
+        Wire wire = WireType.BINARY.apply(Bytes.allocateElasticOnHeap());
+        VanillaMessageHistory history = new VanillaMessageHistory();
+        for (String symbol : SYMBOLS) {
+            history.reset(1, 2);
+            try (DocumentContext dc = wire.writingDocument()) {
+                dc.wire().writeEventName(MethodReader.HISTORY).marshallable(history);
+                dc.wire().writeEventName("tick").text(symbol);
+            }
+        }
+        KeyPrefixBloomFilter symbols = new KeyPrefixBloomFilter(1, 3, 10, 0.001).add("AUD");
+        assertEquals("[AUDUSD]", read(wire, symbols).toString());
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void readsWholeBatches() {
+        Wire wire = WireType.BINARY.apply(Bytes.allocateElasticOnHeap());
+        VanillaMethodWriterBuilder<Market> builder = (VanillaMethodWriterBuilder<Market>) wire.methodWriterBuilder(Market.class);
+        builder.batch(1 << 20, 2);
+        Market market = builder.get();
+        for (String symbol : SYMBOLS)
+            market.quote(symbol, 1.5);
+        // the last batch starts with an unwanted quote followed by a wanted tick
+        market.tick("EURUSD");
+        // a document holding only an unwanted event
+        market.heartbeat();
+        builder.batchingOut().flush();
+
+        assertEquals("[EURUSD@1.5, USDJPY@1.5, GBPUSD@1.5, AUDUSD@1.5, USDCHF@1.5, EURUSD]",
+                read(wire, new MethodEventPreFilter().addMethodName("tick")).toString());
+        wire.bytes().releaseLast();
+    }
+
+    interface Quotes {
+        @MethodId(2)
+        void quote(String symbol, double price);
+    }
+
+    interface Market extends Quotes {
+        @MethodId(1)
+        void tick(String symbol);
+
+        @MethodId(200)
+        void heartbeat();
+    }
+}
@@ -0,0 +1,85 @@
+package net.openhft.chronicle.wire.method;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.MethodReader;
+import net.openhft.chronicle.wire.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MergedMethodReaderTest extends WireTestCommon {
+    private static Wire source(String name, long... times) {
+        Wire wire = WireType.BINARY.apply(Bytes.allocateElasticOnHeap());
+        for (long time : times) {
+            try (DocumentContext dc = wire.writingDocument()) {
+                dc.wire().writeEventName("ts").int64(time);
+                dc.wire().writeEventName("tick").text(name + time);
+            }
+        }
+        return wire;
+    }
+
+    @Test
+    public void mergeByFirstEvent() {
+        Wire a = source("a", 1, 4, 4, 9);
+        Wire b = source("b", 2, 3, 10);
+        Wire c = source("c");
+        Wire d = source("d", 0, 4);
+        List<String> ticks = new ArrayList<>();
+        MergedMethodReader reader = new MergedMethodReader(
+                MergedMethodReader.TimestampExtractor.firstEvent("ts"),
+                new MarshallableIn[]{a, b, c, d},
+                (Ticks) ticks::add);
+        while (reader.readOne()) {
+        }
+        assertEquals("[d0, a1, b2, b3, a4, a4, d4, a9, b10]", ticks.toString());
+        assertFalse(reader.readOne());
+
+        // a source can be added to after it was exhausted
+        try (DocumentContext dc = c.writingDocument()) {
+            dc.wire().writeEventName("ts").int64(11);
+            dc.wire().writeEventName("tick").text("c11");
+        }
+        assertTrue(reader.readOne());
+        assertEquals("c11", ticks.get(ticks.size() - 1));
+        reader.close();
+
+        for (Wire wire : new Wire[]{a, b, c, d})
+            wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void mergeByHistory() {
+        Wire a = WireType.BINARY.apply(Bytes.allocateElasticOnHeap());
+        Wire b = WireType.BINARY.apply(Bytes.allocateElasticOnHeap());
+        VanillaMessageHistory history = new VanillaMessageHistory();
+        long[] times = {5, 1, 7, 3};
+        for (int i = 0; i < times.length; i++) {
+            Wire wire = i % 2 == 0 ? a : b;
+            history.reset();
+            history.addTiming(times[i]);
+            try (DocumentContext dc = wire.writingDocument()) {
+                dc.wire().writeEventName(MethodReader.HISTORY).marshallable(history);
+                dc.wire().writeEventName("tick").text("t" + times[i]);
+            }
+        }
+        List<String> ticks = new ArrayList<>();
+        MergedMethodReader reader = new MergedMethodReader(
+                MergedMethodReader.TimestampExtractor.historyTiming(),
+                new MarshallableIn[]{a, b},
+                (Ticks) ticks::add);
+        while (reader.readOne()) {
+        }
+        assertEquals("[t1, t3, t5, t7]", ticks.toString());
+        reader.close();
+        a.bytes().releaseLast();
+        b.bytes().releaseLast();
+    }
+
+    interface Ticks {
+        void tick(String tick);
+    }
+}
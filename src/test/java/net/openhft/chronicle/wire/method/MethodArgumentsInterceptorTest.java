@@ -0,0 +1,125 @@
+package net.openhft.chronicle.wire.method;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.MethodReader;
+import net.openhft.chronicle.wire.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MethodArgumentsInterceptorTest extends WireTestCommon {
+    private static List<String> readAll(Wire wire, MethodArgumentsInterceptor interceptor) {
+        List<String> received = new ArrayList<>();
+        MethodReader reader = new VanillaMethodReaderBuilder(wire)
+                .argumentsInterceptor(interceptor)
+                .build(new Orders() {
+                    @Override
+                    public void order(String symbol, long qty, double price, boolean buy) {
+                        received.add(symbol + qty);
+                    }
+
+                    @Override
+                    public void cancel(char reason) {
+                        received.add("cancel " + reason);
+                    }
+                });
+        while (reader.readOne()) {
+        }
+        return received;
+    }
+
+    @Test
+    public void writerDropsCalls() {
+        Wire wire = WireType.BINARY.apply(Bytes.allocateElasticOnHeap());
+        VanillaMethodWriterBuilder<Orders> builder = (VanillaMethodWriterBuilder<Orders>) wire.methodWriterBuilder(Orders.class);
+        Orders writer = builder.argumentsInterceptor(args ->
+                // drop orders with a zero quantity
+                !args.methodName().equals("order") || args.getLong(1) != 0
+        ).build();
+
+        writer.order("ABC", 10, 1.5, true);
+        writer.order("DEF", 0, 2.5, false);
+        writer.cancel('X');
+
+        assertEquals("[ABC10, cancel X]", readAll(wire, null).toString());
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void writerSeesEveryArgument() {
+        Wire wire = WireType.BINARY.apply(Bytes.allocateElasticOnHeap());
+        List<String> intercepted = new ArrayList<>();
+        VanillaMethodWriterBuilder<Orders> builder = (VanillaMethodWriterBuilder<Orders>) wire.methodWriterBuilder(Orders.class);
+        Orders writer = builder.argumentsInterceptor(args -> {
+            intercepted.add(args.methodName() + " " + args.count() + " " + args.type(args.count() - 1).getSimpleName());
+            return true;
+        }).build();
+
+        writer.order("ABC", 10, 1.5, true);
+        writer.cancel('X');
+
+        assertEquals("[order 4 boolean, cancel 1 char]", intercepted.toString());
+        assertEquals("[ABC10, cancel X]", readAll(wire, null).toString());
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void readerDropsCalls() {
+        Wire wire = WireType.BINARY.apply(Bytes.allocateElasticOnHeap());
+        Orders writer = wire.methodWriter(Orders.class);
+        writer.order("ABC", 10, 1.5, true);
+        writer.order("DEF", 0, 2.5, false);
+        writer.cancel('X');
+
+        List<String> intercepted = new ArrayList<>();
+        List<String> received = readAll(wire, args -> {
+            intercepted.add(args.toString());
+            return !args.methodName().equals("order") || args.getDouble(2) < 2;
+        });
+        assertEquals("[order[ABC, 10, 1.5, true], order[DEF, 0, 2.5, false], cancel[X]]", intercepted.toString());
+        assertEquals("[ABC10, cancel X]", received.toString());
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void readerDropsChainedCalls() {
+        Wire wire = WireType.BINARY.apply(Bytes.allocateElasticOnHeap());
+        Accounts writer = wire.methodWriter(Accounts.class);
+        writer.account("A").order("ABC", 10, 1.5, true);
+        writer.account("B").order("DEF", 20, 2.5, false);
+        writer.account("A").cancel('X');
+
+        List<String> received = new ArrayList<>();
+        MethodReader reader = new VanillaMethodReaderBuilder(wire)
+                .argumentsInterceptor(args -> !args.methodName().equals("account") || !"A".equals(args.getObject(0)))
+                .build((Accounts) name -> new Orders() {
+                    @Override
+                    public void order(String symbol, long qty, double price, boolean buy) {
+                        received.add(name + " " + symbol + qty);
+                    }
+
+                    @Override
+                    public void cancel(char reason) {
+                        received.add(name + " cancel " + reason);
+                    }
+                });
+        while (reader.readOne()) {
+        }
+        // the rest of a dropped chain isn't passed to the top level
+        assertEquals("[B DEF20]", received.toString());
+        wire.bytes().releaseLast();
+    }
+
+    interface Accounts {
+        Orders account(String name);
+    }
+
+    interface Orders {
+        void order(String symbol, long qty, double price, boolean buy);
+
+        void cancel(char reason);
+    }
+}
@@ -0,0 +1,107 @@
+package net.openhft.chronicle.wire.method;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.MethodReader;
+import net.openhft.chronicle.wire.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MethodMetricsTest extends WireTestCommon {
+    private static Wire writeTrades(MethodMetrics metrics) {
+        Wire wire = WireType.BINARY.apply(Bytes.allocateElasticOnHeap());
+        VanillaMethodWriterBuilder<Trades> builder = (VanillaMethodWriterBuilder<Trades>) wire.methodWriterBuilder(Trades.class);
+        Trades writer = builder.metrics(metrics).get();
+        for (int i = 0; i < 10; i++)
+            writer.trade("ABC", i);
+        writer.heartbeat();
+        return wire;
+    }
+
+    private static MethodReader reader(Wire wire, MethodMetrics metrics, List<String> received) {
+        return new VanillaMethodReaderBuilder(wire)
+                .metrics(metrics)
+                .build(new Trades() {
+                    @Override
+                    public void trade(String symbol, long qty) {
+                        received.add(symbol + qty);
+                    }
+
+                    @Override
+                    public void heartbeat() {
+                        received.add("hb");
+                    }
+                });
+    }
+
+    @Test
+    public void writer() {
+        MethodMetrics metrics = new MethodMetrics();
+        Wire wire = writeTrades(metrics);
+
+        MethodMetrics.Metric trade = metrics.metric("trade");
+        assertNotNull(trade);
+        assertEquals(10, trade.count());
+        assertTrue(trade.bytes() > 10 * 10);
+        assertEquals(10, trade.codecTime().count());
+        // a writer has no handler
+        assertEquals(0, trade.handlerTime().count());
+        assertEquals(1, metrics.metric("heartbeat").count());
+        assertNull(metrics.metric("unknown"));
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void reader() {
+        MethodMetrics writerMetrics = new MethodMetrics();
+        Wire wire = writeTrades(writerMetrics);
+
+        MethodMetrics metrics = new MethodMetrics();
+        List<String> received = new ArrayList<>();
+        MethodReader reader = reader(wire, metrics, received);
+        while (reader.readOne()) {
+        }
+        assertEquals(11, received.size());
+
+        MethodMetrics.Snapshot snapshot = metrics.snapshot();
+        MethodMetrics.Summary summary = snapshot.methods().get("trade");
+        assertEquals(10, summary.count());
+        // the reader doesn't count the event name
+        assertTrue(0 < summary.bytes() && summary.bytes() < writerMetrics.metric("trade").bytes());
+        assertEquals(10, summary.codecTime().count());
+        assertEquals(10, summary.handlerTime().count());
+        assertEquals(1, snapshot.methods().get("heartbeat").count());
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void snapshotIsMarshallable() {
+        MethodMetrics metrics = new MethodMetrics();
+        Wire wire = writeTrades(metrics);
+
+        MethodMetrics.Snapshot snapshot = metrics.snapshot();
+        MethodMetrics.Snapshot snapshot2 = Marshallable.fromString(snapshot.toString());
+        assertEquals(snapshot.toString(), snapshot2.toString());
+        wire.bytes().releaseLast();
+    }
+
+    @Test
+    public void reset() {
+        MethodMetrics metrics = new MethodMetrics();
+        Wire wire = writeTrades(metrics);
+
+        metrics.reset();
+        assertEquals(0, metrics.metric("trade").count());
+        assertEquals(0, metrics.metric("trade").codecTime().count());
+        wire.bytes().releaseLast();
+    }
+
+    interface Trades {
+        void trade(String symbol, long qty);
+
+        void heartbeat();
+    }
+}
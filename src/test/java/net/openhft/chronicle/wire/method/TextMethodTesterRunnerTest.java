@@ -0,0 +1,101 @@
+package net.openhft.chronicle.wire.method;
+
+import net.openhft.chronicle.core.OS;
+import net.openhft.chronicle.core.io.IOTools;
+import net.openhft.chronicle.wire.*;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static net.openhft.chronicle.wire.TextMethodTesterRunner.Status.*;
+import static org.junit.Assert.*;
+
+public class TextMethodTesterRunnerTest extends WireTestCommon {
+    @Test
+    public void runsInParallelAndSkipsUnchanged() throws IOException {
+        String dir = OS.getTarget() + "/runner-" + System.nanoTime();
+        new File(dir).mkdirs();
+        try {
+            String out = dir + "/methods-out.yaml";
+            Files.write(new File(out).toPath(), IOTools.readFile(getClass(), "/methods-out.yaml"));
+            String state = dir + "/state.properties";
+
+            TextMethodTesterRunner runner = new TextMethodTesterRunner()
+                    .parallelism(4)
+                    .stateFile(state);
+            for (int i = 0; i < 8; i++) {
+                runner.add("text" + i, () -> new TextMethodTester<>(out, MockMethodsImpl::new, MockMethods.class, out));
+                runner.add("yaml" + i, () -> new YamlMethodTester<>(out, MockMethodsImpl::new, MockMethods.class, out));
+            }
+
+            List<TextMethodTesterRunner.Result> results = runner.run();
+            assertEquals(16, results.size());
+            for (TextMethodTesterRunner.Result result : results)
+                assertEquals(result.toString(), PASSED, result.status());
+
+            for (TextMethodTesterRunner.Result result : runner.run())
+                assertEquals(result.toString(), SKIPPED, result.status());
+
+            // changing the expected output re-runs every case which uses it
+            Files.write(new File(out).toPath(), "---\nmethod1: { field1: changed }\n...\n".getBytes());
+            new File(out).setLastModified(System.currentTimeMillis() + 2000);
+            for (TextMethodTesterRunner.Result result : runner.run())
+                assertNotEquals(result.toString(), SKIPPED, result.status());
+        } finally {
+            IOTools.deleteDirWithFiles(dir);
+        }
+    }
+
+    @Test
+    public void renamedFileReruns() throws IOException {
+        String dir = OS.getTarget() + "/runner-" + System.nanoTime();
+        new File(dir).mkdirs();
+        try {
+            byte[] content = IOTools.readFile(getClass(), "/methods-out.yaml");
+            String a = dir + "/a.yaml";
+            String b = dir + "/b.yaml";
+            Files.write(new File(a).toPath(), content);
+            Files.write(new File(b).toPath(), content);
+            String state = dir + "/state.properties";
+
+            TextMethodTesterRunner runner = new TextMethodTesterRunner()
+                    .parallelism(1)
+                    .stateFile(state)
+                    .add("case", () -> new TextMethodTester<>(a, MockMethodsImpl::new, MockMethods.class, b));
+            assertEquals(PASSED, runner.run().get(0).status());
+
+            // the same content under other names is a different case
+            TextMethodTesterRunner swapped = new TextMethodTesterRunner()
+                    .parallelism(1)
+                    .stateFile(state)
+                    .add("case", () -> new TextMethodTester<>(b, MockMethodsImpl::new, MockMethods.class, a));
+            assertEquals(PASSED, swapped.run().get(0).status());
+            assertEquals(SKIPPED, swapped.run().get(0).status());
+        } finally {
+            IOTools.deleteDirWithFiles(dir);
+        }
+    }
+
+    @Test
+    public void inputParsedOnce() throws IOException {
+        TextMethodTesterRunner runner = new TextMethodTesterRunner();
+        TextMethodTester<MockMethods> tester = new TextMethodTester<>("methods-out.yaml", MockMethodsImpl::new, MockMethods.class, "methods-out.yaml");
+        Wire wire1 = runner.readWire(tester, "methods-out.yaml");
+        Wire wire2 = runner.readWire(tester, "methods-out.yaml");
+        assertTrue(wire1 instanceof BinaryWire);
+        assertNotSame(wire1.bytes(), wire2.bytes());
+
+        int documents = 0;
+        while (true) {
+            try (DocumentContext dc = wire1.readingDocument()) {
+                if (!dc.isPresent())
+                    break;
+                documents++;
+            }
+        }
+        assertEquals(3, documents);
+    }
+}
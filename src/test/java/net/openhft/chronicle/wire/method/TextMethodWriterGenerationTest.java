@@ -0,0 +1,77 @@
+package net.openhft.chronicle.wire.method;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.wire.*;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+
+import static org.junit.Assert.*;
+
+public class TextMethodWriterGenerationTest extends WireTestCommon {
+    private static String write(WireType wireType) {
+        Wire wire = wireType.apply(Bytes.allocateElasticOnHeap());
+        Events events = wire.methodWriter(Events.class);
+        assertFalse(Proxy.isProxyClass(events.getClass()));
+        for (int i = 0; i < 2; i++) {
+            events.order("ABC", 1_000, i);
+            events.time(0x12345);
+            events.hello("world");
+        }
+        String s = wire.toString();
+        wire.bytes().releaseLast();
+        return s;
+    }
+
+    @Test
+    public void text() {
+        assertEquals("" +
+                        "order: [\n" +
+                        "  ABC,\n" +
+                        "  1000,\n" +
+                        "  !int 0\n" +
+                        "]\n" +
+                        "...\n" +
+                        "time: 12345\n" +
+                        "...\n" +
+                        "hello: world\n" +
+                        "...\n" +
+                        "order: [\n" +
+                        "  ABC,\n" +
+                        "  1000,\n" +
+                        "  !int 1\n" +
+                        "]\n" +
+                        "...\n" +
+                        "time: 12345\n" +
+                        "...\n" +
+                        "hello: world\n" +
+                        "...\n",
+                write(WireType.TEXT));
+    }
+
+    @Test
+    public void json() {
+        assertEquals("" +
+                        "\"order\":[ \"ABC\",1000,0 ]\n" +
+                        "...\n" +
+                        "\"time\":\"12345\"\n" +
+                        "...\n" +
+                        "\"hello\":\"world\"\n" +
+                        "...\n" +
+                        "\"order\":[ \"ABC\",1000,1 ]\n" +
+                        "...\n" +
+                        "\"time\":\"12345\"\n" +
+                        "...\n" +
+                        "\"hello\":\"world\"\n" +
+                        "...\n",
+                write(WireType.JSON));
+    }
+
+    interface Events {
+        void order(String symbol, long qty, int side);
+
+        void time(@LongConversion(HexadecimalLongConverter.class) long time);
+
+        void hello(String name);
+    }
+}